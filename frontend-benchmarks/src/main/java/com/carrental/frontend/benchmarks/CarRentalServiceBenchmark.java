@@ -0,0 +1,101 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.services.CarRentalService;
+import com.carrental.frontend.stub.StubBackend;
+import com.carrental.frontend.utils.CloseableIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CarRentalService end to end over loopback HTTP against {@link StubBackend}:
+ * list loading buffered and streamed, and single-car lookups with a cold and a
+ * warm entity cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarRentalServiceBenchmark {
+    @Param({"1000", "10000"})
+    public int size;
+
+    private StubBackend server;
+    private CarRentalService service;
+    private List<Car> cars;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = StubBackend.builder()
+                .cars(size)
+                .customers(0)
+                .bookings(0)
+                .today(LocalDate.of(2024, 1, 1))
+                .cacheResponses(true)
+                .start();
+        service = new CarRentalService(server.baseUrl());
+        cars = service.getAllCars();
+    }
+
+    @Setup(Level.Iteration)
+    public void warmCache() throws Exception {
+        // Fills the entity cache, so only getCarByIdCold goes over the wire
+        service.getAllCars();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<Car> getAllCars() throws Exception {
+        service.clearCaches();
+        return service.getAllCars();
+    }
+
+    @Benchmark
+    public void streamAllCars(Blackhole blackhole) throws Exception {
+        service.clearCaches();
+        try (CloseableIterator<Car> iterator = service.streamAllCars()) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public Car getCarByIdCold() throws Exception {
+        service.clearCaches();
+        return service.getCarById(nextId());
+    }
+
+    @Benchmark
+    public Car getCarByIdWarm() throws Exception {
+        return service.getCarById(nextId());
+    }
+
+    private String nextId() {
+        next = (next + 1) % cars.size();
+        return cars.get(next).getId();
+    }
+}
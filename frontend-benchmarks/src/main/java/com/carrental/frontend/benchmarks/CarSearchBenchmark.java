@@ -0,0 +1,69 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.services.CarQuery;
+import com.carrental.frontend.services.CarSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local car search through CarSearchIndex: a selective combined query, a broad
+ * range query sorted by rate, and a full index rebuild.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarSearchBenchmark {
+    @Param({"50000"})
+    public int size;
+
+    private List<Car> cars;
+    private CarSearchIndex index;
+    private CarQuery selective;
+    private CarQuery broadSorted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cars = SampleData.cars(size);
+        index = new CarSearchIndex();
+        index.rebuild(cars);
+        selective = new CarQuery().make("toyota").fuelType("Hybrid").transmission("Automatic")
+                .minSeats(5).maxDailyRate(new BigDecimal("120"));
+        broadSorted = new CarQuery().minYear(2018).available(true)
+                .sortBy(CarQuery.SortKey.DAILY_RATE, false).limit(200);
+    }
+
+    @Benchmark
+    public List<Car> selectiveQuery() {
+        return index.search(selective);
+    }
+
+    @Benchmark
+    public List<Car> broadSortedQuery() {
+        return index.search(broadSorted);
+    }
+
+    @Benchmark
+    public CarSearchIndex rebuild() {
+        CarSearchIndex fresh = new CarSearchIndex();
+        fresh.rebuild(cars);
+        return fresh;
+    }
+}
@@ -0,0 +1,56 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.services.FleetAnalytics;
+import com.carrental.frontend.services.FleetReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputing a year of utilization and revenue analytics for a fleet from its
+ * loaded bookings, as the Analytics tab does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FleetAnalyticsBenchmark {
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+
+    @Param({"5000"})
+    public int cars;
+
+    @Param({"200000"})
+    public int bookings;
+
+    private List<Car> fleet;
+    private List<Booking> history;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fleet = SampleData.cars(cars);
+        history = SampleData.bookings(bookings, cars, Math.max(bookings / 10, 1));
+    }
+
+    @Benchmark
+    public FleetReport year() {
+        return FleetAnalytics.compute(fleet, history, FROM, FROM.plusYears(1));
+    }
+}
@@ -0,0 +1,105 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.utils.JsonArrayIterator;
+import com.carrental.frontend.utils.ModelJson;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson decoding of list responses the way CarRentalService does it: building the
+ * whole List from a String, versus walking the array with JsonArrayIterator.
+ *
+ * Only the shared ModelJson adapters are measured. Reflective Gson is no
+ * baseline for them: it cannot read the API's ISO dates and numeric statuses,
+ * and on the models it would bind their compact internal fields (epoch days,
+ * epoch seconds) and bypass the setters that pool shared values, so it would
+ * time a different format and a different heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GsonParseBenchmark {
+    private static final Type CAR_LIST = new TypeToken<List<Car>>(){}.getType();
+    private static final Type CUSTOMER_LIST = new TypeToken<List<Customer>>(){}.getType();
+    private static final Type BOOKING_LIST = new TypeToken<List<Booking>>(){}.getType();
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private Gson gson;
+    private List<Booking> bookings;
+    private String carsJson;
+    private String customersJson;
+    private String bookingsJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gson = ModelJson.gson();
+        bookings = SampleData.bookings(size, Math.max(size / 10, 1), Math.max(size / 2, 1));
+        carsJson = gson.toJson(SampleData.cars(size));
+        customersJson = gson.toJson(SampleData.customers(size));
+        bookingsJson = gson.toJson(bookings, BOOKING_LIST);
+    }
+
+    @Benchmark
+    public List<Car> parseCars() {
+        return gson.fromJson(carsJson, CAR_LIST);
+    }
+
+    @Benchmark
+    public List<Customer> parseCustomers() {
+        return gson.fromJson(customersJson, CUSTOMER_LIST);
+    }
+
+    @Benchmark
+    public List<Booking> parseBookings() {
+        return gson.fromJson(bookingsJson, BOOKING_LIST);
+    }
+
+    @Benchmark
+    public String writeBookings() {
+        return gson.toJson(bookings, BOOKING_LIST);
+    }
+
+    @Benchmark
+    public void streamCars(Blackhole blackhole) throws Exception {
+        try (JsonArrayIterator<Car> cars = new JsonArrayIterator<>(new StringReader(carsJson), gson, Car.class)) {
+            while (cars.hasNext()) {
+                blackhole.consume(cars.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public void streamBookings(Blackhole blackhole) throws Exception {
+        try (JsonArrayIterator<Booking> bookings = new JsonArrayIterator<>(new StringReader(bookingsJson), gson, Booking.class)) {
+            while (bookings.hasNext()) {
+                blackhole.consume(bookings.next());
+            }
+        }
+    }
+}
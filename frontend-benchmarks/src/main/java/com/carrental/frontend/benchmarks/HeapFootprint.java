@@ -0,0 +1,71 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.utils.ModelJson;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Retained heap of decoded car, customer and booking lists, measured as the
+ * growth in used heap after full collections. Lists are decoded from JSON with
+ * the ModelJson adapters, as CarRentalService does, so every string starts out
+ * as its own instance the way it would off the wire.
+ *
+ * Not a JMH benchmark; run it on its own:
+ * {@code java -Xmx1g -cp target/benchmarks.jar com.carrental.frontend.benchmarks.HeapFootprint 100000}
+ */
+public final class HeapFootprint {
+    private static final Type CAR_LIST = new TypeToken<List<Car>>(){}.getType();
+    private static final Type CUSTOMER_LIST = new TypeToken<List<Customer>>(){}.getType();
+    private static final Type BOOKING_LIST = new TypeToken<List<Booking>>(){}.getType();
+
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Gson gson = ModelJson.gson();
+        int carCount = Math.max(size / 20, 1);
+        int customerCount = Math.max(size / 10, 1);
+        String carsJson = gson.toJson(SampleData.cars(carCount));
+        String customersJson = gson.toJson(SampleData.customers(customerCount));
+        String bookingsJson = gson.toJson(SampleData.bookings(size, carCount, customerCount));
+
+        // Cars and customers first, as the app loads them, so bookings can share their ids
+        List<Car> cars = measure(carCount + " cars", carCount, () -> gson.fromJson(carsJson, CAR_LIST));
+        List<Customer> customers = measure(customerCount + " customers", customerCount,
+                () -> gson.fromJson(customersJson, CUSTOMER_LIST));
+        List<Booking> bookings = measure(size + " bookings", size, () -> gson.fromJson(bookingsJson, BOOKING_LIST));
+        System.out.println("Holding " + (cars.size() + customers.size() + bookings.size()) + " records");
+    }
+
+    private interface Load<T> {
+        List<T> load();
+    }
+
+    private static <T> List<T> measure(String label, int count, Load<T> load) throws InterruptedException {
+        long before = usedAfterGc();
+        List<T> list = load.load();
+        long retained = usedAfterGc() - before;
+        System.out.printf("%-18s %,12d bytes retained, %,6d bytes per record%n", label, retained, retained / count);
+        return list;
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,85 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.services.CarRentalService;
+import com.carrental.frontend.stub.StubBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading each table's list over loopback HTTP with full documents versus only
+ * the fields the table shows, uncompressed and gzip-encoded. The time covers
+ * transfer, decoding and parsing; the bytes each response took on the wire are
+ * printed at the end of every trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListTransferBenchmark {
+    @Param({"10000"})
+    public int size;
+
+    @Param({"cars", "customers", "bookings"})
+    public String table;
+
+    @Param({"full", "table"})
+    public String projection;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private StubBackend server;
+    private CarRentalService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = StubBackend.builder()
+                .cars(size)
+                .customers(size)
+                .bookings(size)
+                .today(LocalDate.of(2024, 1, 1))
+                .gzip(encoding.equals("gzip"))
+                .cacheResponses(true)
+                .start();
+        service = new CarRentalService(server.baseUrl());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(table + ", " + projection + ", " + encoding + ": "
+                + server.getAverageBodyBytes() + " bytes per response");
+        server.close();
+    }
+
+    @Benchmark
+    public List<?> load() throws Exception {
+        service.clearCaches();
+        boolean full = projection.equals("full");
+        switch (table) {
+            case "cars":
+                return full ? service.getAllCars() : service.getAllCars(CarRentalService.CAR_TABLE_FIELDS);
+            case "customers":
+                return full ? service.getAllCustomers() : service.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS);
+            default:
+                return full ? service.getAllBookings() : service.getAllBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        }
+    }
+}
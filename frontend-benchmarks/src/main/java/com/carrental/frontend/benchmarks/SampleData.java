@@ -0,0 +1,107 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.models.Address;
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic fleet data shaped like database/sample-cars.js and
+ * sample-customers.js, so runs are comparable across commits.
+ */
+final class SampleData {
+    private static final String[] MAKES = {"Toyota", "Honda", "Ford", "BMW", "Tesla", "Chevrolet", "Nissan", "Audi"};
+    private static final String[] MODELS = {"Camry", "Civic", "Mustang", "X5", "Model 3", "Malibu", "Altima", "A4"};
+    private static final String[] COLORS = {"Silver", "Black", "White", "Blue", "Red", "Gray"};
+    private static final String[] FUEL_TYPES = {"Gasoline", "Hybrid", "Electric", "Diesel"};
+    private static final String[] TRANSMISSIONS = {"Automatic", "Manual"};
+    private static final String[] CITIES = {"New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Seattle"};
+    private static final String[] STATES = {"NY", "CA", "IL", "TX", "AZ", "WA"};
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Mike", "Sarah", "David", "Emily", "Chris", "Anna"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller"};
+    private static final LocalDate EPOCH = LocalDate.of(2024, 1, 1);
+
+    private SampleData() {
+    }
+
+    static List<Car> cars(int count) {
+        Random random = new Random(42);
+        List<Car> cars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int model = random.nextInt(MAKES.length);
+            Car car = new Car(MAKES[model], MODELS[model], 2015 + random.nextInt(10), pick(random, COLORS),
+                    String.format("CAR-%06d", i), BigDecimal.valueOf(30 + random.nextInt(150)).add(new BigDecimal("0.99")),
+                    pick(random, FUEL_TYPES), pick(random, TRANSMISSIONS), 2 + random.nextInt(6));
+            car.setId(objectId(1, i));
+            car.setAvailable(random.nextInt(4) != 0);
+            car.setDescription("Well maintained " + car.getMake() + " " + car.getModel() + " with low mileage.");
+            car.setImageUrl("https://images.example.com/cars/" + car.getId() + ".jpg");
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    static List<Customer> customers(int count) {
+        Random random = new Random(43);
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int city = random.nextInt(CITIES.length);
+            String first = pick(random, FIRST_NAMES);
+            String last = pick(random, LAST_NAMES);
+            Address address = new Address((100 + random.nextInt(9000)) + " Main St", CITIES[city], STATES[city],
+                    String.format("%05d", random.nextInt(99999)), "USA");
+            Customer customer = new Customer(first, last, (first + "." + last + i + "@example.com").toLowerCase(),
+                    String.format("+1-555-%07d", i), address, LocalDate.of(1950 + random.nextInt(50), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    String.format("DL%08d", i));
+            customer.setId(objectId(2, i));
+            customer.setCreatedAt(EPOCH.minusDays(random.nextInt(1000)));
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    static List<Booking> bookings(int count, int carCount, int customerCount) {
+        Random random = new Random(44);
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int car = random.nextInt(carCount);
+            int customer = random.nextInt(customerCount);
+            Booking booking = new Booking();
+            booking.setId(objectId(3, i));
+            booking.setCarId(objectId(1, car));
+            booking.setCustomerId(objectId(2, customer));
+            booking.setCustomerName(pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES));
+            booking.setCarInfo(MAKES[car % MAKES.length] + " " + MODELS[car % MODELS.length]);
+            int days = 1 + random.nextInt(14);
+            booking.setTotalDays(days);
+            booking.setPickupDate(EPOCH.plusDays(random.nextInt(365)));
+            booking.setReturnDate(booking.getPickupDate().plusDays(days));
+            booking.setCreatedAt(booking.getPickupDate().minusDays(random.nextInt(60)).atTime(9, 0)
+                    .plusSeconds(random.nextInt(36_000)));
+            booking.setUpdatedAt(booking.getCreatedAt().plusMinutes(random.nextInt(10_000)));
+            booking.setDailyRate(BigDecimal.valueOf(30 + random.nextInt(150)));
+            booking.setTotalAmount(booking.getDailyRate().multiply(BigDecimal.valueOf(days)));
+            booking.setStatus(statuses[random.nextInt(statuses.length)]);
+            booking.setPickupLocation(pick(random, CITIES) + " Airport");
+            booking.setReturnLocation(pick(random, CITIES) + " Downtown");
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    static String objectId(int kind, int index) {
+        return String.format("%08x%016x", kind, index);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
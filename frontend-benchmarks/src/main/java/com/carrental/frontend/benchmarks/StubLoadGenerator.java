@@ -0,0 +1,59 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.LoadGenerator;
+import com.carrental.frontend.stub.StubBackend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the frontend's LoadGenerator against an in-process {@link StubBackend}
+ * with generated data rather than a real server. Options for the stub come
+ * first; everything else, except --url, goes to LoadGenerator:
+ * <pre>
+ * java -cp target/benchmarks.jar com.carrental.frontend.benchmarks.StubLoadGenerator \
+ *     --stub-latency 5 --stub-cars 5000 --rate 200 --duration 30
+ * </pre>
+ */
+public final class StubLoadGenerator {
+    private StubLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        StubBackend.Builder builder = StubBackend.builder();
+        List<String> rest = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--stub-")) {
+                rest.add(arg);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--stub-latency": builder.latencyMillis(Long.parseLong(value)); break;
+                case "--stub-jitter": builder.jitterMillis(Long.parseLong(value)); break;
+                case "--stub-error-rate": builder.errorRate(Double.parseDouble(value)); break;
+                case "--stub-lost-response-rate": builder.lostResponseRate(Double.parseDouble(value)); break;
+                case "--stub-cars": builder.cars(Integer.parseInt(value)); break;
+                case "--stub-customers": builder.customers(Integer.parseInt(value)); break;
+                case "--stub-bookings": builder.bookings(Integer.parseInt(value)); break;
+                default: throw new IllegalArgumentException("Unknown option " + arg + "; stub options are "
+                        + Arrays.asList("--stub-latency", "--stub-jitter", "--stub-error-rate",
+                        "--stub-lost-response-rate", "--stub-cars", "--stub-customers", "--stub-bookings"));
+            }
+        }
+        StubBackend stub = builder.start();
+        // LoadGenerator ends the JVM when it is done
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stub.close();
+            System.out.println("Stub requests served: " + stub.getRequestCounts());
+        }));
+        rest.add("--url");
+        rest.add(stub.baseUrl());
+        LoadGenerator.main(rest.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,125 @@
+package com.carrental.frontend.benchmarks;
+
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.ui.ListPageSource;
+import com.carrental.frontend.ui.PagedTableModel;
+import com.carrental.frontend.ui.RowDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.table.DefaultTableModel;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of getting a loaded car list into a table model: the old
+ * DefaultTableModel.addRow loop against the paged model fed in stream chunks,
+ * and diffing a refresh in which only a handful of rows changed.
+ *
+ * Models are not attached to a JTable, so this measures model work only and
+ * runs headless.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TablePopulationBenchmark {
+    private static final String[] CAR_COLUMNS = {"ID", "Make", "Model", "Year", "Color", "License", "Daily Rate",
+            "Available", "Fuel", "Transmission", "Seats"};
+    private static final int CHUNK_SIZE = 500;
+    private static final int PAGE_SIZE = 200;
+    private static final int CHANGED_ROWS = 5;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<Car> cars;
+    private List<List<Car>> chunks;
+    private List<Car> refreshedCars;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cars = SampleData.cars(size);
+        chunks = new ArrayList<>();
+        for (int i = 0; i < cars.size(); i += CHUNK_SIZE) {
+            chunks.add(cars.subList(i, Math.min(i + CHUNK_SIZE, cars.size())));
+        }
+        refreshedCars = new ArrayList<>(cars);
+        for (int i = 0; i < CHANGED_ROWS; i++) {
+            int index = (int) ((long) size * i / CHANGED_ROWS);
+            Car changed = copy(cars.get(index));
+            changed.setDailyRate(changed.getDailyRate().add(BigDecimal.ONE));
+            refreshedCars.set(index, changed);
+        }
+    }
+
+    @Benchmark
+    public DefaultTableModel defaultTableModel() {
+        DefaultTableModel model = new DefaultTableModel(CAR_COLUMNS, 0);
+        for (Car car : cars) {
+            model.addRow(carRow(car));
+        }
+        return model;
+    }
+
+    @Benchmark
+    public PagedTableModel<Car> pagedTableModel() throws Exception {
+        PagedTableModel<Car> model = new PagedTableModel<>(CAR_COLUMNS, TablePopulationBenchmark::carRow,
+                PAGE_SIZE, 10, Runnable::run);
+        ListPageSource<Car> rows = new ListPageSource<>();
+        model.setSource(rows);
+        for (List<Car> chunk : chunks) {
+            rows.addAll(chunk);
+            model.sourceGrew();
+        }
+        // What the viewport needs right away: the first page, mapped to cells
+        for (Car car : rows.fetch(0, PAGE_SIZE)) {
+            carRow(car);
+        }
+        return model;
+    }
+
+    @Benchmark
+    public RowDiff<Car> refreshDiff() {
+        return RowDiff.compute(cars, refreshedCars, Car::getId, TablePopulationBenchmark::carRow);
+    }
+
+    // Same columns as CarRentalApp's car table
+    private static Object[] carRow(Car car) {
+        return new Object[] {
+            car.getId(),
+            car.getMake(),
+            car.getModel(),
+            car.getYear(),
+            car.getColor(),
+            car.getLicensePlate(),
+            car.getDailyRate(),
+            car.isAvailable() ? "Yes" : "No",
+            car.getFuelType(),
+            car.getTransmission(),
+            car.getSeats()
+        };
+    }
+
+    private static Car copy(Car car) {
+        Car copy = new Car(car.getMake(), car.getModel(), car.getYear(), car.getColor(), car.getLicensePlate(),
+                car.getDailyRate(), car.getFuelType(), car.getTransmission(), car.getSeats());
+        copy.setId(car.getId());
+        copy.setAvailable(car.isAvailable());
+        return copy;
+    }
+}
@@ -1,53 +1,157 @@
 package com.carrental.frontend;
 
+import com.carrental.frontend.models.Address;
 import com.carrental.frontend.models.Car;
 import com.carrental.frontend.models.Customer;
 import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.services.BookingIntervalIndex;
+import com.carrental.frontend.services.BulkImporter;
+import com.carrental.frontend.services.CarQuery;
 import com.carrental.frontend.services.CarRentalService;
+import com.carrental.frontend.services.CarSearchIndex;
+import com.carrental.frontend.services.CsvExporter;
+import com.carrental.frontend.services.CustomerPrefixIndex;
+import com.carrental.frontend.services.ExportResult;
+import com.carrental.frontend.services.ImportResult;
+import com.carrental.frontend.services.MutationJournal;
+import com.carrental.frontend.services.PendingMutation;
+import com.carrental.frontend.services.Snapshot;
+import com.carrental.frontend.services.SnapshotStore;
+import com.carrental.frontend.services.WriteBehindQueue;
+import com.carrental.frontend.ui.AnalyticsPanel;
+import com.carrental.frontend.ui.DiagnosticsDialog;
+import com.carrental.frontend.ui.ListPageSource;
+import com.carrental.frontend.ui.PagedTableModel;
+import com.carrental.frontend.ui.RowDiff;
+import com.carrental.frontend.ui.TypeAheadField;
+import com.carrental.frontend.utils.IoExecutors;
+import com.carrental.frontend.utils.TaskRunner;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public class CarRentalApp extends JFrame {
+    private static final int LOAD_CHUNK_SIZE = 500;
+    private static final long AVAILABILITY_TIMEOUT_MS = 2000;
+    private static final int TABLE_PAGE_SIZE = 200;
+    private static final int TABLE_CACHED_PAGES = 10;
+    private static final int IMPORT_FAILURES_SHOWN = 20;
+    private static final int CUSTOMER_SUGGESTIONS = 15;
+    private static final int CUSTOMER_SEARCH_DEBOUNCE_MS = 120;
+
     private CarRentalService carRentalService;
+    private BulkImporter bulkImporter;
+    private CsvExporter csvExporter;
+    private SnapshotStore snapshotStore;
+    private WriteBehindQueue writeQueue;
+    // Set once each table holds data confirmed by the API rather than from the snapshot
+    private boolean carsSynced, customersSynced, bookingsSynced;
+    private boolean snapshotDirty;
+    private TaskRunner taskRunner;
+    private Executor pageLoader;
+    private Executor customerSearchExecutor;
     private JTabbedPane tabbedPane;
+    private JLabel statusLabel;
+    private JProgressBar busyIndicator;
+    private JButton syncButton;
     
     // Car management components
     private JTable carTable;
-    private DefaultTableModel carTableModel;
+    private PagedTableModel<Car> carTableModel;
+    private ListPageSource<Car> carRows;
     private JTextField makeField, modelField, yearField, colorField, licenseField, rateField;
     private JTextField fuelField, transmissionField, seatsField, imageField, descField;
+    private JTextField searchMakeField, searchFuelField, searchTransmissionField, searchMinSeatsField, searchMaxRateField;
+    private JCheckBox searchAvailableBox, searchDescendingBox;
+    private JComboBox<CarQuery.SortKey> searchSortCombo;
+    private final CarSearchIndex carSearchIndex = new CarSearchIndex();
+    // When set the car table shows search results instead of carRows
+    private boolean carFilterActive;
     
     // Customer management components
     private JTable customerTable;
-    private DefaultTableModel customerTableModel;
+    private PagedTableModel<Customer> customerTableModel;
+    private ListPageSource<Customer> customerRows;
     private JTextField firstNameField, lastNameField, emailField, phoneField;
     private JTextField streetField, cityField, stateField, zipField, countryField;
     private JTextField dobField, driversLicenseField;
     
     // Booking components
     private JTable bookingTable;
-    private DefaultTableModel bookingTableModel;
-    private JComboBox<Customer> customerCombo;
+    private PagedTableModel<Booking> bookingTableModel;
+    private ListPageSource<Booking> bookingRows;
+    private TypeAheadField<Customer> customerPicker;
+    // Replaced wholesale whenever the customers change; read by the picker's lookups
+    private volatile CustomerPrefixIndex customerIndex = CustomerPrefixIndex.empty();
     private JComboBox<Car> carCombo;
+    // Set by Find Available Cars: the dates it checked and the ids of the cars it found free
+    private String availabilityRange;
+    private Set<String> availableCarIds;
     private JTextField pickupDateField, returnDateField;
     private JTextField pickupLocationField, returnLocationField;
     private JTextArea notesArea;
+    private JLabel bookingHintLabel;
+    private final BookingIntervalIndex bookingIndex = new BookingIntervalIndex();
 
-    public CarRentalApp() {
+    /**
+     * @param journal the write-behind journal, already opened and replayed off the
+     *                EDT by {@link #openJournal()}
+     */
+    public CarRentalApp(MutationJournal journal) {
         this.carRentalService = new CarRentalService("http://localhost:5000");
+        this.bulkImporter = new BulkImporter(carRentalService, BulkImporter.DEFAULT_CONCURRENCY);
+        this.csvExporter = new CsvExporter(carRentalService);
+        this.snapshotStore = new SnapshotStore(SnapshotStore.defaultLocation());
+        this.writeQueue = new WriteBehindQueue(carRentalService, journal);
+        this.taskRunner = new TaskRunner(4);
+        this.pageLoader = IoExecutors.newIoExecutor("table-pages", 2);
+        this.customerSearchExecutor = IoExecutors.newIoExecutor("customer-search", 1);
+        carRentalService.getHttpMetrics().registerMBean();
         initializeUI();
+        writeQueue.setListener(new WriteQueueListener());
+        updateSyncStatus(writeQueue.getPendingCount(), null);
         loadData();
     }
 
+    /**
+     * Opens and replays the journal, falling back to one in memory if it cannot be
+     * opened or another running client holds it. Does disk I/O, so it runs on the
+     * main thread before the frame is built.
+     */
+    private static MutationJournal openJournal() {
+        try {
+            return MutationJournal.open(MutationJournal.defaultLocation());
+        } catch (IOException e) {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                    "Changes made while the server is unreachable will not survive a restart: "
+                    + e.getMessage(), "Warning", JOptionPane.WARNING_MESSAGE));
+            return MutationJournal.inMemory();
+        }
+    }
+
     private void initializeUI() {
         setTitle("Car Rental Management System");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -60,8 +164,53 @@ public class CarRentalApp extends JFrame {
         tabbedPane.addTab("Cars", createCarManagementPanel());
         tabbedPane.addTab("Customers", createCustomerManagementPanel());
         tabbedPane.addTab("Bookings", createBookingManagementPanel());
+        tabbedPane.addTab("Analytics", new AnalyticsPanel(taskRunner,
+                () -> carRows != null ? carRows.snapshot() : Collections.emptyList(),
+                () -> bookingRows != null ? bookingRows.snapshot() : Collections.emptyList()));
         
-        add(tabbedPane);
+        add(tabbedPane, BorderLayout.CENTER);
+        add(createStatusBar(), BorderLayout.SOUTH);
+        taskRunner.setBusyListener(this::updateBusyState);
+    }
+
+    private JPanel createStatusBar() {
+        JPanel statusBar = new JPanel(new BorderLayout(5, 0));
+        statusBar.setBorder(BorderFactory.createEmptyBorder(2, 5, 2, 5));
+        
+        statusLabel = new JLabel("Ready");
+        busyIndicator = new JProgressBar();
+        busyIndicator.setIndeterminate(true);
+        busyIndicator.setVisible(false);
+        syncButton = new JButton();
+        syncButton.setVisible(false);
+        syncButton.addActionListener(e -> writeQueue.retryNow());
+        JButton diagnosticsButton = new JButton("Diagnostics");
+        diagnosticsButton.addActionListener(e -> showDiagnostics());
+
+        JPanel eastPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        eastPanel.add(busyIndicator);
+        eastPanel.add(syncButton);
+        eastPanel.add(diagnosticsButton);
+        
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        statusBar.add(eastPanel, BorderLayout.EAST);
+        return statusBar;
+    }
+
+    private void updateSyncStatus(int pendingCount, IOException lastError) {
+        syncButton.setVisible(pendingCount > 0);
+        syncButton.setText("Sync now (" + pendingCount + (pendingCount == 1 ? " change" : " changes") + " pending)");
+        syncButton.setToolTipText(lastError != null ? "Server unreachable, retrying: " + lastError.getMessage() : null);
+    }
+
+    private void showDiagnostics() {
+        new DiagnosticsDialog(this, carRentalService.getHttpMetrics(), carRentalService::getCacheStats).setVisible(true);
+    }
+
+    private void updateBusyState(int activeTasks) {
+        busyIndicator.setVisible(activeTasks > 0);
+        statusLabel.setText(activeTasks > 0 ? "Working... (" + activeTasks + " pending)" : "Ready");
+        setCursor(activeTasks > 0 ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
 
     private JPanel createCarManagementPanel() {
@@ -69,17 +218,13 @@ public class CarRentalApp extends JFrame {
         
         // Car table
         String[] carColumns = {"ID", "Make", "Model", "Year", "Color", "License", "Daily Rate", "Available", "Fuel", "Transmission", "Seats"};
-        carTableModel = new DefaultTableModel(carColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        carTableModel = new PagedTableModel<>(carColumns, this::carRow, TABLE_PAGE_SIZE, TABLE_CACHED_PAGES, pageLoader);
         carTable = new JTable(carTableModel);
         carTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
         JScrollPane carScrollPane = new JScrollPane(carTable);
         panel.add(carScrollPane, BorderLayout.CENTER);
+        panel.add(createCarSearchPanel(), BorderLayout.NORTH);
         
         // Car form panel
         JPanel carFormPanel = new JPanel(new GridBagLayout());
@@ -118,16 +263,22 @@ public class CarRentalApp extends JFrame {
         JButton updateCarBtn = new JButton("Update Car");
         JButton deleteCarBtn = new JButton("Delete Car");
         JButton refreshCarBtn = new JButton("Refresh");
+        JButton importCarsBtn = new JButton("Import...");
+        JButton exportCarsBtn = new JButton("Export...");
         
         addCarBtn.addActionListener(e -> addCar());
         updateCarBtn.addActionListener(e -> updateCar());
         deleteCarBtn.addActionListener(e -> deleteCar());
         refreshCarBtn.addActionListener(e -> loadCars());
+        importCarsBtn.addActionListener(e -> importCars());
+        exportCarsBtn.addActionListener(e -> exportCars());
         
         buttonPanel.add(addCarBtn);
         buttonPanel.add(updateCarBtn);
         buttonPanel.add(deleteCarBtn);
         buttonPanel.add(refreshCarBtn);
+        buttonPanel.add(importCarsBtn);
+        buttonPanel.add(exportCarsBtn);
         
         carFormPanel.add(buttonPanel, gbc);
         gbc.gridy++;
@@ -142,12 +293,7 @@ public class CarRentalApp extends JFrame {
         
         // Customer table
         String[] customerColumns = {"ID", "First Name", "Last Name", "Email", "Phone", "City", "State", "DOB", "License"};
-        customerTableModel = new DefaultTableModel(customerColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        customerTableModel = new PagedTableModel<>(customerColumns, this::customerRow, TABLE_PAGE_SIZE, TABLE_CACHED_PAGES, pageLoader);
         customerTable = new JTable(customerTableModel);
         customerTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
@@ -191,16 +337,22 @@ public class CarRentalApp extends JFrame {
         JButton updateCustomerBtn = new JButton("Update Customer");
         JButton deleteCustomerBtn = new JButton("Delete Customer");
         JButton refreshCustomerBtn = new JButton("Refresh");
+        JButton importCustomersBtn = new JButton("Import...");
+        JButton exportCustomersBtn = new JButton("Export...");
         
         addCustomerBtn.addActionListener(e -> addCustomer());
         updateCustomerBtn.addActionListener(e -> updateCustomer());
         deleteCustomerBtn.addActionListener(e -> deleteCustomer());
         refreshCustomerBtn.addActionListener(e -> loadCustomers());
+        importCustomersBtn.addActionListener(e -> importCustomers());
+        exportCustomersBtn.addActionListener(e -> exportCustomers());
         
         buttonPanel.add(addCustomerBtn);
         buttonPanel.add(updateCustomerBtn);
         buttonPanel.add(deleteCustomerBtn);
         buttonPanel.add(refreshCustomerBtn);
+        buttonPanel.add(importCustomersBtn);
+        buttonPanel.add(exportCustomersBtn);
         
         customerFormPanel.add(buttonPanel, gbc);
         gbc.gridy++;
@@ -215,12 +367,7 @@ public class CarRentalApp extends JFrame {
         
         // Booking table
         String[] bookingColumns = {"ID", "Customer", "Car", "Pickup Date", "Return Date", "Total Days", "Total Amount", "Status", "Pickup Location", "Return Location"};
-        bookingTableModel = new DefaultTableModel(bookingColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        bookingTableModel = new PagedTableModel<>(bookingColumns, this::bookingRow, TABLE_PAGE_SIZE, TABLE_CACHED_PAGES, pageLoader);
         bookingTable = new JTable(bookingTableModel);
         bookingTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
@@ -233,7 +380,9 @@ public class CarRentalApp extends JFrame {
         gbc.insets = new Insets(5, 5, 5, 5);
         
         // Form fields
-        customerCombo = new JComboBox<>();
+        customerPicker = new TypeAheadField<>(15, (text, limit) -> customerIndex.search(text, limit),
+                customerSearchExecutor, CUSTOMER_SUGGESTIONS, CUSTOMER_SEARCH_DEBOUNCE_MS);
+        customerPicker.setToolTipText("Type a name, email, phone or driver's license");
         carCombo = new JComboBox<>();
         pickupDateField = new JTextField(15);
         returnDateField = new JTextField(15);
@@ -244,7 +393,7 @@ public class CarRentalApp extends JFrame {
         notesArea.setWrapStyleWord(true);
         
         // Add form fields
-        addFormField(bookingFormPanel, gbc, "Customer:", customerCombo, 0);
+        addFormField(bookingFormPanel, gbc, "Customer:", customerPicker, 0);
         addFormField(bookingFormPanel, gbc, "Car:", carCombo, 1);
         addFormField(bookingFormPanel, gbc, "Pickup Date (YYYY-MM-DD):", pickupDateField, 2);
         addFormField(bookingFormPanel, gbc, "Return Date (YYYY-MM-DD):", returnDateField, 3);
@@ -259,28 +408,141 @@ public class CarRentalApp extends JFrame {
         
         // Buttons
         JPanel buttonPanel = new JPanel(new FlowLayout());
+        JButton findCarsBtn = new JButton("Find Available Cars");
         JButton addBookingBtn = new JButton("Create Booking");
         JButton cancelBookingBtn = new JButton("Cancel Booking");
         JButton refreshBookingBtn = new JButton("Refresh");
+        JButton exportBookingsBtn = new JButton("Export...");
         
+        findCarsBtn.addActionListener(e -> findAvailableCars());
         addBookingBtn.addActionListener(e -> addBooking());
         cancelBookingBtn.addActionListener(e -> cancelBooking());
         refreshBookingBtn.addActionListener(e -> loadBookings());
+        exportBookingsBtn.addActionListener(e -> exportBookings());
         
+        buttonPanel.add(findCarsBtn);
         buttonPanel.add(addBookingBtn);
         buttonPanel.add(cancelBookingBtn);
         buttonPanel.add(refreshBookingBtn);
+        buttonPanel.add(exportBookingsBtn);
         
         gbc.gridx = 0;
         gbc.gridy = 7;
         gbc.gridwidth = 2;
         bookingFormPanel.add(buttonPanel, gbc);
         
+        // Local conflict check against the loaded bookings, updated as the dates are typed
+        bookingHintLabel = new JLabel(" ");
+        gbc.gridy = 8;
+        bookingFormPanel.add(bookingHintLabel, gbc);
+        
+        DocumentListener dateListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { updateBookingHint(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { updateBookingHint(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { updateBookingHint(); }
+        };
+        pickupDateField.getDocument().addDocumentListener(dateListener);
+        returnDateField.getDocument().addDocumentListener(dateListener);
+        carCombo.addActionListener(e -> updateBookingHint());
+        
         panel.add(bookingFormPanel, BorderLayout.SOUTH);
         
         return panel;
     }
 
+    private JPanel createCarSearchPanel() {
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchMakeField = new JTextField(8);
+        searchFuelField = new JTextField(7);
+        searchTransmissionField = new JTextField(7);
+        searchMinSeatsField = new JTextField(3);
+        searchMaxRateField = new JTextField(5);
+        searchAvailableBox = new JCheckBox("Available only");
+        searchSortCombo = new JComboBox<>(CarQuery.SortKey.values());
+        searchDescendingBox = new JCheckBox("Descending");
+
+        searchPanel.add(new JLabel("Make:"));
+        searchPanel.add(searchMakeField);
+        searchPanel.add(new JLabel("Fuel:"));
+        searchPanel.add(searchFuelField);
+        searchPanel.add(new JLabel("Transmission:"));
+        searchPanel.add(searchTransmissionField);
+        searchPanel.add(new JLabel("Min Seats:"));
+        searchPanel.add(searchMinSeatsField);
+        searchPanel.add(new JLabel("Max Rate:"));
+        searchPanel.add(searchMaxRateField);
+        searchPanel.add(searchAvailableBox);
+        searchPanel.add(new JLabel("Sort:"));
+        searchPanel.add(searchSortCombo);
+        searchPanel.add(searchDescendingBox);
+
+        // The index answers in well under a millisecond, so filter on every keystroke
+        DocumentListener searchListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { applyCarFilter(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { applyCarFilter(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { applyCarFilter(); }
+        };
+        for (JTextField field : new JTextField[] {searchMakeField, searchFuelField, searchTransmissionField,
+                searchMinSeatsField, searchMaxRateField}) {
+            field.getDocument().addDocumentListener(searchListener);
+        }
+        searchAvailableBox.addActionListener(e -> applyCarFilter());
+        searchSortCombo.addActionListener(e -> applyCarFilter());
+        searchDescendingBox.addActionListener(e -> applyCarFilter());
+        return searchPanel;
+    }
+
+    private CarQuery buildCarQuery() {
+        CarQuery query = new CarQuery()
+                .make(searchMakeField.getText())
+                .fuelType(searchFuelField.getText())
+                .transmission(searchTransmissionField.getText())
+                .sortBy((CarQuery.SortKey) searchSortCombo.getSelectedItem(), searchDescendingBox.isSelected());
+        // Half-typed numbers are ignored rather than reported while the user is still typing
+        try {
+            if (!searchMinSeatsField.getText().trim().isEmpty()) {
+                query.minSeats(Integer.parseInt(searchMinSeatsField.getText().trim()));
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            if (!searchMaxRateField.getText().trim().isEmpty()) {
+                query.maxDailyRate(new BigDecimal(searchMaxRateField.getText().trim()));
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        if (searchAvailableBox.isSelected()) {
+            query.available(true);
+        }
+        return query;
+    }
+
+    /**
+     * Shows the cars matching the search bar, or all loaded cars when it is empty.
+     */
+    private void applyCarFilter() {
+        if (carRows == null) {
+            return;
+        }
+        CarQuery query = buildCarQuery();
+        carFilterActive = query.hasCriteria() || query.getSortKey() != CarQuery.SortKey.NONE;
+        if (!carFilterActive) {
+            carTableModel.setSource(carRows);
+            return;
+        }
+        long start = System.nanoTime();
+        List<Car> matches = carSearchIndex.search(query);
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        carTableModel.setSource(new ListPageSource<>(matches));
+        statusLabel.setText(String.format("%d of %d cars match (%.2f ms)", matches.size(), carSearchIndex.size(), elapsedMillis));
+    }
+
     private void addFormField(JPanel panel, GridBagConstraints gbc, String label, JComponent component, int row) {
         gbc.gridx = 0;
         gbc.gridy = row;
@@ -293,85 +555,389 @@ public class CarRentalApp extends JFrame {
     }
 
     private void loadData() {
+        // Show what we had last time right away; the loads below then only apply differences
+        taskRunner.submit("loadSnapshot", snapshotStore::load, snapshot -> {
+            if (snapshot != null) {
+                showSnapshot(snapshot);
+            }
+            loadFromServer();
+        }, e -> loadFromServer());
+    }
+
+    private void loadFromServer() {
+        // Each load runs on its own worker, so the three collections are fetched concurrently
         loadCars();
         loadCustomers();
         loadBookings();
     }
 
+    private void showSnapshot(Snapshot snapshot) {
+        carRows = new ListPageSource<>(snapshot.getCars());
+        carTableModel.setSource(carRows);
+        carSearchIndex.rebuild(snapshot.getCars());
+        customerRows = new ListPageSource<>(snapshot.getCustomers());
+        customerTableModel.setSource(customerRows);
+        bookingRows = new ListPageSource<>(snapshot.getBookings());
+        bookingTableModel.setSource(bookingRows);
+        fillCarCombo(snapshot.getCars());
+        rebuildCustomerIndex();
+        bookingIndex.rebuild(snapshot.getBookings());
+        indexPendingBookings();
+        // If the snapshot is recent, the next booking refresh only asks for what changed since
+        carRentalService.seedBookingSync(CarRentalService.BOOKING_TABLE_FIELDS, snapshot.getBookings(),
+                snapshot.getSavedAtMillis());
+        statusLabel.setText("Showing data saved " + new Date(snapshot.getSavedAtMillis()) + ", refreshing...");
+    }
+
+    /**
+     * Saves the current tables for the next launch if they changed, once all three
+     * have been confirmed by the API. Saves requested in quick succession replace
+     * each other.
+     */
+    private void saveSnapshot() {
+        if (!snapshotDirty || !carsSynced || !customersSynced || !bookingsSynced) {
+            return;
+        }
+        snapshotDirty = false;
+        Snapshot snapshot = new Snapshot(carRows.snapshot(), customerRows.snapshot(), bookingRows.snapshot(),
+                System.currentTimeMillis());
+        taskRunner.submit("saveSnapshot", () -> {
+            snapshotStore.save(snapshot);
+            return snapshot;
+        }, saved -> { }, e -> {
+            // Without a snapshot the next launch just loads from the API
+        });
+    }
+
     private void loadCars() {
-        try {
-            List<Car> cars = carRentalService.getAllCars();
-            carTableModel.setRowCount(0);
-            
-            for (Car car : cars) {
-                Object[] row = {
-                    car.getId(),
-                    car.getMake(),
-                    car.getModel(),
-                    car.getYear(),
-                    car.getColor(),
-                    car.getLicensePlate(),
-                    car.getDailyRate(),
-                    car.isAvailable() ? "Yes" : "No",
-                    car.getFuelType(),
-                    car.getTransmission(),
-                    car.getSeats()
-                };
-                carTableModel.addRow(row);
+        // Checked on carRows: with a search active the table may show none of them
+        if (carRows != null && carRows.size() > 0) {
+            refreshCars();
+            return;
+        }
+        carRows = new ListPageSource<>();
+        carTableModel.setSource(carRows);
+        carSearchIndex.clear();
+        carCombo.removeAllItems();
+        taskRunner.stream("loadCars", () -> carRentalService.streamAllCars(CarRentalService.CAR_TABLE_FIELDS), LOAD_CHUNK_SIZE, this::appendCars,
+                count -> {
+                    statusLabel.setText("Loaded " + count + " cars");
+                    carsSynced = true;
+                    snapshotDirty = true;
+                    saveSnapshot();
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error loading cars: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Reloads cars and applies only the rows that changed, keeping selection and scroll.
+     */
+    private void refreshCars() {
+        List<Car> current = carRows.snapshot();
+        String selectedId = selectedId(carTable, carTableModel, Car::getId);
+        taskRunner.submit("loadCars",
+                () -> RowDiff.compute(current, carRentalService.getAllCars(CarRentalService.CAR_TABLE_FIELDS, current), Car::getId, this::carRow),
+                diff -> {
+                    carRows = new ListPageSource<>(diff.getNewItems());
+                    updateCarSearchIndex(current, diff);
+                    if (carFilterActive) {
+                        applyCarFilter();
+                        restoreSelection(carTable, diff.getNewItems(), Car::getId, selectedId);
+                    } else {
+                        carTableModel.applyDiff(carRows, diff);
+                        if (diff.isReordered()) {
+                            restoreSelection(carTable, diff.getNewItems(), Car::getId, selectedId);
+                        }
+                    }
+                    if (!diff.isEmpty()) {
+                        fillCarCombo(diff.getNewItems());
+                    }
+                    statusLabel.setText("Refreshed cars: " + diff.getChangeCount() + " changed");
+                    carsSynced = true;
+                    snapshotDirty |= !diff.isEmpty();
+                    saveSnapshot();
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error loading cars: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void updateCarSearchIndex(List<Car> oldCars, RowDiff<Car> diff) {
+        if (diff.isReordered()) {
+            carSearchIndex.rebuild(diff.getNewItems());
+            return;
+        }
+        for (int row : diff.getDeletedOldRows()) {
+            carSearchIndex.remove(oldCars.get(row).getId());
+        }
+        for (int row : diff.getInsertedNewRows()) {
+            carSearchIndex.put(diff.getNewItems().get(row));
+        }
+        for (int row : diff.getUpdatedNewRows()) {
+            carSearchIndex.put(diff.getNewItems().get(row));
+        }
+    }
+
+    private void appendCars(List<Car> cars) {
+        carRows.addAll(cars);
+        carSearchIndex.addAll(cars);
+        if (carFilterActive) {
+            applyCarFilter();
+        } else {
+            carTableModel.sourceGrew();
+        }
+        boolean filtered = isAvailabilityCurrent();
+        for (Car car : cars) {
+            if (!filtered || availableCarIds.contains(car.getId())) {
+                carCombo.addItem(car);
             }
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Error loading cars: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private void loadCustomers() {
-        try {
-            List<Customer> customers = carRentalService.getAllCustomers();
-            customerTableModel.setRowCount(0);
-            customerCombo.removeAllItems();
-            
-            for (Customer customer : customers) {
-                Object[] row = {
-                    customer.getId(),
-                    customer.getFirstName(),
-                    customer.getLastName(),
-                    customer.getEmail(),
-                    customer.getPhone(),
-                    customer.getAddress().getCity(),
-                    customer.getAddress().getState(),
-                    customer.getDateOfBirth(),
-                    customer.getDriversLicense()
-                };
-                customerTableModel.addRow(row);
-                customerCombo.addItem(customer);
+    /**
+     * Refills the booking form's car combo from the loaded cars, keeping the
+     * selection. While the dates Find Available Cars last checked are still
+     * entered, only the cars it found free are listed, so a car refresh does not
+     * quietly undo the check. Cars added since the check are left out until it
+     * is run again.
+     */
+    private void fillCarCombo(List<Car> cars) {
+        Car selected = (Car) carCombo.getSelectedItem();
+        boolean filtered = isAvailabilityCurrent();
+        carCombo.removeAllItems();
+        for (Car car : cars) {
+            if (!filtered || availableCarIds.contains(car.getId())) {
+                carCombo.addItem(car);
+                if (selected != null && car.getId() != null && car.getId().equals(selected.getId())) {
+                    carCombo.setSelectedItem(car);
+                }
             }
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Error loading customers: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private void loadBookings() {
+    /**
+     * Whether the last availability result still applies to the dates in the
+     * form. It is forgotten once they change.
+     */
+    private boolean isAvailabilityCurrent() {
+        if (availableCarIds != null && !dateRange().equals(availabilityRange)) {
+            availableCarIds = null;
+            availabilityRange = null;
+        }
+        return availableCarIds != null;
+    }
+
+    private String dateRange() {
+        return pickupDateField.getText().trim() + "/" + returnDateField.getText().trim();
+    }
+
+    private Object[] carRow(Car car) {
+        return new Object[] {
+            car.getId(),
+            car.getMake(),
+            car.getModel(),
+            car.getYear(),
+            car.getColor(),
+            car.getLicensePlate(),
+            car.getDailyRate(),
+            car.isAvailable() ? "Yes" : "No",
+            car.getFuelType(),
+            car.getTransmission(),
+            car.getSeats()
+        };
+    }
+
+    private void findAvailableCars() {
         try {
-            List<Booking> bookings = carRentalService.getAllBookings();
-            bookingTableModel.setRowCount(0);
+            String from = LocalDate.parse(pickupDateField.getText()).toString();
+            String to = LocalDate.parse(returnDateField.getText()).toString();
+            String range = dateRange();
             
-            for (Booking booking : bookings) {
-                Object[] row = {
-                    booking.getId(),
-                    booking.getCustomerName(),
-                    booking.getCarInfo(),
-                    booking.getPickupDate(),
-                    booking.getReturnDate(),
-                    booking.getTotalDays(),
-                    booking.getTotalAmount(),
-                    booking.getStatus(),
-                    booking.getPickupLocation(),
-                    booking.getReturnLocation()
-                };
-                bookingTableModel.addRow(row);
+            taskRunner.submit("findAvailableCars",
+                    () -> carRentalService.availableCars(from, to, null, AVAILABILITY_TIMEOUT_MS, TimeUnit.MILLISECONDS),
+                    result -> {
+                        Set<String> ids = new HashSet<>();
+                        for (Car car : result.getAvailableCars()) {
+                            ids.add(car.getId());
+                        }
+                        availabilityRange = range;
+                        availableCarIds = ids;
+                        fillCarCombo(result.getAvailableCars());
+                        statusLabel.setText(result.toString());
+                        if (!result.isComplete()) {
+                            JOptionPane.showMessageDialog(this, "Some cars could not be checked: " + result,
+                                    "Warning", JOptionPane.WARNING_MESSAGE);
+                        }
+                    },
+                    e -> JOptionPane.showMessageDialog(this, "Error checking availability: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Please enter valid pickup and return dates (YYYY-MM-DD).", "Warning", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    private void loadCustomers() {
+        if (customerTableModel.getRowCount() > 0) {
+            refreshCustomers();
+            return;
+        }
+        customerRows = new ListPageSource<>();
+        customerTableModel.setSource(customerRows);
+        taskRunner.stream("loadCustomers", () -> carRentalService.streamAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS), LOAD_CHUNK_SIZE, this::appendCustomers,
+                count -> {
+                    statusLabel.setText("Loaded " + count + " customers");
+                    rebuildCustomerIndex();
+                    customersSynced = true;
+                    snapshotDirty = true;
+                    saveSnapshot();
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error loading customers: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Reloads customers and applies only the rows that changed, keeping selection and scroll.
+     */
+    private void refreshCustomers() {
+        List<Customer> current = customerRows.snapshot();
+        String selectedId = selectedId(customerTable, customerTableModel, Customer::getId);
+        taskRunner.submit("loadCustomers",
+                () -> RowDiff.compute(current, carRentalService.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS, current), Customer::getId, this::customerRow),
+                diff -> {
+                    customerRows = new ListPageSource<>(diff.getNewItems());
+                    customerTableModel.applyDiff(customerRows, diff);
+                    if (diff.isReordered()) {
+                        restoreSelection(customerTable, diff.getNewItems(), Customer::getId, selectedId);
+                    }
+                    if (!diff.isEmpty()) {
+                        rebuildCustomerIndex();
+                    }
+                    statusLabel.setText("Refreshed customers: " + diff.getChangeCount() + " changed");
+                    customersSynced = true;
+                    snapshotDirty |= !diff.isEmpty();
+                    saveSnapshot();
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error loading customers: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void appendCustomers(List<Customer> customers) {
+        customerRows.addAll(customers);
+        customerTableModel.sourceGrew();
+    }
+
+    /**
+     * Rebuilds the customer picker's index from the loaded customers in the background.
+     */
+    private void rebuildCustomerIndex() {
+        List<Customer> customers = customerRows.snapshot();
+        taskRunner.submit("indexCustomers", () -> CustomerPrefixIndex.build(customers), index -> customerIndex = index,
+                e -> statusLabel.setText("Customer search unavailable: " + e.getMessage()));
+    }
+
+    private Object[] customerRow(Customer customer) {
+        Address address = customer.getAddress() != null ? customer.getAddress() : new Address();
+        return new Object[] {
+            customer.getId(),
+            customer.getFirstName(),
+            customer.getLastName(),
+            customer.getEmail(),
+            customer.getPhone(),
+            address.getCity(),
+            address.getState(),
+            customer.getDateOfBirth(),
+            customer.getDriversLicense()
+        };
+    }
+
+    private void loadBookings() {
+        if (bookingTableModel.getRowCount() > 0) {
+            refreshBookings();
+            return;
+        }
+        bookingRows = new ListPageSource<>();
+        bookingTableModel.setSource(bookingRows);
+        bookingIndex.clear();
+        taskRunner.stream("loadBookings", () -> carRentalService.streamAllBookings(CarRentalService.BOOKING_TABLE_FIELDS), LOAD_CHUNK_SIZE, this::appendBookings,
+                count -> {
+                    statusLabel.setText("Loaded " + count + " bookings");
+                    indexPendingBookings();
+                    carRentalService.seedBookingSync(CarRentalService.BOOKING_TABLE_FIELDS, bookingRows.snapshot(),
+                            System.currentTimeMillis());
+                    bookingsSynced = true;
+                    snapshotDirty = true;
+                    saveSnapshot();
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error loading bookings: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Fetches the bookings changed since the last refresh and applies only the rows
+     * that changed, keeping selection and scroll.
+     */
+    private void refreshBookings() {
+        List<Booking> current = bookingRows.snapshot();
+        String selectedId = selectedId(bookingTable, bookingTableModel, Booking::getId);
+        taskRunner.submit("loadBookings",
+                () -> RowDiff.compute(current, carRentalService.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS).getBookings(), Booking::getId, this::bookingRow),
+                diff -> {
+                    bookingRows = new ListPageSource<>(diff.getNewItems());
+                    bookingTableModel.applyDiff(bookingRows, diff);
+                    bookingIndex.rebuild(diff.getNewItems());
+                    indexPendingBookings();
+                    updateBookingHint();
+                    if (diff.isReordered()) {
+                        restoreSelection(bookingTable, diff.getNewItems(), Booking::getId, selectedId);
+                    }
+                    statusLabel.setText("Refreshed bookings: " + diff.getChangeCount() + " changed");
+                    bookingsSynced = true;
+                    snapshotDirty |= !diff.isEmpty();
+                    saveSnapshot();
+                },
+                e -> JOptionPane.showMessageDialog(this, "Error loading bookings: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /**
+     * Adds bookings still waiting in the write queue to the conflict index, so a
+     * car booked while offline is not offered for the same dates again.
+     */
+    private void indexPendingBookings() {
+        for (Booking booking : writeQueue.getPendingBookings()) {
+            bookingIndex.put(booking);
+        }
+    }
+
+    private void appendBookings(List<Booking> bookings) {
+        bookingRows.addAll(bookings);
+        bookingTableModel.sourceGrew();
+        bookingIndex.addAll(bookings);
+    }
+
+    private Object[] bookingRow(Booking booking) {
+        return new Object[] {
+            booking.getId(),
+            booking.getCustomerName(),
+            booking.getCarInfo(),
+            booking.getPickupDate(),
+            booking.getReturnDate(),
+            booking.getTotalDays(),
+            booking.getTotalAmount(),
+            booking.getStatus(),
+            booking.getPickupLocation(),
+            booking.getReturnLocation()
+        };
+    }
+
+    private static <T> String selectedId(JTable table, PagedTableModel<T> model, Function<T, String> idOf) {
+        T entity = model.getEntityAt(table.getSelectedRow());
+        return entity != null ? idOf.apply(entity) : null;
+    }
+
+    private static <T> void restoreSelection(JTable table, List<T> items, Function<T, String> idOf, String id) {
+        if (id == null) {
+            return;
+        }
+        for (int row = 0; row < items.size(); row++) {
+            if (id.equals(idOf.apply(items.get(row)))) {
+                table.setRowSelectionInterval(row, row);
+                table.scrollRectToVisible(table.getCellRect(row, 0, true));
+                return;
             }
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Error loading bookings: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -390,15 +956,150 @@ public class CarRentalApp extends JFrame {
             car.setImageUrl(imageField.getText());
             car.setDescription(descField.getText());
             
-            carRentalService.createCar(car);
-            clearCarFields();
-            loadCars();
-            JOptionPane.showMessageDialog(this, "Car added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            taskRunner.submit(() -> writeQueue.createCar(car), localId -> {
+                clearCarFields();
+                statusLabel.setText("Car saved; it appears in the table once the server has it");
+            }, e -> JOptionPane.showMessageDialog(this, "Error adding car: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error adding car: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    private void importCars() {
+        File file = chooseImportFile("Import Cars");
+        if (file == null) {
+            return;
+        }
+        taskRunner.submit("importCars", () -> bulkImporter.importCars(file, importProgress("cars")), result -> {
+            loadCars();
+            showImportResult("cars", result);
+        }, e -> JOptionPane.showMessageDialog(this, "Error importing cars: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void importCustomers() {
+        File file = chooseImportFile("Import Customers");
+        if (file == null) {
+            return;
+        }
+        taskRunner.submit("importCustomers", () -> bulkImporter.importCustomers(file, importProgress("customers")), result -> {
+            loadCustomers();
+            showImportResult("customers", result);
+        }, e -> JOptionPane.showMessageDialog(this, "Error importing customers: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private File chooseImportFile(String title) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(title);
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV or JSON files", "csv", "json", "js"));
+        return chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile() : null;
+    }
+
+    private BulkImporter.ProgressListener importProgress(String what) {
+        return (processed, failed, recordsPerSecond) -> SwingUtilities.invokeLater(() -> statusLabel.setText(
+                String.format("Importing %s: %d processed, %d failed, %.0f records/sec", what, processed, failed, recordsPerSecond)));
+    }
+
+    private void showImportResult(String what, ImportResult result) {
+        statusLabel.setText(result.toString());
+        if (result.isComplete()) {
+            JOptionPane.showMessageDialog(this, result.toString(), "Import " + what, JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder message = new StringBuilder(result.toString());
+        List<ImportResult.ImportFailure> failures = result.getFailures();
+        for (int i = 0; i < failures.size() && i < IMPORT_FAILURES_SHOWN; i++) {
+            message.append('\n').append(failures.get(i));
+        }
+        if (failures.size() > IMPORT_FAILURES_SHOWN) {
+            message.append("\n... and ").append(failures.size() - IMPORT_FAILURES_SHOWN).append(" more");
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), "Import " + what, JOptionPane.WARNING_MESSAGE);
+    }
+
+    private void exportCars() {
+        File file = chooseExportFile("Export Cars", "cars.csv");
+        if (file == null) {
+            return;
+        }
+        taskRunner.submit("exportCars", () -> csvExporter.exportCars(file, exportProgress("cars")),
+                result -> showExportResult("cars", result),
+                e -> JOptionPane.showMessageDialog(this, "Error exporting cars: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void exportCustomers() {
+        File file = chooseExportFile("Export Customers", "customers.csv");
+        if (file == null) {
+            return;
+        }
+        taskRunner.submit("exportCustomers", () -> csvExporter.exportCustomers(file, exportProgress("customers")),
+                result -> showExportResult("customers", result),
+                e -> JOptionPane.showMessageDialog(this, "Error exporting customers: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void exportBookings() {
+        JTextField fromField = new JTextField(10);
+        JTextField toField = new JTextField(10);
+        JComboBox<Object> statusCombo = new JComboBox<>();
+        statusCombo.addItem("All statuses");
+        for (BookingStatus status : BookingStatus.values()) {
+            statusCombo.addItem(status);
+        }
+        JPanel filters = new JPanel(new GridLayout(0, 2, 5, 5));
+        filters.add(new JLabel("Picked up from (YYYY-MM-DD):"));
+        filters.add(fromField);
+        filters.add(new JLabel("Picked up to (YYYY-MM-DD):"));
+        filters.add(toField);
+        filters.add(new JLabel("Status:"));
+        filters.add(statusCombo);
+        if (JOptionPane.showConfirmDialog(this, filters, "Export Bookings", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = fromField.getText().trim().isEmpty() ? null : LocalDate.parse(fromField.getText().trim());
+            to = toField.getText().trim().isEmpty() ? null : LocalDate.parse(toField.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Please enter dates as YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Object selected = statusCombo.getSelectedItem();
+        Set<BookingStatus> statuses = selected instanceof BookingStatus
+                ? EnumSet.of((BookingStatus) selected) : Collections.emptySet();
+
+        File file = chooseExportFile("Export Bookings", "bookings.csv");
+        if (file == null) {
+            return;
+        }
+        taskRunner.submit("exportBookings", () -> csvExporter.exportBookings(file, from, to, statuses, exportProgress("bookings")),
+                result -> showExportResult("bookings", result),
+                e -> JOptionPane.showMessageDialog(this, "Error exporting bookings: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private File chooseExportFile(String title, String suggestedName) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle(title);
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        chooser.setSelectedFile(new File(suggestedName));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        File file = chooser.getSelectedFile();
+        return file.getName().contains(".") ? file : new File(file.getParentFile(), file.getName() + ".csv");
+    }
+
+    private CsvExporter.ProgressListener exportProgress(String what) {
+        return (read, written, rowsPerSecond) -> SwingUtilities.invokeLater(() -> statusLabel.setText(
+                String.format("Exporting %s: %d read, %d written, %.0f rows/sec", what, read, written, rowsPerSecond)));
+    }
+
+    private void showExportResult(String what, ExportResult result) {
+        statusLabel.setText(result.toString());
+        JOptionPane.showMessageDialog(this, result.toString(), "Export " + what, JOptionPane.INFORMATION_MESSAGE);
+    }
+
     private void updateCar() {
         int selectedRow = carTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -407,7 +1108,7 @@ public class CarRentalApp extends JFrame {
         }
         
         try {
-            String carId = (String) carTableModel.getValueAt(selectedRow, 0);
+            String carId = carTableModel.getEntityAt(selectedRow).getId();
             Car car = new Car();
             car.setMake(makeField.getText());
             car.setModel(modelField.getText());
@@ -421,14 +1122,13 @@ public class CarRentalApp extends JFrame {
             car.setImageUrl(imageField.getText());
             car.setDescription(descField.getText());
             
-            boolean success = carRentalService.updateCar(carId, car);
-            if (success) {
+            taskRunner.submit(() -> {
+                writeQueue.updateCar(carId, car);
+                return carId;
+            }, id -> {
                 clearCarFields();
-                loadCars();
-                JOptionPane.showMessageDialog(this, "Car updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to update car.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                statusLabel.setText("Car changes saved");
+            }, e -> JOptionPane.showMessageDialog(this, "Error updating car: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error updating car: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -444,14 +1144,11 @@ public class CarRentalApp extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this car?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
             try {
-                String carId = (String) carTableModel.getValueAt(selectedRow, 0);
-                boolean success = carRentalService.deleteCar(carId);
-                if (success) {
-                    loadCars();
-                    JOptionPane.showMessageDialog(this, "Car deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to delete car.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                String carId = carTableModel.getEntityAt(selectedRow).getId();
+                taskRunner.submit(() -> {
+                    writeQueue.deleteCar(carId);
+                    return carId;
+                }, id -> statusLabel.setText("Car deletion saved"), e -> JOptionPane.showMessageDialog(this, "Error deleting car: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Error deleting car: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -473,10 +1170,10 @@ public class CarRentalApp extends JFrame {
             customer.setDateOfBirth(LocalDate.parse(dobField.getText()));
             customer.setDriversLicense(driversLicenseField.getText());
             
-            carRentalService.createCustomer(customer);
-            clearCustomerFields();
-            loadCustomers();
-            JOptionPane.showMessageDialog(this, "Customer added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            taskRunner.submit(() -> writeQueue.createCustomer(customer), localId -> {
+                clearCustomerFields();
+                statusLabel.setText("Customer saved; it appears in the table once the server has it");
+            }, e -> JOptionPane.showMessageDialog(this, "Error adding customer: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error adding customer: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -490,7 +1187,7 @@ public class CarRentalApp extends JFrame {
         }
         
         try {
-            String customerId = (String) customerTableModel.getValueAt(selectedRow, 0);
+            String customerId = customerTableModel.getEntityAt(selectedRow).getId();
             Customer customer = new Customer();
             customer.setFirstName(firstNameField.getText());
             customer.setLastName(lastNameField.getText());
@@ -504,14 +1201,13 @@ public class CarRentalApp extends JFrame {
             customer.setDateOfBirth(LocalDate.parse(dobField.getText()));
             customer.setDriversLicense(driversLicenseField.getText());
             
-            boolean success = carRentalService.updateCustomer(customerId, customer);
-            if (success) {
+            taskRunner.submit(() -> {
+                writeQueue.updateCustomer(customerId, customer);
+                return customerId;
+            }, id -> {
                 clearCustomerFields();
-                loadCustomers();
-                JOptionPane.showMessageDialog(this, "Customer updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to update customer.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                statusLabel.setText("Customer changes saved");
+            }, e -> JOptionPane.showMessageDialog(this, "Error updating customer: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error updating customer: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -527,14 +1223,11 @@ public class CarRentalApp extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this customer?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
             try {
-                String customerId = (String) customerTableModel.getValueAt(selectedRow, 0);
-                boolean success = carRentalService.deleteCustomer(customerId);
-                if (success) {
-                    loadCustomers();
-                    JOptionPane.showMessageDialog(this, "Customer deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to delete customer.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                String customerId = customerTableModel.getEntityAt(selectedRow).getId();
+                taskRunner.submit(() -> {
+                    writeQueue.deleteCustomer(customerId);
+                    return customerId;
+                }, id -> statusLabel.setText("Customer deletion saved"), e -> JOptionPane.showMessageDialog(this, "Error deleting customer: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Error deleting customer: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -543,7 +1236,7 @@ public class CarRentalApp extends JFrame {
 
     private void addBooking() {
         try {
-            Customer selectedCustomer = (Customer) customerCombo.getSelectedItem();
+            Customer selectedCustomer = customerPicker.getSelectedItem();
             Car selectedCar = (Car) carCombo.getSelectedItem();
             
             if (selectedCustomer == null || selectedCar == null) {
@@ -560,10 +1253,23 @@ public class CarRentalApp extends JFrame {
             booking.setReturnLocation(returnLocationField.getText());
             booking.setNotes(notesArea.getText());
             
-            carRentalService.createBooking(booking);
-            clearBookingFields();
-            loadBookings();
-            JOptionPane.showMessageDialog(this, "Booking created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            if (!booking.getReturnDate().isAfter(booking.getPickupDate())) {
+                JOptionPane.showMessageDialog(this, "Return date must be after the pickup date.", "Warning", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            if (!bookingIndex.isAvailable(selectedCar.getId(), booking.getPickupDate(), booking.getReturnDate())) {
+                JOptionPane.showMessageDialog(this, describeConflict(selectedCar.getId(), booking.getPickupDate(), booking.getReturnDate()),
+                        "Warning", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
+            taskRunner.submit(() -> writeQueue.createBooking(booking), localId -> {
+                // Held in the conflict index under its local id until the server has it
+                booking.setId(localId);
+                bookingIndex.put(booking);
+                clearBookingFields();
+                statusLabel.setText("Booking saved; it appears in the table once the server has it");
+            }, e -> JOptionPane.showMessageDialog(this, "Error creating booking: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Error creating booking: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -579,20 +1285,51 @@ public class CarRentalApp extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to cancel this booking?", "Confirm Cancel", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
             try {
-                String bookingId = (String) bookingTableModel.getValueAt(selectedRow, 0);
-                boolean success = carRentalService.cancelBooking(bookingId);
-                if (success) {
-                    loadBookings();
-                    JOptionPane.showMessageDialog(this, "Booking cancelled successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to cancel booking.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                String bookingId = bookingTableModel.getEntityAt(selectedRow).getId();
+                taskRunner.submit(() -> {
+                    writeQueue.cancelBooking(bookingId);
+                    return bookingId;
+                }, id -> {
+                    bookingIndex.remove(bookingId);
+                    updateBookingHint();
+                    statusLabel.setText("Booking cancellation saved");
+                }, e -> JOptionPane.showMessageDialog(this, "Error cancelling booking: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Error cancelling booking: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
 
+    private void updateBookingHint() {
+        Car selectedCar = (Car) carCombo.getSelectedItem();
+        LocalDate pickup;
+        LocalDate dropOff;
+        try {
+            pickup = LocalDate.parse(pickupDateField.getText().trim());
+            dropOff = LocalDate.parse(returnDateField.getText().trim());
+        } catch (DateTimeParseException e) {
+            bookingHintLabel.setText(" ");
+            return;
+        }
+        if (selectedCar == null) {
+            bookingHintLabel.setText(" ");
+        } else if (!dropOff.isAfter(pickup)) {
+            bookingHintLabel.setText("Return date must be after the pickup date.");
+        } else if (bookingIndex.isAvailable(selectedCar.getId(), pickup, dropOff)) {
+            bookingHintLabel.setText("Car is free for these dates.");
+        } else {
+            bookingHintLabel.setText(describeConflict(selectedCar.getId(), pickup, dropOff));
+        }
+    }
+
+    private String describeConflict(String carId, LocalDate pickup, LocalDate dropOff) {
+        int days = (int) ChronoUnit.DAYS.between(pickup, dropOff);
+        int conflicts = bookingIndex.getConflicts(carId, pickup, dropOff).size();
+        LocalDate nextStart = bookingIndex.findNextFreeStart(carId, pickup, days);
+        return "Car is booked (" + conflicts + " overlapping booking" + (conflicts == 1 ? "" : "s")
+                + "). Next free window: " + nextStart + " to " + nextStart.plusDays(days) + ".";
+    }
+
     private void clearCarFields() {
         makeField.setText("");
         modelField.setText("");
@@ -622,7 +1359,7 @@ public class CarRentalApp extends JFrame {
     }
 
     private void clearBookingFields() {
-        customerCombo.setSelectedIndex(-1);
+        customerPicker.setSelectedItem(null);
         carCombo.setSelectedIndex(-1);
         pickupDateField.setText("");
         returnDateField.setText("");
@@ -631,14 +1368,88 @@ public class CarRentalApp extends JFrame {
         notesArea.setText("");
     }
 
+    /**
+     * Brings the tables up to date as queued changes reach the server, and reports
+     * the ones it refuses. Events arrive on the queue's thread; applied and refused
+     * mutations are collected until the queue reports the batch done, then each
+     * affected table is reloaded once and the refusals are shown in one dialog,
+     * so a queue draining after an outage does not reload per mutation.
+     */
+    private class WriteQueueListener implements WriteBehindQueue.Listener {
+        private final EnumSet<PendingMutation.Entity> changed = EnumSet.noneOf(PendingMutation.Entity.class);
+        private final List<String> refusals = new ArrayList<>();
+
+        @Override
+        public synchronized void mutationApplied(PendingMutation mutation, String entityId) {
+            changed.add(mutation.getEntity());
+        }
+
+        @Override
+        public synchronized void mutationRefused(PendingMutation mutation, IOException error) {
+            // Reloading undoes what was assumed locally, such as a booking held in the conflict index
+            changed.add(mutation.getEntity());
+            refusals.add(mutation + ": " + error.getMessage());
+        }
+
+        @Override
+        public void queueChanged(int pendingCount, IOException lastError) {
+            Set<PendingMutation.Entity> reload;
+            List<String> refused;
+            synchronized (this) {
+                reload = EnumSet.copyOf(changed);
+                refused = new ArrayList<>(refusals);
+                changed.clear();
+                refusals.clear();
+            }
+            SwingUtilities.invokeLater(() -> {
+                updateSyncStatus(pendingCount, lastError);
+                for (PendingMutation.Entity entity : reload) {
+                    reload(entity);
+                }
+                if (!refused.isEmpty()) {
+                    showRefusals(refused);
+                }
+            });
+        }
+
+        private void showRefusals(List<String> refused) {
+            if (refused.size() == 1) {
+                JOptionPane.showMessageDialog(CarRentalApp.this, "The server did not accept a saved change ("
+                        + refused.get(0) + ")", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JTextArea details = new JTextArea(String.join("\n", refused), Math.min(refused.size(), 12), 60);
+            details.setEditable(false);
+            JPanel panel = new JPanel(new BorderLayout(0, 8));
+            panel.add(new JLabel("The server did not accept " + refused.size() + " saved changes:"), BorderLayout.NORTH);
+            panel.add(new JScrollPane(details), BorderLayout.CENTER);
+            JOptionPane.showMessageDialog(CarRentalApp.this, panel, "Error", JOptionPane.ERROR_MESSAGE);
+        }
+
+        private void reload(PendingMutation.Entity entity) {
+            switch (entity) {
+                case CAR:
+                    loadCars();
+                    break;
+                case CUSTOMER:
+                    loadCustomers();
+                    break;
+                default:
+                    loadBookings();
+                    break;
+            }
+        }
+    }
+
     public static void main(String[] args) {
+        MutationJournal journal = openJournal();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
             } catch (Exception e) {
                 e.printStackTrace();
             }
-            new CarRentalApp().setVisible(true);
+            new CarRentalApp(journal).setVisible(true);
         });
     }
 }
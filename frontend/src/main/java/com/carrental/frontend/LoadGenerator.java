@@ -0,0 +1,409 @@
+package com.carrental.frontend;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.services.CarRentalService;
+import com.carrental.frontend.utils.LatencyHistogram;
+import com.carrental.frontend.utils.ResiliencePolicy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Headless load generator: drives a mix of CarRentalService operations against
+ * the API at a fixed target rate and reports throughput and latency percentiles.
+ *
+ * The schedule is open loop. Operation i is due at start + i / rate whether or
+ * not earlier ones have finished, and is issued through the async API, so a slow
+ * server does not slow the arrival rate down. Response times are measured from
+ * when each operation was due rather than from when it was actually sent; a
+ * generator that waited for stalled calls before sending more would leave out
+ * exactly the requests that would have queued behind them (coordinated
+ * omission). Service times, from the moment of sending, are reported alongside.
+ *
+ * Each simulated desk client is its own CarRentalService, with its own caches
+ * and connections. Operations:
+ * <ul>
+ *   <li>list: the car, customer or booking list</li>
+ *   <li>get: a car, customer or booking by id</li>
+ *   <li>search: a car search by make</li>
+ *   <li>availability: one car over a date range</li>
+ *   <li>book: create a booking, then cancel it (writes to the server, so not in the default mix)</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+    private static final String USAGE = String.join("\n",
+            "Usage: java -cp car-rental-frontend-1.0.0.jar com.carrental.frontend.LoadGenerator [options]",
+            "  --url URL             API base URL (default http://localhost:5000)",
+            "  --rate N              operations per second across all clients (default 50)",
+            "  --duration SECONDS    measured run length (default 60)",
+            "  --warmup SECONDS      unrecorded lead-in at the same rate (default 10)",
+            "  --clients N           simulated desk clients (default 10)",
+            "  --mix NAME:WEIGHT,... operation mix (default list:5,get:45,search:15,availability:35)",
+            "                        operations: list, get, search, availability, book",
+            "  --cold                clear each client's caches before every operation",
+            "  --no-resilience       one attempt per call: no retries, hedging or circuit breaker",
+            "  --max-outstanding N   operations in flight before new ones count as rejected (default 10000)",
+            "  --seed N              random seed for the operation sequence (default 1)");
+
+    private static final String DEFAULT_MIX = "list:5,get:45,search:15,availability:35";
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Options options;
+    private final List<CarRentalService> clients = new ArrayList<>();
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Random random;
+    private List<String> carIds;
+    private List<String> customerIds;
+    private List<String> bookingIds;
+    private List<String> makes;
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+        this.random = new Random(options.seed);
+        ResiliencePolicy policy = options.resilient ? ResiliencePolicy.defaults() : ResiliencePolicy.none();
+        for (int i = 0; i < options.clients; i++) {
+            clients.add(new CarRentalService(options.url, policy));
+        }
+        for (String operation : options.mix.keySet()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            new LoadGenerator(options).run();
+            System.exit(0);
+        } catch (Exception e) {
+            System.err.println("Load run failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void run() throws Exception {
+        loadIds();
+        System.out.printf(Locale.ROOT, "Target %.1f ops/s from %d clients for %ds after %ds warm-up, mix %s%n",
+                options.rate, options.clients, options.durationSeconds, options.warmupSeconds, options.mix);
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        long nextReport = measureFrom + REPORT_INTERVAL_NANOS;
+        long lastReportCount = 0;
+
+        for (long i = 0; ; i++) {
+            long due = start + i * intervalNanos;
+            if (due >= end) {
+                break;
+            }
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            issue(pickOperation(), clients.get((int) (i % clients.size())), due, due >= measureFrom);
+
+            if (due >= nextReport) {
+                long completed = totalCount();
+                System.out.printf(Locale.ROOT, "%5ds  %8.1f ops/s  in flight %d  errors %d  rejected %d%n",
+                        TimeUnit.NANOSECONDS.toSeconds(due - measureFrom),
+                        (completed - lastReportCount) * 1e9 / REPORT_INTERVAL_NANOS, outstanding.get(),
+                        totalErrors(), rejected.get());
+                lastReportCount = completed;
+                nextReport += REPORT_INTERVAL_NANOS;
+            }
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        report(options.durationSeconds);
+    }
+
+    private void issue(String operation, CarRentalService client, long due, boolean measured) {
+        if (outstanding.get() >= options.maxOutstanding) {
+            if (measured) {
+                rejected.incrementAndGet();
+            }
+            return;
+        }
+        outstanding.incrementAndGet();
+        if (options.cold) {
+            client.clearCaches();
+        }
+        long sent = System.nanoTime();
+        CompletableFuture<?> call;
+        try {
+            call = start(operation, client);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((result, error) -> {
+            long now = System.nanoTime();
+            outstanding.decrementAndGet();
+            if (measured) {
+                stats.get(operation).record(now - due, now - sent, error);
+            }
+        });
+    }
+
+    private CompletableFuture<?> start(String operation, CarRentalService client) {
+        switch (operation) {
+            case "list":
+                return pick(client::getAllCarsAsync, client::getAllCustomersAsync, client::getAllBookingsAsync);
+            case "get": {
+                int kind = random.nextInt(bookingIds.isEmpty() ? 2 : 3);
+                if (kind == 0) {
+                    return client.getCarByIdAsync(pick(carIds));
+                }
+                return kind == 1 ? client.getCustomerByIdAsync(pick(customerIds)) : client.getBookingByIdAsync(pick(bookingIds));
+            }
+            case "search": {
+                Map<String, Object> criteria = new HashMap<>();
+                criteria.put("make", pick(makes));
+                return client.searchCarsAsync(criteria);
+            }
+            case "availability": {
+                LocalDate from = LocalDate.now().plusDays(random.nextInt(180));
+                return client.isCarAvailableAsync(pick(carIds), from.toString(), from.plusDays(1 + random.nextInt(7)).toString());
+            }
+            case "book": {
+                // Years ahead, so generated bookings rarely collide with real ones or each other
+                Booking booking = new Booking();
+                booking.setCarId(pick(carIds));
+                booking.setCustomerId(pick(customerIds));
+                booking.setPickupDate(LocalDate.now().plusYears(2).plusDays(random.nextInt(1000)));
+                booking.setReturnDate(booking.getPickupDate().plusDays(1 + random.nextInt(3)));
+                booking.setPickupLocation("Load test");
+                booking.setReturnLocation("Load test");
+                return client.createBookingAsync(booking)
+                        .thenCompose(created -> client.cancelBookingAsync(created.getId()));
+            }
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    @SafeVarargs
+    private final CompletableFuture<?> pick(Supplier<CompletableFuture<?>>... calls) {
+        return calls[random.nextInt(calls.length)].get();
+    }
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private String pickOperation() {
+        int ticket = random.nextInt(options.totalWeight);
+        for (Map.Entry<String, Integer> entry : options.mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void loadIds() throws Exception {
+        CarRentalService client = clients.get(0);
+        List<Car> cars = client.getAllCars(CarRentalService.CAR_TABLE_FIELDS);
+        List<Customer> customers = client.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS);
+        List<Booking> bookings = client.getAllBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        carIds = ids(cars, Car::getId);
+        customerIds = ids(customers, Customer::getId);
+        bookingIds = ids(bookings, Booking::getId);
+        makes = new ArrayList<>(new TreeSet<>(ids(cars, Car::getMake)));
+        if (carIds.isEmpty() || customerIds.isEmpty()) {
+            throw new IllegalStateException("the server has no cars or no customers to run against");
+        }
+        client.clearCaches();
+        System.out.printf("Running against %d cars, %d customers and %d bookings%n",
+                carIds.size(), customerIds.size(), bookingIds.size());
+    }
+
+    private static <T> List<String> ids(List<T> items, Function<T, String> idOf) {
+        List<String> ids = new ArrayList<>(items.size());
+        for (T item : items) {
+            String id = idOf.apply(item);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private long totalCount() {
+        long count = 0;
+        for (OperationStats operation : stats.values()) {
+            count += operation.responseTime.getCount();
+        }
+        return count;
+    }
+
+    private long totalErrors() {
+        long errors = 0;
+        for (OperationStats operation : stats.values()) {
+            errors += operation.errors.get();
+        }
+        return errors;
+    }
+
+    private void report(long seconds) {
+        System.out.println();
+        System.out.println("Response time in ms, from when each operation was due (service time from sending in brackets)");
+        System.out.printf(Locale.ROOT, "%-13s %8s %7s %9s %17s %17s %17s %17s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50", "p90", "p99", "p99.9", "max");
+        LatencyHistogram allResponse = new LatencyHistogram();
+        long allCount = 0;
+        long allErrors = 0;
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            OperationStats operation = entry.getValue();
+            printRow(entry.getKey(), operation.responseTime, operation.serviceTime, operation.errors.get(), seconds);
+            allCount += operation.responseTime.getCount();
+            allErrors += operation.errors.get();
+        }
+        System.out.printf(Locale.ROOT, "%-13s %8d %7d %9.1f  (target %.1f ops/s, %d rejected)%n",
+                "total", allCount, allErrors, allCount / (double) seconds, options.rate, rejected.get());
+        for (OperationStats operation : stats.values()) {
+            for (Map.Entry<String, AtomicLong> failure : operation.failures.entrySet()) {
+                System.out.println("  " + failure.getValue().get() + " x " + failure.getKey());
+            }
+        }
+    }
+
+    private static void printRow(String name, LatencyHistogram response, LatencyHistogram service, long errors, long seconds) {
+        StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%-13s %8d %7d %9.1f",
+                name, response.getCount(), errors, response.getCount() / (double) seconds));
+        for (double percentile : PERCENTILES) {
+            row.append(String.format(Locale.ROOT, " %8.1f [%6.1f]",
+                    response.getPercentileMicros(percentile) / 1000.0, service.getPercentileMicros(percentile) / 1000.0));
+        }
+        row.append(String.format(Locale.ROOT, " %9.1f", response.getMaxMicros() / 1000.0));
+        System.out.println(row);
+    }
+
+    private static final class OperationStats {
+        final LatencyHistogram responseTime = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+
+        void record(long responseNanos, long serviceNanos, Throwable error) {
+            responseTime.record(responseNanos, TimeUnit.NANOSECONDS);
+            serviceTime.record(serviceNanos, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                errors.incrementAndGet();
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                failures.computeIfAbsent(cause.getClass().getSimpleName() + ": " + cause.getMessage(),
+                        key -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+
+    private static final class Options {
+        String url = "http://localhost:5000";
+        double rate = 50;
+        long durationSeconds = 60;
+        long warmupSeconds = 10;
+        int clients = 10;
+        Map<String, Integer> mix;
+        int totalWeight;
+        boolean cold;
+        boolean resilient = true;
+        int maxOutstanding = 10_000;
+        long seed = 1;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            String mix = DEFAULT_MIX;
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--cold":
+                        options.cold = true;
+                        continue;
+                    case "--no-resilience":
+                        options.resilient = false;
+                        continue;
+                    case "--help":
+                        throw new IllegalArgumentException("");
+                    default:
+                        break;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                }
+                String value = args[++i];
+                try {
+                    switch (arg) {
+                        case "--url": options.url = value; break;
+                        case "--rate": options.rate = Double.parseDouble(value); break;
+                        case "--duration": options.durationSeconds = Long.parseLong(value); break;
+                        case "--warmup": options.warmupSeconds = Long.parseLong(value); break;
+                        case "--clients": options.clients = Integer.parseInt(value); break;
+                        case "--mix": mix = value; break;
+                        case "--max-outstanding": options.maxOutstanding = Integer.parseInt(value); break;
+                        case "--seed": options.seed = Long.parseLong(value); break;
+                        default: throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a number for " + arg + ": " + value);
+                }
+            }
+            if (options.rate <= 0 || options.durationSeconds <= 0 || options.warmupSeconds < 0 || options.clients <= 0) {
+                throw new IllegalArgumentException("Rate, duration and clients must be positive");
+            }
+            options.mix = parseMix(mix);
+            options.totalWeight = options.mix.values().stream().mapToInt(Integer::intValue).sum();
+            return options;
+        }
+
+        private static Map<String, Integer> parseMix(String mix) {
+            Map<String, Integer> weights = new LinkedHashMap<>();
+            for (String part : mix.split(",")) {
+                String[] entry = part.trim().split(":");
+                if (entry.length != 2 || !entry[0].matches("list|get|search|availability|book")) {
+                    throw new IllegalArgumentException("Bad mix entry: " + part);
+                }
+                int weight = Integer.parseInt(entry[1]);
+                if (weight > 0) {
+                    weights.put(entry[0], weight);
+                }
+            }
+            if (weights.isEmpty()) {
+                throw new IllegalArgumentException("The mix has no operations");
+            }
+            return weights;
+        }
+    }
+}
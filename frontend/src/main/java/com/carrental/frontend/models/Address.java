@@ -1,5 +1,8 @@
 package com.carrental.frontend.models;
 
+/**
+ * A customer's address; all but the street are pooled by {@link Interner}.
+ */
 public class Address {
     private String street;
     private String city;
@@ -12,10 +15,10 @@ public class Address {
 
     public Address(String street, String city, String state, String zipCode, String country) {
         this.street = street;
-        this.city = city;
-        this.state = state;
-        this.zipCode = zipCode;
-        this.country = country;
+        setCity(city);
+        setState(state);
+        setZipCode(zipCode);
+        setCountry(country);
     }
 
     // Getters and Setters
@@ -23,16 +26,16 @@ public class Address {
     public void setStreet(String street) { this.street = street; }
 
     public String getCity() { return city; }
-    public void setCity(String city) { this.city = city; }
+    public void setCity(String city) { this.city = Interner.TEXT.intern(city); }
 
     public String getState() { return state; }
-    public void setState(String state) { this.state = state; }
+    public void setState(String state) { this.state = Interner.TEXT.intern(state); }
 
     public String getZipCode() { return zipCode; }
-    public void setZipCode(String zipCode) { this.zipCode = zipCode; }
+    public void setZipCode(String zipCode) { this.zipCode = Interner.TEXT.intern(zipCode); }
 
     public String getCountry() { return country; }
-    public void setCountry(String country) { this.country = country; }
+    public void setCountry(String country) { this.country = Interner.TEXT.intern(country); }
 
     @Override
     public String toString() {
@@ -4,20 +4,28 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+/**
+ * A booking as the client holds it. Large lists of these back the bookings table,
+ * caches and delta sync, so fields are stored compactly: values shared across
+ * bookings (ids of the car and customer, names, locations, amounts) are pooled
+ * by {@link Interner}, and dates are held as primitives by {@link EpochTime}.
+ */
 public class Booking {
     private String id;
     private String customerId;
     private String carId;
-    private LocalDate pickupDate;
-    private LocalDate returnDate;
+    private int pickupDay = EpochTime.NO_DAY;
+    private int returnDay = EpochTime.NO_DAY;
     private int totalDays;
     private BigDecimal dailyRate;
     private BigDecimal totalAmount;
     private BookingStatus status;
     private String pickupLocation;
     private String returnLocation;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
+    private long createdSecond = EpochTime.NO_SECOND;
+    private int createdNano;
+    private long updatedSecond = EpochTime.NO_SECOND;
+    private int updatedNano;
     private String notes;
 
     // Additional fields for display
@@ -29,12 +37,12 @@ public class Booking {
 
     public Booking(String customerId, String carId, LocalDate pickupDate, 
                    LocalDate returnDate, String pickupLocation, String returnLocation) {
-        this.customerId = customerId;
-        this.carId = carId;
-        this.pickupDate = pickupDate;
-        this.returnDate = returnDate;
-        this.pickupLocation = pickupLocation;
-        this.returnLocation = returnLocation;
+        setCustomerId(customerId);
+        setCarId(carId);
+        setPickupDate(pickupDate);
+        setReturnDate(returnDate);
+        setPickupLocation(pickupLocation);
+        setReturnLocation(returnLocation);
         this.status = BookingStatus.PENDING;
     }
 
@@ -43,53 +51,59 @@ public class Booking {
     public void setId(String id) { this.id = id; }
 
     public String getCustomerId() { return customerId; }
-    public void setCustomerId(String customerId) { this.customerId = customerId; }
+    public void setCustomerId(String customerId) { this.customerId = Interner.TEXT.intern(customerId); }
 
     public String getCarId() { return carId; }
-    public void setCarId(String carId) { this.carId = carId; }
+    public void setCarId(String carId) { this.carId = Interner.TEXT.intern(carId); }
 
-    public LocalDate getPickupDate() { return pickupDate; }
-    public void setPickupDate(LocalDate pickupDate) { this.pickupDate = pickupDate; }
+    public LocalDate getPickupDate() { return EpochTime.fromDay(pickupDay); }
+    public void setPickupDate(LocalDate pickupDate) { this.pickupDay = EpochTime.toDay(pickupDate); }
 
-    public LocalDate getReturnDate() { return returnDate; }
-    public void setReturnDate(LocalDate returnDate) { this.returnDate = returnDate; }
+    public LocalDate getReturnDate() { return EpochTime.fromDay(returnDay); }
+    public void setReturnDate(LocalDate returnDate) { this.returnDay = EpochTime.toDay(returnDate); }
 
     public int getTotalDays() { return totalDays; }
     public void setTotalDays(int totalDays) { this.totalDays = totalDays; }
 
     public BigDecimal getDailyRate() { return dailyRate; }
-    public void setDailyRate(BigDecimal dailyRate) { this.dailyRate = dailyRate; }
+    public void setDailyRate(BigDecimal dailyRate) { this.dailyRate = Interner.AMOUNTS.intern(dailyRate); }
 
     public BigDecimal getTotalAmount() { return totalAmount; }
-    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = Interner.AMOUNTS.intern(totalAmount); }
 
     public BookingStatus getStatus() { return status; }
     public void setStatus(BookingStatus status) { this.status = status; }
 
     public String getPickupLocation() { return pickupLocation; }
-    public void setPickupLocation(String pickupLocation) { this.pickupLocation = pickupLocation; }
+    public void setPickupLocation(String pickupLocation) { this.pickupLocation = Interner.TEXT.intern(pickupLocation); }
 
     public String getReturnLocation() { return returnLocation; }
-    public void setReturnLocation(String returnLocation) { this.returnLocation = returnLocation; }
+    public void setReturnLocation(String returnLocation) { this.returnLocation = Interner.TEXT.intern(returnLocation); }
 
-    public LocalDateTime getCreatedAt() { return createdAt; }
-    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getCreatedAt() { return EpochTime.fromSecond(createdSecond, createdNano); }
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdSecond = EpochTime.toSecond(createdAt);
+        this.createdNano = EpochTime.toNano(createdAt);
+    }
 
-    public LocalDateTime getUpdatedAt() { return updatedAt; }
-    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public LocalDateTime getUpdatedAt() { return EpochTime.fromSecond(updatedSecond, updatedNano); }
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedSecond = EpochTime.toSecond(updatedAt);
+        this.updatedNano = EpochTime.toNano(updatedAt);
+    }
 
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
 
     public String getCustomerName() { return customerName; }
-    public void setCustomerName(String customerName) { this.customerName = customerName; }
+    public void setCustomerName(String customerName) { this.customerName = Interner.TEXT.intern(customerName); }
 
     public String getCarInfo() { return carInfo; }
-    public void setCarInfo(String carInfo) { this.carInfo = carInfo; }
+    public void setCarInfo(String carInfo) { this.carInfo = Interner.TEXT.intern(carInfo); }
 
     @Override
     public String toString() {
-        return "Booking: " + carInfo + " - " + pickupDate + " to " + returnDate + 
+        return "Booking: " + carInfo + " - " + getPickupDate() + " to " + getReturnDate() + 
                " (" + status + ")";
     }
 }
@@ -2,6 +2,10 @@ package com.carrental.frontend.models;
 
 import java.math.BigDecimal;
 
+/**
+ * A car as the client holds it. Fields with few distinct values across a
+ * fleet are pooled by {@link Interner}; the id, unique per car, is not.
+ */
 public class Car {
     private String id;
     private String make;
@@ -22,14 +26,14 @@ public class Car {
 
     public Car(String make, String model, int year, String color, String licensePlate, 
                BigDecimal dailyRate, String fuelType, String transmission, int seats) {
-        this.make = make;
-        this.model = model;
+        setMake(make);
+        setModel(model);
         this.year = year;
-        this.color = color;
+        setColor(color);
         this.licensePlate = licensePlate;
-        this.dailyRate = dailyRate;
-        this.fuelType = fuelType;
-        this.transmission = transmission;
+        setDailyRate(dailyRate);
+        setFuelType(fuelType);
+        setTransmission(transmission);
         this.seats = seats;
         this.isAvailable = true;
     }
@@ -39,31 +43,31 @@ public class Car {
     public void setId(String id) { this.id = id; }
 
     public String getMake() { return make; }
-    public void setMake(String make) { this.make = make; }
+    public void setMake(String make) { this.make = Interner.TEXT.intern(make); }
 
     public String getModel() { return model; }
-    public void setModel(String model) { this.model = model; }
+    public void setModel(String model) { this.model = Interner.TEXT.intern(model); }
 
     public int getYear() { return year; }
     public void setYear(int year) { this.year = year; }
 
     public String getColor() { return color; }
-    public void setColor(String color) { this.color = color; }
+    public void setColor(String color) { this.color = Interner.TEXT.intern(color); }
 
     public String getLicensePlate() { return licensePlate; }
     public void setLicensePlate(String licensePlate) { this.licensePlate = licensePlate; }
 
     public BigDecimal getDailyRate() { return dailyRate; }
-    public void setDailyRate(BigDecimal dailyRate) { this.dailyRate = dailyRate; }
+    public void setDailyRate(BigDecimal dailyRate) { this.dailyRate = Interner.AMOUNTS.intern(dailyRate); }
 
     public boolean isAvailable() { return isAvailable; }
     public void setAvailable(boolean available) { isAvailable = available; }
 
     public String getFuelType() { return fuelType; }
-    public void setFuelType(String fuelType) { this.fuelType = fuelType; }
+    public void setFuelType(String fuelType) { this.fuelType = Interner.TEXT.intern(fuelType); }
 
     public String getTransmission() { return transmission; }
-    public void setTransmission(String transmission) { this.transmission = transmission; }
+    public void setTransmission(String transmission) { this.transmission = Interner.TEXT.intern(transmission); }
 
     public int getSeats() { return seats; }
     public void setSeats(int seats) { this.seats = seats; }
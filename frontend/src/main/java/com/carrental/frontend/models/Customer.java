@@ -2,6 +2,11 @@ package com.carrental.frontend.models;
 
 import java.time.LocalDate;
 
+/**
+ * A customer as the client holds it. Dates are held as epoch days by
+ * {@link EpochTime}. The id and names are mostly unique per customer, so
+ * unlike the {@link Address} fields they are not pooled by {@link Interner}.
+ */
 public class Customer {
     private String id;
     private String firstName;
@@ -9,9 +14,9 @@ public class Customer {
     private String email;
     private String phone;
     private Address address;
-    private LocalDate dateOfBirth;
+    private int birthDay = EpochTime.NO_DAY;
     private String driversLicense;
-    private LocalDate createdAt;
+    private int createdDay = EpochTime.NO_DAY;
 
     // Constructors
     public Customer() {
@@ -20,12 +25,12 @@ public class Customer {
 
     public Customer(String firstName, String lastName, String email, String phone, 
                    Address address, LocalDate dateOfBirth, String driversLicense) {
-        this.firstName = firstName;
-        this.lastName = lastName;
+        setFirstName(firstName);
+        setLastName(lastName);
         this.email = email;
         this.phone = phone;
         this.address = address;
-        this.dateOfBirth = dateOfBirth;
+        setDateOfBirth(dateOfBirth);
         this.driversLicense = driversLicense;
     }
 
@@ -48,14 +53,14 @@ public class Customer {
     public Address getAddress() { return address; }
     public void setAddress(Address address) { this.address = address; }
 
-    public LocalDate getDateOfBirth() { return dateOfBirth; }
-    public void setDateOfBirth(LocalDate dateOfBirth) { this.dateOfBirth = dateOfBirth; }
+    public LocalDate getDateOfBirth() { return EpochTime.fromDay(birthDay); }
+    public void setDateOfBirth(LocalDate dateOfBirth) { this.birthDay = EpochTime.toDay(dateOfBirth); }
 
     public String getDriversLicense() { return driversLicense; }
     public void setDriversLicense(String driversLicense) { this.driversLicense = driversLicense; }
 
-    public LocalDate getCreatedAt() { return createdAt; }
-    public void setCreatedAt(LocalDate createdAt) { this.createdAt = createdAt; }
+    public LocalDate getCreatedAt() { return EpochTime.fromDay(createdDay); }
+    public void setCreatedAt(LocalDate createdAt) { this.createdDay = EpochTime.toDay(createdAt); }
 
     public String getFullName() {
         return firstName + " " + lastName;
@@ -0,0 +1,48 @@
+package com.carrental.frontend.models;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Converts the models' dates to and from the primitives they are stored as:
+ * an int epoch day for a LocalDate, and epoch seconds plus nanoseconds for a
+ * LocalDateTime, read as UTC so the conversion is exact and zone independent.
+ * A null date is stored as the minimum value. A LocalDate too far out for an
+ * int epoch day is refused with a DateTimeException, like any other bad date.
+ */
+final class EpochTime {
+    static final int NO_DAY = Integer.MIN_VALUE;
+    static final long NO_SECOND = Long.MIN_VALUE;
+
+    private EpochTime() {
+    }
+
+    static int toDay(LocalDate date) {
+        if (date == null) {
+            return NO_DAY;
+        }
+        long day = date.toEpochDay();
+        if (day <= NO_DAY || day > Integer.MAX_VALUE) {
+            throw new DateTimeException("Date out of range: " + date);
+        }
+        return (int) day;
+    }
+
+    static LocalDate fromDay(int day) {
+        return day != NO_DAY ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    static long toSecond(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : NO_SECOND;
+    }
+
+    static int toNano(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.getNano() : 0;
+    }
+
+    static LocalDateTime fromSecond(long second, int nano) {
+        return second != NO_SECOND ? LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC) : null;
+    }
+}
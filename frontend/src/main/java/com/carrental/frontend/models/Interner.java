@@ -0,0 +1,51 @@
+package com.carrental.frontend.models;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares one instance among equal immutable values, so the categorical fields
+ * repeated across thousands of records (makes, colors, cities, locations, the
+ * car and customer ids bookings refer to) are held once rather than once per
+ * record decoded. Values unique to one record, such as a car's or customer's
+ * own id or a customer's name, are not pooled: they would only add entries. Values are held weakly: a value leaves the pool once no
+ * loaded record refers to it, so reloads and searches do not accumulate stale
+ * ids and the pool keeps pooling whatever the current data holds. The pool is
+ * split into stripes, each a {@link WeakHashMap} behind its own lock, so
+ * decoders on several threads rarely wait for each other.
+ */
+final class Interner<T> {
+    static final Interner<String> TEXT = new Interner<>();
+    static final Interner<BigDecimal> AMOUNTS = new Interner<>();
+
+    private static final int STRIPES = 32;
+
+    private final Map<T, WeakReference<T>>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    private Interner() {
+        stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new WeakHashMap<>();
+        }
+    }
+
+    T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        Map<T, WeakReference<T>> stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            WeakReference<T> reference = stripe.get(value);
+            T pooled = reference != null ? reference.get() : null;
+            if (pooled != null) {
+                return pooled;
+            }
+            stripe.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Car;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a fleet-wide availability check. Cars whose check failed or did not
+ * finish before the deadline are reported separately rather than silently
+ * treated as unavailable.
+ */
+public class AvailabilityResult {
+    private final List<Car> availableCars;
+    private final Map<String, Exception> failures;
+    private final List<String> timedOutCarIds;
+    private final int checkedCount;
+    private final long elapsedMillis;
+
+    public AvailabilityResult(List<Car> availableCars, Map<String, Exception> failures,
+                              List<String> timedOutCarIds, int checkedCount, long elapsedMillis) {
+        this.availableCars = Collections.unmodifiableList(availableCars);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.timedOutCarIds = Collections.unmodifiableList(timedOutCarIds);
+        this.checkedCount = checkedCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<Car> getAvailableCars() { return availableCars; }
+    public Map<String, Exception> getFailures() { return failures; }
+    public List<String> getTimedOutCarIds() { return timedOutCarIds; }
+    public int getCheckedCount() { return checkedCount; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public boolean isComplete() {
+        return failures.isEmpty() && timedOutCarIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return availableCars.size() + " of " + checkedCount + " cars available (" + failures.size()
+                + " failed, " + timedOutCarIds.size() + " timed out) in " + elapsedMillis + " ms";
+    }
+}
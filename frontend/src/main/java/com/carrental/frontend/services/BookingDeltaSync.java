@@ -0,0 +1,142 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bookings {@link CarRentalService#syncBookings} keeps current, and the
+ * high-water mark it asks for changes since: the latest updatedAt (or createdAt)
+ * among them, in the server's clock.
+ *
+ * Changed bookings, cancellations included, replace the ones held by id and new
+ * ones are appended. Changes are requested from a little before the watermark,
+ * since writes landing in the same instant or committed slightly out of order
+ * would otherwise be missed; getting a booking twice is harmless. A booking
+ * deleted on the server never shows up as a change, so a full load is done
+ * every {@link #FULL_SYNC_INTERVAL_MILLIS}, as well as on the first sync and
+ * whenever the requested fields change.
+ *
+ * A server that ignores updatedSince, as the .NET backend does, answers a
+ * delta request with the whole list. That shows as bookings changed before the
+ * requested instant; from then on every sync is a full load, which the
+ * collection cache revalidates.
+ */
+final class BookingDeltaSync {
+    static final long OVERLAP_SECONDS = 60;
+    static final long FULL_SYNC_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private final Map<String, Booking> bookings = new LinkedHashMap<>();
+    // Deleted through this client since the last full load; a delta must not bring them back
+    private final Set<String> removedIds = new HashSet<>();
+    private Set<String> fields;
+    private LocalDateTime watermark;
+    private long lastFullSyncMillis;
+    private boolean sinceIgnored;
+
+    /**
+     * Returns the updatedSince value for a delta request, or null when the next
+     * sync has to load everything.
+     */
+    synchronized String changesSince(Collection<String> requestedFields, long nowMillis) {
+        if (sinceIgnored || watermark == null || !new LinkedHashSet<>(requestedFields).equals(fields)
+                || nowMillis - lastFullSyncMillis >= FULL_SYNC_INTERVAL_MILLIS) {
+            return null;
+        }
+        // Timestamps arrive in UTC with the zone dropped; see IsoDates
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(since()) + "Z";
+    }
+
+    /**
+     * Whether {@code changes}, the answer to a delta request, holds bookings
+     * changed before what was asked for, meaning the server sent everything. If
+     * so, later syncs no longer ask for changes.
+     */
+    synchronized boolean ignoresSince(List<Booking> changes) {
+        LocalDateTime since = since();
+        for (Booking booking : changes) {
+            LocalDateTime changedAt = changedAt(booking);
+            if (changedAt != null && changedAt.isBefore(since)) {
+                sinceIgnored = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The bookings held with {@code requestedFields}, as the last full load and
+     * the changes merged since, or null if a load of other fields is held.
+     */
+    synchronized List<Booking> held(Collection<String> requestedFields) {
+        return new LinkedHashSet<>(requestedFields).equals(fields) ? new ArrayList<>(bookings.values()) : null;
+    }
+
+    /**
+     * Replaces everything held with a full load of {@code requestedFields}
+     * completed at {@code asOfMillis}.
+     */
+    synchronized BookingSyncResult replaceAll(Collection<String> requestedFields, List<Booking> all, long asOfMillis) {
+        bookings.clear();
+        removedIds.clear();
+        watermark = null;
+        for (Booking booking : all) {
+            bookings.put(booking.getId(), booking);
+            advanceWatermark(booking);
+        }
+        fields = new LinkedHashSet<>(requestedFields);
+        lastFullSyncMillis = asOfMillis;
+        return new BookingSyncResult(new ArrayList<>(bookings.values()), all.size(), true);
+    }
+
+    synchronized BookingSyncResult merge(List<Booking> changes) {
+        int applied = 0;
+        for (Booking booking : changes) {
+            if (removedIds.contains(booking.getId())) {
+                continue;
+            }
+            bookings.put(booking.getId(), booking);
+            advanceWatermark(booking);
+            applied++;
+        }
+        return new BookingSyncResult(new ArrayList<>(bookings.values()), applied, false);
+    }
+
+    synchronized void removed(String id) {
+        bookings.remove(id);
+        removedIds.add(id);
+    }
+
+    synchronized void reset() {
+        bookings.clear();
+        removedIds.clear();
+        fields = null;
+        watermark = null;
+        lastFullSyncMillis = 0;
+    }
+
+    private LocalDateTime since() {
+        return watermark.minusSeconds(OVERLAP_SECONDS);
+    }
+
+    private void advanceWatermark(Booking booking) {
+        LocalDateTime changedAt = changedAt(booking);
+        if (changedAt != null && (watermark == null || changedAt.isAfter(watermark))) {
+            watermark = changedAt;
+        }
+    }
+
+    private static LocalDateTime changedAt(Booking booking) {
+        return booking.getUpdatedAt() != null ? booking.getUpdatedAt() : booking.getCreatedAt();
+    }
+}
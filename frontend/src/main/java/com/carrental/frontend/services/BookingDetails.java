@@ -0,0 +1,24 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+
+/**
+ * A booking resolved together with the car and customer it refers to.
+ */
+public class BookingDetails {
+    private final Booking booking;
+    private final Car car;
+    private final Customer customer;
+
+    public BookingDetails(Booking booking, Car car, Customer customer) {
+        this.booking = booking;
+        this.car = car;
+        this.customer = customer;
+    }
+
+    public Booking getBooking() { return booking; }
+    public Car getCar() { return car; }
+    public Customer getCustomer() { return customer; }
+}
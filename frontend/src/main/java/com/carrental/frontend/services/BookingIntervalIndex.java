@@ -0,0 +1,237 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-car index of booked date ranges for checking a requested rental against
+ * the bookings already loaded, without a round trip to the server.
+ *
+ * Ranges are half-open [pickupDate, returnDate), matching BookingService on the
+ * backend: a car returned on a day can be picked up again that same day.
+ * Cancelled bookings are not indexed.
+ */
+public class BookingIntervalIndex {
+    private final Map<String, CarIntervals> intervalsByCar = new HashMap<>();
+    private final Map<String, String> carIdByBooking = new HashMap<>();
+
+    public synchronized void clear() {
+        intervalsByCar.clear();
+        carIdByBooking.clear();
+    }
+
+    /**
+     * Replaces the whole index with {@code bookings}.
+     */
+    public synchronized void rebuild(Collection<Booking> bookings) {
+        clear();
+        addAll(bookings);
+    }
+
+    public synchronized void addAll(Collection<Booking> bookings) {
+        Map<String, List<Interval>> added = new HashMap<>();
+        for (Booking booking : bookings) {
+            Interval interval = toInterval(booking);
+            if (interval != null) {
+                removeExisting(interval.bookingId);
+                added.computeIfAbsent(booking.getCarId(), id -> new ArrayList<>()).add(interval);
+                carIdByBooking.put(interval.bookingId, booking.getCarId());
+            }
+        }
+        for (Map.Entry<String, List<Interval>> entry : added.entrySet()) {
+            intervalsByCar.computeIfAbsent(entry.getKey(), id -> new CarIntervals()).addAll(entry.getValue());
+        }
+    }
+
+    /**
+     * Indexes a created or updated booking, or drops it if it is now cancelled.
+     */
+    public synchronized void put(Booking booking) {
+        if (booking.getId() != null) {
+            removeExisting(booking.getId());
+        }
+        addAll(Collections.singletonList(booking));
+    }
+
+    public synchronized void remove(String bookingId) {
+        removeExisting(bookingId);
+    }
+
+    public synchronized boolean isAvailable(String carId, LocalDate from, LocalDate to) {
+        return getConflicts(carId, from, to).isEmpty();
+    }
+
+    /**
+     * Returns the ids of bookings of {@code carId} that overlap [from, to).
+     */
+    public synchronized List<String> getConflicts(String carId, LocalDate from, LocalDate to) {
+        CarIntervals intervals = intervalsByCar.get(carId);
+        if (intervals == null) {
+            return Collections.emptyList();
+        }
+        return intervals.overlapping(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Returns the earliest pickup date on or after {@code from} at which the car is
+     * free for {@code days} consecutive days.
+     */
+    public synchronized LocalDate findNextFreeStart(String carId, LocalDate from, int days) {
+        CarIntervals intervals = intervalsByCar.get(carId);
+        if (intervals == null) {
+            return from;
+        }
+        return LocalDate.ofEpochDay(intervals.nextFreeStart(from.toEpochDay(), Math.max(days, 1)));
+    }
+
+    public synchronized int size() {
+        return carIdByBooking.size();
+    }
+
+    private void removeExisting(String bookingId) {
+        String carId = carIdByBooking.remove(bookingId);
+        if (carId != null) {
+            CarIntervals intervals = intervalsByCar.get(carId);
+            intervals.remove(bookingId);
+            if (intervals.isEmpty()) {
+                intervalsByCar.remove(carId);
+            }
+        }
+    }
+
+    private static Interval toInterval(Booking booking) {
+        if (booking.getId() == null || booking.getCarId() == null || booking.getStatus() == BookingStatus.CANCELLED
+                || booking.getPickupDate() == null || booking.getReturnDate() == null) {
+            return null;
+        }
+        return new Interval(booking.getId(), booking.getPickupDate().toEpochDay(), booking.getReturnDate().toEpochDay());
+    }
+
+    private static final class Interval {
+        final String bookingId;
+        final long start;
+        final long end;
+
+        Interval(String bookingId, long start, long end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Intervals of one car in parallel arrays sorted by start day, with the running
+     * maximum of end days so overlap queries can stop as soon as no earlier
+     * interval can reach the query range.
+     */
+    private static final class CarIntervals {
+        private long[] starts = new long[0];
+        private long[] ends = new long[0];
+        private long[] maxEnds = new long[0];
+        private String[] bookingIds = new String[0];
+
+        boolean isEmpty() {
+            return starts.length == 0;
+        }
+
+        void addAll(List<Interval> added) {
+            List<Interval> all = new ArrayList<>(starts.length + added.size());
+            for (int i = 0; i < starts.length; i++) {
+                all.add(new Interval(bookingIds[i], starts[i], ends[i]));
+            }
+            all.addAll(added);
+            all.sort((a, b) -> Long.compare(a.start, b.start));
+            rebuild(all);
+        }
+
+        void remove(String bookingId) {
+            List<Interval> kept = new ArrayList<>(starts.length);
+            for (int i = 0; i < starts.length; i++) {
+                if (!bookingIds[i].equals(bookingId)) {
+                    kept.add(new Interval(bookingIds[i], starts[i], ends[i]));
+                }
+            }
+            rebuild(kept);
+        }
+
+        List<String> overlapping(long from, long to) {
+            // Only intervals starting before 'to' can overlap; walk back from the last one
+            int i = firstStartAtOrAfter(to) - 1;
+            List<String> result = new ArrayList<>();
+            while (i >= 0 && maxEnds[i] > from) {
+                if (ends[i] > from) {
+                    result.add(bookingIds[i]);
+                }
+                i--;
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        long nextFreeStart(long from, int days) {
+            long candidate = from;
+            // maxEnds is non-decreasing, so skip every interval that ends before 'from'
+            int i = firstMaxEndAfter(candidate);
+            for (; i < starts.length; i++) {
+                if (starts[i] >= candidate + days) {
+                    break;
+                }
+                candidate = Math.max(candidate, ends[i]);
+            }
+            return candidate;
+        }
+
+        private int firstStartAtOrAfter(long day) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstMaxEndAfter(long day) {
+            int low = 0;
+            int high = maxEnds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (maxEnds[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void rebuild(List<Interval> sorted) {
+            int n = sorted.size();
+            starts = new long[n];
+            ends = new long[n];
+            maxEnds = new long[n];
+            bookingIds = new String[n];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                Interval interval = sorted.get(i);
+                starts[i] = interval.start;
+                ends[i] = interval.end;
+                bookingIds[i] = interval.bookingId;
+                maxEnd = Math.max(maxEnd, interval.end);
+                maxEnds[i] = maxEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link CarRentalService#syncBookings}: every booking now held, and
+ * how many the server sent, which for a delta sync is the number changed since
+ * the previous one.
+ */
+public class BookingSyncResult {
+    private final List<Booking> bookings;
+    private final int receivedCount;
+    private final boolean full;
+
+    public BookingSyncResult(List<Booking> bookings, int receivedCount, boolean full) {
+        this.bookings = Collections.unmodifiableList(bookings);
+        this.receivedCount = receivedCount;
+        this.full = full;
+    }
+
+    public List<Booking> getBookings() { return bookings; }
+    public int getReceivedCount() { return receivedCount; }
+    public boolean isFull() { return full; }
+
+    @Override
+    public String toString() {
+        return (full ? "Loaded all " : "Received " + receivedCount + " changed of ") + bookings.size() + " bookings";
+    }
+}
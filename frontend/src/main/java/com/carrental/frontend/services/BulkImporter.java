@@ -0,0 +1,281 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.services.ImportResult.ImportFailure;
+import com.carrental.frontend.utils.CloseableIterator;
+import com.carrental.frontend.utils.CsvReader;
+import com.carrental.frontend.utils.IoExecutors;
+import com.carrental.frontend.utils.JsonArrayIterator;
+import com.carrental.frontend.utils.ModelJson;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates cars or customers in bulk from a file. Records are read one at a time
+ * and posted with at most {@code concurrency} requests in flight; reading pauses
+ * while all slots are taken, so memory use does not grow with the file size.
+ *
+ * Two formats are accepted, chosen by file extension:
+ * <ul>
+ *   <li>{@code .csv}: a header row of JSON property names ({@code make},
+ *       {@code dailyRate}, ...), with dotted names such as {@code address.city}
+ *       for nested objects. Empty cells are left unset.</li>
+ *   <li>anything else: a JSON array of objects. Text before the opening bracket is
+ *       skipped, so the database/sample-*.js seed scripts can be imported as is.</li>
+ * </ul>
+ */
+public class BulkImporter {
+    public static final int DEFAULT_CONCURRENCY = 8;
+    private static final int PROGRESS_INTERVAL = 25;
+
+    /**
+     * Receives progress from the import threads; implementations hand off to the
+     * EDT themselves if they touch Swing.
+     */
+    public interface ProgressListener {
+        void onProgress(int processed, int failed, double recordsPerSecond);
+    }
+
+    private interface Creator<T> {
+        void create(T item) throws IOException;
+    }
+
+    private final CarRentalService service;
+    private final int concurrency;
+    private final Gson gson;
+
+    public BulkImporter(CarRentalService service, int concurrency) {
+        this.service = service;
+        this.concurrency = concurrency;
+        this.gson = ModelJson.gson();
+    }
+
+    public ImportResult importCars(File file, ProgressListener listener) throws IOException {
+        return importFile(file, Car.class, service::createCar, listener);
+    }
+
+    public ImportResult importCustomers(File file, ProgressListener listener) throws IOException {
+        return importFile(file, Customer.class, service::createCustomer, listener);
+    }
+
+    private <T> ImportResult importFile(File file, Class<T> type, Creator<T> creator,
+                                        ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        Semaphore slots = new Semaphore(concurrency);
+        AtomicInteger imported = new AtomicInteger();
+        AtomicInteger processed = new AtomicInteger();
+        List<ImportFailure> failures = new ArrayList<>();
+        String abortReason = null;
+        ExecutorService executor = IoExecutors.newIoExecutor("bulk-import", concurrency);
+
+        try (CloseableIterator<SourceRecord> records = openRecords(file)) {
+            while (true) {
+                SourceRecord record;
+                try {
+                    if (!records.hasNext()) {
+                        break;
+                    }
+                    record = records.next();
+                } catch (UncheckedIOException | JsonParseException e) {
+                    // The rest of the file cannot be located reliably after a syntax error
+                    abortReason = "unreadable input after record " + processed.get() + ": " + rootMessage(e);
+                    break;
+                }
+                slots.acquire();
+                executor.execute(() -> {
+                    try {
+                        creator.create(gson.fromJson(record.fields, type));
+                        imported.incrementAndGet();
+                    } catch (Exception e) {
+                        synchronized (failures) {
+                            failures.add(new ImportFailure(record.number, record.location, rootMessage(e)));
+                        }
+                    } finally {
+                        slots.release();
+                        int done = processed.incrementAndGet();
+                        if (listener != null && done % PROGRESS_INTERVAL == 0) {
+                            int failed;
+                            synchronized (failures) {
+                                failed = failures.size();
+                            }
+                            listener.onProgress(done, failed, rate(done, start));
+                        }
+                    }
+                });
+            }
+            // Every slot free again means every submitted record has finished
+            slots.acquire(concurrency);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import cancelled after " + processed.get() + " records");
+        } finally {
+            executor.shutdown();
+        }
+
+        failures.sort(Comparator.comparingInt(ImportFailure::getRecordNumber));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        ImportResult result = new ImportResult(imported.get(), failures, abortReason, elapsedMillis);
+        if (listener != null) {
+            listener.onProgress(result.getProcessedCount(), failures.size(), result.getRecordsPerSecond());
+        }
+        return result;
+    }
+
+    private CloseableIterator<SourceRecord> openRecords(File file) throws IOException {
+        Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+        if (file.getName().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            return new CsvRecords(new CsvReader(reader));
+        }
+        PushbackReader source = new PushbackReader(reader);
+        int c;
+        while ((c = source.read()) != -1 && c != '[') {
+            // skip script preamble such as db.cars.insertMany(
+        }
+        if (c == '[') {
+            source.unread(c);
+        }
+        return new JsonRecords(new JsonArrayIterator<>(source, gson, JsonObject.class));
+    }
+
+    private static double rate(int processed, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed > 0 ? processed * 1_000_000_000.0 / elapsed : 0;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static final class SourceRecord {
+        final int number;
+        final String location;
+        final JsonObject fields;
+
+        SourceRecord(int number, String location, JsonObject fields) {
+            this.number = number;
+            this.location = location;
+            this.fields = fields;
+        }
+    }
+
+    private static final class JsonRecords implements CloseableIterator<SourceRecord> {
+        private final JsonArrayIterator<JsonObject> elements;
+        private int count;
+
+        JsonRecords(JsonArrayIterator<JsonObject> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return elements.hasNext();
+        }
+
+        @Override
+        public SourceRecord next() {
+            JsonObject fields = elements.next();
+            count++;
+            return new SourceRecord(count, "record " + count, fields != null ? fields : new JsonObject());
+        }
+
+        @Override
+        public void close() throws IOException {
+            elements.close();
+        }
+    }
+
+    /**
+     * Turns CSV rows into JSON objects keyed by the header, so both formats go
+     * through the same Gson binding.
+     */
+    private static final class CsvRecords implements CloseableIterator<SourceRecord> {
+        private final CsvReader csv;
+        private List<String> header;
+        private List<String> pending;
+        private int count;
+
+        CsvRecords(CsvReader csv) {
+            this.csv = csv;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if (header == null) {
+                    header = csv.readRecord();
+                    if (header == null) {
+                        return false;
+                    }
+                }
+                if (pending == null) {
+                    pending = csv.readRecord();
+                }
+                return pending != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public SourceRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<String> row = pending;
+            pending = null;
+            count++;
+
+            JsonObject fields = new JsonObject();
+            for (int i = 0; i < header.size() && i < row.size(); i++) {
+                String value = row.get(i).trim();
+                if (!value.isEmpty()) {
+                    put(fields, header.get(i).trim(), value);
+                }
+            }
+            return new SourceRecord(count, "line " + csv.getRecordStartLine(), fields);
+        }
+
+        private static void put(JsonObject target, String path, String value) {
+            int dot = path.indexOf('.');
+            if (dot < 0) {
+                // Gson converts numeric and boolean strings to the field type
+                target.addProperty(path, value);
+                return;
+            }
+            String name = path.substring(0, dot);
+            JsonObject nested = target.has(name) && target.get(name).isJsonObject()
+                    ? target.getAsJsonObject(name) : new JsonObject();
+            target.add(name, nested);
+            put(nested, path.substring(dot + 1), value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            csv.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.carrental.frontend.services;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Criteria for {@link CarSearchIndex#search(CarQuery)}. Unset criteria match
+ * every car; text criteria are exact matches ignoring case. Ranges are inclusive.
+ */
+public class CarQuery {
+    public enum SortKey {
+        NONE, DAILY_RATE, YEAR, SEATS, MAKE, MODEL
+    }
+
+    private String make;
+    private String model;
+    private String color;
+    private String fuelType;
+    private String transmission;
+    private Integer minYear;
+    private Integer maxYear;
+    private BigDecimal minDailyRate;
+    private BigDecimal maxDailyRate;
+    private Integer minSeats;
+    private Integer maxSeats;
+    private Boolean available;
+    private SortKey sortKey = SortKey.NONE;
+    private boolean descending;
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Builds a query from the criteria map accepted by POST /api/cars/search
+     * (make, model, minYear, maxYear, maxDailyRate, fuelType, transmission,
+     * minSeats, isAvailable), so callers of {@link CarRentalService#searchCars}
+     * can switch to the local index without changing their criteria.
+     */
+    public static CarQuery fromCriteria(Map<String, Object> criteria) {
+        CarQuery query = new CarQuery();
+        for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            switch (entry.getKey().toLowerCase(Locale.ROOT)) {
+                case "make": query.make(value.toString()); break;
+                case "model": query.model(value.toString()); break;
+                case "color": query.color(value.toString()); break;
+                case "fueltype": query.fuelType(value.toString()); break;
+                case "transmission": query.transmission(value.toString()); break;
+                case "minyear": query.minYear(toInt(value)); break;
+                case "maxyear": query.maxYear(toInt(value)); break;
+                case "mindailyrate": query.minDailyRate(new BigDecimal(value.toString())); break;
+                case "maxdailyrate": query.maxDailyRate(new BigDecimal(value.toString())); break;
+                case "minseats": query.minSeats(toInt(value)); break;
+                case "maxseats": query.maxSeats(toInt(value)); break;
+                case "isavailable": query.available(Boolean.valueOf(value.toString())); break;
+                default:
+                    throw new IllegalArgumentException("Unsupported search criterion: " + entry.getKey());
+            }
+        }
+        return query;
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+    }
+
+    public CarQuery make(String make) { this.make = normalize(make); return this; }
+    public CarQuery model(String model) { this.model = normalize(model); return this; }
+    public CarQuery color(String color) { this.color = normalize(color); return this; }
+    public CarQuery fuelType(String fuelType) { this.fuelType = normalize(fuelType); return this; }
+    public CarQuery transmission(String transmission) { this.transmission = normalize(transmission); return this; }
+    public CarQuery minYear(Integer minYear) { this.minYear = minYear; return this; }
+    public CarQuery maxYear(Integer maxYear) { this.maxYear = maxYear; return this; }
+    public CarQuery minDailyRate(BigDecimal minDailyRate) { this.minDailyRate = minDailyRate; return this; }
+    public CarQuery maxDailyRate(BigDecimal maxDailyRate) { this.maxDailyRate = maxDailyRate; return this; }
+    public CarQuery minSeats(Integer minSeats) { this.minSeats = minSeats; return this; }
+    public CarQuery maxSeats(Integer maxSeats) { this.maxSeats = maxSeats; return this; }
+    public CarQuery available(Boolean available) { this.available = available; return this; }
+    public CarQuery limit(int limit) { this.limit = limit; return this; }
+
+    public CarQuery sortBy(SortKey sortKey, boolean descending) {
+        this.sortKey = sortKey != null ? sortKey : SortKey.NONE;
+        this.descending = descending;
+        return this;
+    }
+
+    public String getMake() { return make; }
+    public String getModel() { return model; }
+    public String getColor() { return color; }
+    public String getFuelType() { return fuelType; }
+    public String getTransmission() { return transmission; }
+    public Integer getMinYear() { return minYear; }
+    public Integer getMaxYear() { return maxYear; }
+    public BigDecimal getMinDailyRate() { return minDailyRate; }
+    public BigDecimal getMaxDailyRate() { return maxDailyRate; }
+    public Integer getMinSeats() { return minSeats; }
+    public Integer getMaxSeats() { return maxSeats; }
+    public Boolean getAvailable() { return available; }
+    public SortKey getSortKey() { return sortKey; }
+    public boolean isDescending() { return descending; }
+    public int getLimit() { return limit; }
+
+    /**
+     * Whether any criterion is set; sorting and limits alone do not count.
+     */
+    public boolean hasCriteria() {
+        return make != null || model != null || color != null || fuelType != null || transmission != null
+                || minYear != null || maxYear != null || minDailyRate != null || maxDailyRate != null
+                || minSeats != null || maxSeats != null || available != null;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
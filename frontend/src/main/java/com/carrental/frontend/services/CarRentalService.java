@@ -3,36 +3,152 @@ package com.carrental.frontend.services;
 import com.carrental.frontend.models.Car;
 import com.carrental.frontend.models.Customer;
 import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
 import com.carrental.frontend.utils.ApiClient;
+import com.carrental.frontend.utils.ApiClient.ConditionalResponse;
+import com.carrental.frontend.utils.CacheStats;
+import com.carrental.frontend.utils.CloseableIterator;
+import com.carrental.frontend.utils.HttpMetrics;
+import com.carrental.frontend.utils.HttpStatusException;
+import com.carrental.frontend.utils.IoExecutors;
+import com.carrental.frontend.utils.JsonArrayIterator;
+import com.carrental.frontend.utils.LruCache;
+import com.carrental.frontend.utils.ModelJson;
+import com.carrental.frontend.utils.ResiliencePolicy;
+import com.carrental.frontend.utils.SingleFlight;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import okhttp3.HttpUrl;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class CarRentalService {
+    private static final int ENTITY_CACHE_SIZE = 2000;
+    private static final long ENTITY_CACHE_TTL_MINUTES = 5;
+    private static final int COLLECTION_CACHE_SIZE = 32;
+    private static final long COLLECTION_CACHE_TTL_MINUTES = 30;
+    // Longer lists keep only their validators, so holding them is never the cache's doing
+    private static final int COLLECTION_CACHE_MAX_ITEMS = 5_000;
+    private static final int AVAILABILITY_CONCURRENCY = 32;
+
+    /** The car fields the desk's table, search index and car picker read. */
+    public static final List<String> CAR_TABLE_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "make", "model", "year", "color", "licensePlate", "dailyRate", "isAvailable", "fuelType",
+            "transmission", "seats"));
+    /** The customer fields the desk's table and customer picker read. */
+    public static final List<String> CUSTOMER_TABLE_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "firstName", "lastName", "email", "phone", "address.city", "address.state", "dateOfBirth",
+            "driversLicense"));
+    /** The booking fields the desk's table and conflict index read, and delta sync needs. */
+    public static final List<String> BOOKING_TABLE_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "customerId", "carId", "customerName", "carInfo", "pickupDate", "returnDate", "totalDays",
+            "totalAmount", "status", "pickupLocation", "returnLocation", "updatedAt"));
+
     private final ApiClient apiClient;
     private final Gson gson;
     private final String baseUrl;
 
+    // Entities by id, filled from single fetches and from every list we download
+    private final LruCache<String, Car> carCache;
+    private final LruCache<String, Customer> customerCache;
+    private final LruCache<String, Booking> bookingCache;
+    // Parsed list responses by URL, kept with their validators for conditional GETs
+    private final LruCache<String, CachedCollection<?>> collectionCache;
+    // Reads currently on the wire by method and URL, shared by concurrent identical calls
+    private final SingleFlight<String> inFlightReads;
+    private final ExecutorService availabilityExecutor;
+    // Bookings held by syncBookings; the lock keeps two syncs from interleaving their merges
+    private final BookingDeltaSync bookingSync = new BookingDeltaSync();
+    private final Object bookingSyncLock = new Object();
+
     public CarRentalService(String baseUrl) {
+        this(baseUrl, ResiliencePolicy.defaults());
+    }
+
+    public CarRentalService(String baseUrl, ResiliencePolicy resiliencePolicy) {
         this.baseUrl = baseUrl;
-        this.apiClient = new ApiClient();
-        this.gson = new Gson();
+        this.apiClient = new ApiClient(resiliencePolicy);
+        this.gson = ModelJson.gson();
+        this.carCache = new LruCache<>(ENTITY_CACHE_SIZE, ENTITY_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        this.customerCache = new LruCache<>(ENTITY_CACHE_SIZE, ENTITY_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        this.bookingCache = new LruCache<>(ENTITY_CACHE_SIZE, ENTITY_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        this.collectionCache = new LruCache<>(COLLECTION_CACHE_SIZE, COLLECTION_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        this.inFlightReads = new SingleFlight<>();
+        this.availabilityExecutor = IoExecutors.newIoExecutor("availability", AVAILABILITY_CONCURRENCY);
     }
 
     // Car operations
     public List<Car> getAllCars() throws IOException {
-        String response = apiClient.get(baseUrl + "/api/cars");
         Type listType = new TypeToken<List<Car>>(){}.getType();
-        return gson.fromJson(response, listType);
+        return getList("/api/cars", listType, carCache, Car::getId);
+    }
+
+    /**
+     * Streams /api/cars element by element. The caller must close the iterator.
+     */
+    public CloseableIterator<Car> streamAllCars() throws IOException {
+        return streamList("/api/cars", Car.class, carCache, Car::getId);
+    }
+
+    /**
+     * Like {@link #getAllCars()}, but asks the server for only {@code fields}; the
+     * id is always included. The cars are partial, so unlike full ones they are
+     * not kept in the cache {@link #getCarById} answers from.
+     */
+    public List<Car> getAllCars(Collection<String> fields) throws IOException {
+        return getAllCars(fields, null);
+    }
+
+    /**
+     * Refreshes a list of cars the caller already holds from the last load of the
+     * same {@code fields}. Lists too long for the collection cache are still
+     * revalidated, and when the server answers that nothing changed {@code current}
+     * itself is returned instead of downloading the list again.
+     */
+    public List<Car> getAllCars(Collection<String> fields, List<Car> current) throws IOException {
+        Type listType = new TypeToken<List<Car>>(){}.getType();
+        return getList(projected("/api/cars", fields), listType, null, Car::getId, current);
+    }
+
+    public CloseableIterator<Car> streamAllCars(Collection<String> fields) throws IOException {
+        return streamList(projected("/api/cars", fields), Car.class, null, Car::getId);
     }
 
     public Car getCarById(String id) throws IOException {
-        String response = apiClient.get(baseUrl + "/api/cars/" + id);
-        return gson.fromJson(response, Car.class);
+        Car cached = carCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        String url = baseUrl + "/api/cars/" + id;
+        return coalesced(url, () -> {
+            Car car = gson.fromJson(apiClient.get(url), Car.class);
+            carCache.put(id, car);
+            return car;
+        });
     }
 
     public List<Car> searchCars(Map<String, Object> searchCriteria) throws IOException {
@@ -45,103 +161,903 @@ public class CarRentalService {
     public Car createCar(Car car) throws IOException {
         String json = gson.toJson(car);
         String response = apiClient.post(baseUrl + "/api/cars", json);
-        return gson.fromJson(response, Car.class);
+        Car created = gson.fromJson(response, Car.class);
+        onCarCreated(created);
+        return created;
     }
 
     public boolean updateCar(String id, Car car) throws IOException {
         String json = gson.toJson(car);
         int statusCode = apiClient.put(baseUrl + "/api/cars/" + id, json);
+        onCarChanged(id);
         return statusCode == 204; // No Content
     }
 
     public boolean deleteCar(String id) throws IOException {
         int statusCode = apiClient.delete(baseUrl + "/api/cars/" + id);
+        onCarChanged(id);
         return statusCode == 204; // No Content
     }
 
     public boolean isCarAvailable(String carId, String from, String to) throws IOException {
-        String url = baseUrl + "/api/cars/" + carId + "/availability?from=" + from + "&to=" + to;
-        String response = apiClient.get(url);
-        return Boolean.parseBoolean(response);
+        String url = availabilityUrl(carId, from, to);
+        return coalesced(url, () -> Boolean.parseBoolean(apiClient.get(url)));
+    }
+
+    /**
+     * Checks every car matching {@code filter} (null for all) against the given
+     * date range, with up to {@value #AVAILABILITY_CONCURRENCY} requests in flight
+     * over the shared connection pool; the next check is only submitted when one
+     * finishes. {@code filter} sees cars with only {@link #CAR_TABLE_FIELDS}. The
+     * timeout covers loading the cars too: checks still running or never started
+     * when it elapses are reported as timed out, and individual failures are
+     * reported per car instead of failing the whole batch.
+     */
+    public AvailabilityResult availableCars(String from, String to, Predicate<Car> filter,
+                                            long timeout, TimeUnit unit) throws IOException {
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+
+        List<Car> candidates = new ArrayList<>();
+        for (Car car : getAllCars(CAR_TABLE_FIELDS)) {
+            if (filter == null || filter.test(car)) {
+                candidates.add(car);
+            }
+        }
+
+        CompletionService<Boolean> checks = new ExecutorCompletionService<>(availabilityExecutor);
+        Map<Future<Boolean>, Integer> running = new HashMap<>();
+        Boolean[] results = new Boolean[candidates.size()];
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        int submitted = 0;
+        try {
+            while (submitted < candidates.size() || !running.isEmpty()) {
+                while (submitted < candidates.size() && running.size() < AVAILABILITY_CONCURRENCY) {
+                    String carId = candidates.get(submitted).getId();
+                    running.put(checks.submit(() -> isCarAvailable(carId, from, to)), submitted++);
+                }
+                Future<Boolean> done = checks.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    break;
+                }
+                int index = running.remove(done);
+                try {
+                    results[index] = done.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    failures.put(candidates.get(index).getId(), cause instanceof Exception ? (Exception) cause : e);
+                }
+            }
+        } catch (InterruptedException e) {
+            running.keySet().forEach(check -> check.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Availability check interrupted");
+        }
+        running.keySet().forEach(check -> check.cancel(true));
+
+        List<Car> available = new ArrayList<>();
+        List<String> timedOut = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Car car = candidates.get(i);
+            if (results[i] != null) {
+                if (results[i]) {
+                    available.add(car);
+                }
+            } else if (!failures.containsKey(car.getId())) {
+                timedOut.add(car.getId());
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new AvailabilityResult(available, failures, timedOut, candidates.size(), elapsedMillis);
+    }
+
+    private String availabilityUrl(String carId, String from, String to) {
+        return HttpUrl.get(baseUrl).newBuilder()
+                .addPathSegments("api/cars")
+                .addPathSegment(carId)
+                .addPathSegment("availability")
+                .addQueryParameter("from", from)
+                .addQueryParameter("to", to)
+                .build()
+                .toString();
     }
 
     // Customer operations
     public List<Customer> getAllCustomers() throws IOException {
-        String response = apiClient.get(baseUrl + "/api/customers");
         Type listType = new TypeToken<List<Customer>>(){}.getType();
-        return gson.fromJson(response, listType);
+        return getList("/api/customers", listType, customerCache, Customer::getId);
+    }
+
+    public CloseableIterator<Customer> streamAllCustomers() throws IOException {
+        return streamList("/api/customers", Customer.class, customerCache, Customer::getId);
+    }
+
+    /**
+     * Partial customers with only {@code fields} and the id; see {@link #getAllCars(Collection)}.
+     * Nested fields are named with a dot, as in "address.city".
+     */
+    public List<Customer> getAllCustomers(Collection<String> fields) throws IOException {
+        return getAllCustomers(fields, null);
+    }
+
+    /**
+     * Refreshes customers the caller already holds; see {@link #getAllCars(Collection, List)}.
+     */
+    public List<Customer> getAllCustomers(Collection<String> fields, List<Customer> current) throws IOException {
+        Type listType = new TypeToken<List<Customer>>(){}.getType();
+        return getList(projected("/api/customers", fields), listType, null, Customer::getId, current);
+    }
+
+    public CloseableIterator<Customer> streamAllCustomers(Collection<String> fields) throws IOException {
+        return streamList(projected("/api/customers", fields), Customer.class, null, Customer::getId);
     }
 
     public Customer getCustomerById(String id) throws IOException {
-        String response = apiClient.get(baseUrl + "/api/customers/" + id);
-        return gson.fromJson(response, Customer.class);
+        Customer cached = customerCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        String url = baseUrl + "/api/customers/" + id;
+        return coalesced(url, () -> {
+            Customer customer = gson.fromJson(apiClient.get(url), Customer.class);
+            customerCache.put(id, customer);
+            return customer;
+        });
     }
 
     public Customer getCustomerByEmail(String email) throws IOException {
-        String response = apiClient.get(baseUrl + "/api/customers/email/" + email);
-        return gson.fromJson(response, Customer.class);
+        String url = baseUrl + "/api/customers/email/" + email;
+        return coalesced(url, () -> {
+            Customer customer = gson.fromJson(apiClient.get(url), Customer.class);
+            if (customer != null) {
+                customerCache.put(customer.getId(), customer);
+            }
+            return customer;
+        });
     }
 
     public Customer createCustomer(Customer customer) throws IOException {
         String json = gson.toJson(customer);
         String response = apiClient.post(baseUrl + "/api/customers", json);
-        return gson.fromJson(response, Customer.class);
+        Customer created = gson.fromJson(response, Customer.class);
+        onCustomerCreated(created);
+        return created;
     }
 
     public boolean updateCustomer(String id, Customer customer) throws IOException {
         String json = gson.toJson(customer);
         int statusCode = apiClient.put(baseUrl + "/api/customers/" + id, json);
+        onCustomerChanged(id);
         return statusCode == 204; // No Content
     }
 
     public boolean deleteCustomer(String id) throws IOException {
         int statusCode = apiClient.delete(baseUrl + "/api/customers/" + id);
+        onCustomerChanged(id);
         return statusCode == 204; // No Content
     }
 
     // Booking operations
     public List<Booking> getAllBookings() throws IOException {
-        String response = apiClient.get(baseUrl + "/api/bookings");
         Type listType = new TypeToken<List<Booking>>(){}.getType();
-        return gson.fromJson(response, listType);
+        return getList("/api/bookings", listType, bookingCache, Booking::getId);
+    }
+
+    public CloseableIterator<Booking> streamAllBookings() throws IOException {
+        return streamList("/api/bookings", Booking.class, bookingCache, Booking::getId);
+    }
+
+    /**
+     * Partial bookings with only {@code fields} and the id; see {@link #getAllCars(Collection)}.
+     */
+    public List<Booking> getAllBookings(Collection<String> fields) throws IOException {
+        Type listType = new TypeToken<List<Booking>>(){}.getType();
+        return getList(projected("/api/bookings", fields), listType, null, Booking::getId);
+    }
+
+    public CloseableIterator<Booking> streamAllBookings(Collection<String> fields) throws IOException {
+        return streamList(projected("/api/bookings", fields), Booking.class, null, Booking::getId);
     }
 
     public Booking getBookingById(String id) throws IOException {
-        String response = apiClient.get(baseUrl + "/api/bookings/" + id);
-        return gson.fromJson(response, Booking.class);
+        Booking cached = bookingCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        String url = baseUrl + "/api/bookings/" + id;
+        return coalesced(url, () -> {
+            Booking booking = gson.fromJson(apiClient.get(url), Booking.class);
+            bookingCache.put(id, booking);
+            return booking;
+        });
     }
 
     public List<Booking> getBookingsByCustomer(String customerId) throws IOException {
-        String response = apiClient.get(baseUrl + "/api/bookings/customer/" + customerId);
         Type listType = new TypeToken<List<Booking>>(){}.getType();
-        return gson.fromJson(response, listType);
+        return getList("/api/bookings/customer/" + customerId, listType, bookingCache, Booking::getId);
     }
 
     public List<Booking> getBookingsByCar(String carId) throws IOException {
-        String response = apiClient.get(baseUrl + "/api/bookings/car/" + carId);
         Type listType = new TypeToken<List<Booking>>(){}.getType();
-        return gson.fromJson(response, listType);
+        return getList("/api/bookings/car/" + carId, listType, bookingCache, Booking::getId);
+    }
+
+    /**
+     * Brings the bookings held for {@code fields} up to date and returns them all.
+     * Only bookings updated since the last sync are requested, with an
+     * updatedSince parameter, so a refresh costs in proportion to what changed
+     * rather than to the booking history; see {@link BookingDeltaSync} for when a
+     * full load is done instead. The updatedAt field is always requested.
+     */
+    public BookingSyncResult syncBookings(Collection<String> fields) throws IOException {
+        Set<String> synced = new LinkedHashSet<>(fields);
+        synced.add("updatedAt");
+        synchronized (bookingSyncLock) {
+            long now = System.currentTimeMillis();
+            String since = bookingSync.changesSince(synced, now);
+            Type listType = new TypeToken<List<Booking>>(){}.getType();
+            if (since == null) {
+                List<Booking> all = getList(projected("/api/bookings", synced), listType, null, Booking::getId,
+                        bookingSync.held(synced));
+                return bookingSync.replaceAll(synced, all, now);
+            }
+            String url = HttpUrl.get(baseUrl + projected("/api/bookings", synced)).newBuilder()
+                    .addQueryParameter("updatedSince", since)
+                    .build()
+                    .toString();
+            List<Booking> changes;
+            try (ConditionalResponse response = apiClient.openConditional(url, null, null)) {
+                changes = gson.fromJson(response.getReader(), listType);
+            }
+            if (changes == null) {
+                changes = Collections.emptyList();
+            }
+            if (bookingSync.ignoresSince(changes)) {
+                // What came back is the full list, so it is taken as one
+                return bookingSync.replaceAll(synced, changes, now);
+            }
+            return bookingSync.merge(changes);
+        }
+    }
+
+    /**
+     * Makes {@code bookings}, a full load of {@code fields} the caller did itself
+     * (streamed, or read from a snapshot saved at {@code asOfMillis}), the
+     * starting point for {@link #syncBookings}.
+     */
+    public void seedBookingSync(Collection<String> fields, List<Booking> bookings, long asOfMillis) {
+        Set<String> synced = new LinkedHashSet<>(fields);
+        synced.add("updatedAt");
+        // Not under bookingSyncLock, which a sync holds while on the wire; either order is consistent
+        bookingSync.replaceAll(synced, bookings, asOfMillis);
     }
 
     public Booking createBooking(Booking booking) throws IOException {
         String json = gson.toJson(booking);
         String response = apiClient.post(baseUrl + "/api/bookings", json);
-        return gson.fromJson(response, Booking.class);
+        Booking created = gson.fromJson(response, Booking.class);
+        onBookingCreated(created);
+        return created;
     }
 
     public boolean updateBooking(String id, Booking booking) throws IOException {
         String json = gson.toJson(booking);
         int statusCode = apiClient.put(baseUrl + "/api/bookings/" + id, json);
+        onBookingChanged(id);
         return statusCode == 204; // No Content
     }
 
     public boolean cancelBooking(String id) throws IOException {
         int statusCode = apiClient.put(baseUrl + "/api/bookings/" + id + "/cancel", "");
+        onBookingChanged(id);
         return statusCode == 204; // No Content
     }
 
     public boolean deleteBooking(String id) throws IOException {
         int statusCode = apiClient.delete(baseUrl + "/api/bookings/" + id);
+        onBookingDeleted(id);
         return statusCode == 204; // No Content
     }
+
+    // Async operations. Each returns immediately; cancelling the returned future
+    // (or bounding it with orTimeout) cancels the HTTP call behind it, so callers
+    // can compose and run requests in parallel without blocking a thread per call.
+
+    public CompletableFuture<List<Car>> getAllCarsAsync() {
+        Type listType = new TypeToken<List<Car>>(){}.getType();
+        String url = baseUrl + "/api/cars";
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), json -> cacheAll(parseList(json, listType), carCache, Car::getId)));
+    }
+
+    public CompletableFuture<Car> getCarByIdAsync(String id) {
+        Car cached = carCache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        String url = baseUrl + "/api/cars/" + id;
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), json -> {
+            Car car = gson.fromJson(json, Car.class);
+            carCache.put(id, car);
+            return car;
+        }));
+    }
+
+    public CompletableFuture<List<Car>> searchCarsAsync(Map<String, Object> searchCriteria) {
+        Type listType = new TypeToken<List<Car>>(){}.getType();
+        return map(apiClient.postAsync(baseUrl + "/api/cars/search", gson.toJson(searchCriteria)), json -> parseList(json, listType));
+    }
+
+    public CompletableFuture<Car> createCarAsync(Car car) {
+        return map(apiClient.postAsync(baseUrl + "/api/cars", gson.toJson(car)), json -> {
+            Car created = gson.fromJson(json, Car.class);
+            onCarCreated(created);
+            return created;
+        });
+    }
+
+    public CompletableFuture<Boolean> updateCarAsync(String id, Car car) {
+        return map(apiClient.putAsync(baseUrl + "/api/cars/" + id, gson.toJson(car)), statusCode -> {
+            onCarChanged(id);
+            return statusCode == 204; // No Content
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteCarAsync(String id) {
+        return map(apiClient.deleteAsync(baseUrl + "/api/cars/" + id), statusCode -> {
+            onCarChanged(id);
+            return statusCode == 204; // No Content
+        });
+    }
+
+    public CompletableFuture<Boolean> isCarAvailableAsync(String carId, String from, String to) {
+        String url = availabilityUrl(carId, from, to);
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), Boolean::parseBoolean));
+    }
+
+    public CompletableFuture<List<Customer>> getAllCustomersAsync() {
+        Type listType = new TypeToken<List<Customer>>(){}.getType();
+        String url = baseUrl + "/api/customers";
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), json -> cacheAll(parseList(json, listType), customerCache, Customer::getId)));
+    }
+
+    public CompletableFuture<Customer> getCustomerByIdAsync(String id) {
+        Customer cached = customerCache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        String url = baseUrl + "/api/customers/" + id;
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), json -> {
+            Customer customer = gson.fromJson(json, Customer.class);
+            customerCache.put(id, customer);
+            return customer;
+        }));
+    }
+
+    public CompletableFuture<Customer> getCustomerByEmailAsync(String email) {
+        String url = baseUrl + "/api/customers/email/" + email;
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), json -> {
+            Customer customer = gson.fromJson(json, Customer.class);
+            if (customer != null) {
+                customerCache.put(customer.getId(), customer);
+            }
+            return customer;
+        }));
+    }
+
+    public CompletableFuture<Customer> createCustomerAsync(Customer customer) {
+        return map(apiClient.postAsync(baseUrl + "/api/customers", gson.toJson(customer)), json -> {
+            Customer created = gson.fromJson(json, Customer.class);
+            onCustomerCreated(created);
+            return created;
+        });
+    }
+
+    public CompletableFuture<Boolean> updateCustomerAsync(String id, Customer customer) {
+        return map(apiClient.putAsync(baseUrl + "/api/customers/" + id, gson.toJson(customer)), statusCode -> {
+            onCustomerChanged(id);
+            return statusCode == 204; // No Content
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteCustomerAsync(String id) {
+        return map(apiClient.deleteAsync(baseUrl + "/api/customers/" + id), statusCode -> {
+            onCustomerChanged(id);
+            return statusCode == 204; // No Content
+        });
+    }
+
+    public CompletableFuture<List<Booking>> getAllBookingsAsync() {
+        Type listType = new TypeToken<List<Booking>>(){}.getType();
+        String url = baseUrl + "/api/bookings";
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), json -> cacheAll(parseList(json, listType), bookingCache, Booking::getId)));
+    }
+
+    public CompletableFuture<Booking> getBookingByIdAsync(String id) {
+        Booking cached = bookingCache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        String url = baseUrl + "/api/bookings/" + id;
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url), json -> {
+            Booking booking = gson.fromJson(json, Booking.class);
+            bookingCache.put(id, booking);
+            return booking;
+        }));
+    }
+
+    public CompletableFuture<List<Booking>> getBookingsByCustomerAsync(String customerId) {
+        Type listType = new TypeToken<List<Booking>>(){}.getType();
+        String url = baseUrl + "/api/bookings/customer/" + customerId;
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url),
+                json -> cacheAll(parseList(json, listType), bookingCache, Booking::getId)));
+    }
+
+    public CompletableFuture<List<Booking>> getBookingsByCarAsync(String carId) {
+        Type listType = new TypeToken<List<Booking>>(){}.getType();
+        String url = baseUrl + "/api/bookings/car/" + carId;
+        return coalescedAsync(url, () -> map(apiClient.getAsync(url),
+                json -> cacheAll(parseList(json, listType), bookingCache, Booking::getId)));
+    }
+
+    public CompletableFuture<Booking> createBookingAsync(Booking booking) {
+        return map(apiClient.postAsync(baseUrl + "/api/bookings", gson.toJson(booking)), json -> {
+            Booking created = gson.fromJson(json, Booking.class);
+            onBookingCreated(created);
+            return created;
+        });
+    }
+
+    public CompletableFuture<Boolean> updateBookingAsync(String id, Booking booking) {
+        return map(apiClient.putAsync(baseUrl + "/api/bookings/" + id, gson.toJson(booking)), statusCode -> {
+            onBookingChanged(id);
+            return statusCode == 204; // No Content
+        });
+    }
+
+    public CompletableFuture<Boolean> cancelBookingAsync(String id) {
+        return map(apiClient.putAsync(baseUrl + "/api/bookings/" + id + "/cancel", ""), statusCode -> {
+            onBookingChanged(id);
+            return statusCode == 204; // No Content
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteBookingAsync(String id) {
+        return map(apiClient.deleteAsync(baseUrl + "/api/bookings/" + id), statusCode -> {
+            onBookingDeleted(id);
+            return statusCode == 204; // No Content
+        });
+    }
+
+    /**
+     * Loads a booking together with its car and customer; the two lookups run in
+     * parallel once the booking is known.
+     */
+    public CompletableFuture<BookingDetails> getBookingDetailsAsync(String bookingId) {
+        return getBookingByIdAsync(bookingId).thenCompose(booking -> {
+            CompletableFuture<Car> car = getCarByIdAsync(booking.getCarId());
+            CompletableFuture<Customer> customer = getCustomerByIdAsync(booking.getCustomerId());
+            return car.thenCombine(customer, (c, cu) -> new BookingDetails(booking, c, cu));
+        });
+    }
+
+    // Write-behind support. The queue journals request bodies and sends them here
+    // later, with the same cache invalidation as the direct calls above.
+
+    String toJson(Object entity) {
+        return gson.toJson(entity);
+    }
+
+    <T> T fromJson(String json, Class<T> type) {
+        return gson.fromJson(json, type);
+    }
+
+    /**
+     * Sends a queued mutation. Completes with the new entity's id for creates and
+     * null otherwise, or with an {@link HttpStatusException} if the server refuses it.
+     *
+     * Creates carry their local id as an idempotency key, but the backend does not
+     * honour one, so with {@code mayBeApplied}, set when an earlier attempt got no
+     * definite answer, the entity is first looked up by its natural key and only
+     * posted again if the server does not have it.
+     */
+    CompletableFuture<String> sendMutation(PendingMutation mutation, boolean mayBeApplied) {
+        PendingMutation.Entity entity = mutation.getEntity();
+        String url = baseUrl + entity.getPath();
+        String id = mutation.getEntityId();
+        switch (mutation.getAction()) {
+            case CREATE:
+                if (mayBeApplied) {
+                    return findCreated(mutation).thenCompose(found -> found != null
+                            ? CompletableFuture.completedFuture(found) : create(mutation, url));
+                }
+                return create(mutation, url);
+            case UPDATE:
+                return apiClient.putAsync(url + "/" + id, mutation.getBody()).thenApply(code -> changed(mutation, code));
+            case CANCEL:
+                return apiClient.putAsync(url + "/" + id + "/cancel", "").thenApply(code -> changed(mutation, code));
+            default:
+                return apiClient.deleteAsync(url + "/" + id).thenApply(code -> changed(mutation, code));
+        }
+    }
+
+    private CompletableFuture<String> create(PendingMutation mutation, String url) {
+        return apiClient.postAsync(url, mutation.getBody(), mutation.getEntityId()).thenApply(json -> {
+            switch (mutation.getEntity()) {
+                case CAR: {
+                    Car created = gson.fromJson(json, Car.class);
+                    onCarCreated(created);
+                    return created.getId();
+                }
+                case CUSTOMER: {
+                    Customer created = gson.fromJson(json, Customer.class);
+                    onCustomerCreated(created);
+                    return created.getId();
+                }
+                default: {
+                    Booking created = gson.fromJson(json, Booking.class);
+                    onBookingCreated(created);
+                    return created.getId();
+                }
+            }
+        });
+    }
+
+    /**
+     * Completes with the id of the entity a create would make if the server already
+     * has it: the car with the same plate, the customer with the same email, or the
+     * live booking of the same car by the same customer for the same dates. Null if
+     * there is none.
+     */
+    private CompletableFuture<String> findCreated(PendingMutation mutation) {
+        switch (mutation.getEntity()) {
+            case CAR: {
+                String plate = gson.fromJson(mutation.getBody(), Car.class).getLicensePlate();
+                Type listType = new TypeToken<List<Car>>(){}.getType();
+                return apiClient.getAsync(baseUrl + "/api/cars").thenApply(json -> {
+                    for (Car car : this.<Car>parseList(json, listType)) {
+                        if (plate != null && plate.equalsIgnoreCase(car.getLicensePlate())) {
+                            onCarCreated(car);
+                            return car.getId();
+                        }
+                    }
+                    return null;
+                });
+            }
+            case CUSTOMER: {
+                String email = gson.fromJson(mutation.getBody(), Customer.class).getEmail();
+                return apiClient.getAsync(baseUrl + "/api/customers/email/" + email).handle((json, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        if (cause instanceof HttpStatusException && ((HttpStatusException) cause).getCode() == 404) {
+                            return null;
+                        }
+                        throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+                    }
+                    Customer customer = gson.fromJson(json, Customer.class);
+                    if (customer == null) {
+                        return null;
+                    }
+                    onCustomerCreated(customer);
+                    return customer.getId();
+                });
+            }
+            default: {
+                Booking wanted = gson.fromJson(mutation.getBody(), Booking.class);
+                Type listType = new TypeToken<List<Booking>>(){}.getType();
+                return apiClient.getAsync(baseUrl + "/api/bookings/car/" + wanted.getCarId()).thenApply(json -> {
+                    for (Booking booking : this.<Booking>parseList(json, listType)) {
+                        if (booking.getStatus() != BookingStatus.CANCELLED
+                                && Objects.equals(wanted.getCustomerId(), booking.getCustomerId())
+                                && Objects.equals(wanted.getPickupDate(), booking.getPickupDate())
+                                && Objects.equals(wanted.getReturnDate(), booking.getReturnDate())) {
+                            onBookingCreated(booking);
+                            return booking.getId();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private String changed(PendingMutation mutation, int statusCode) {
+        // A delete that finds nothing has nothing left to do
+        boolean gone = mutation.getAction() == PendingMutation.Action.DELETE && statusCode == 404;
+        if ((statusCode < 200 || statusCode >= 300) && !gone) {
+            throw new CompletionException(new HttpStatusException(statusCode, mutation + " was not accepted"));
+        }
+        String id = mutation.getEntityId();
+        switch (mutation.getEntity()) {
+            case CAR:
+                onCarChanged(id);
+                break;
+            case CUSTOMER:
+                onCustomerChanged(id);
+                break;
+            default:
+                if (mutation.getAction() == PendingMutation.Action.DELETE) {
+                    onBookingDeleted(id);
+                } else {
+                    onBookingChanged(id);
+                }
+                break;
+        }
+        return null;
+    }
+
+    // Cache management
+    public Map<String, CacheStats> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("cars", carCache.stats());
+        stats.put("customers", customerCache.stats());
+        stats.put("bookings", bookingCache.stats());
+        stats.put("collections", collectionCache.stats());
+        return stats;
+    }
+
+    public HttpMetrics getHttpMetrics() {
+        return apiClient.getMetrics();
+    }
+
+    public void clearCaches() {
+        carCache.clear();
+        customerCache.clear();
+        bookingCache.clear();
+        collectionCache.clear();
+        bookingSync.reset();
+    }
+
+    private void onCarCreated(Car created) {
+        if (created != null) {
+            carCache.put(created.getId(), created);
+        }
+        invalidateCollections("/api/cars");
+    }
+
+    private void onCarChanged(String id) {
+        carCache.invalidate(id);
+        invalidateCollections("/api/cars");
+        invalidateCollections("/api/bookings"); // bookings embed car info
+    }
+
+    private void onCustomerCreated(Customer created) {
+        if (created != null) {
+            customerCache.put(created.getId(), created);
+        }
+        invalidateCollections("/api/customers");
+    }
+
+    private void onCustomerChanged(String id) {
+        customerCache.invalidate(id);
+        invalidateCollections("/api/customers");
+        invalidateCollections("/api/bookings"); // bookings embed the customer name
+    }
+
+    private void onBookingCreated(Booking created) {
+        if (created != null) {
+            bookingCache.put(created.getId(), created);
+        }
+        invalidateBookingCollections();
+    }
+
+    private void onBookingChanged(String id) {
+        bookingCache.invalidate(id);
+        invalidateBookingCollections();
+    }
+
+    private void onBookingDeleted(String id) {
+        onBookingChanged(id);
+        bookingSync.removed(id);
+    }
+
+    private void invalidateBookingCollections() {
+        invalidateCollections("/api/bookings");
+        invalidateCollections("/api/cars"); // availability flags follow bookings
+    }
+
+    private void invalidateCollections(String pathPrefix) {
+        String prefix = baseUrl + pathPrefix;
+        collectionCache.invalidateIf(url -> url.startsWith(prefix));
+        // Reads already on the wire may predate the write; later callers must not join them
+        inFlightReads.forgetIf(key -> key.startsWith("GET " + prefix));
+    }
+
+    /**
+     * Runs a GET through {@link #inFlightReads}, so concurrent calls for the same
+     * URL share one request and its parsed result.
+     */
+    private <T> T coalesced(String url, SingleFlight.Loader<T> loader) throws IOException {
+        return inFlightReads.execute("GET " + url, loader);
+    }
+
+    private <T> CompletableFuture<T> coalescedAsync(String url, Supplier<CompletableFuture<T>> loader) {
+        return inFlightReads.executeAsync("GET " + url, loader);
+    }
+
+    /**
+     * Applies {@code mapper} to the result of {@code source}, propagating cancellation
+     * of the returned future back to {@code source} so the HTTP call is aborted.
+     */
+    private static <T, R> CompletableFuture<R> map(CompletableFuture<T> source, Function<? super T, ? extends R> mapper) {
+        CompletableFuture<R> mapped = source.thenApply(mapper);
+        mapped.whenComplete((result, error) -> {
+            if (error != null) {
+                source.cancel(true);
+            }
+        });
+        return mapped;
+    }
+
+    private <T> List<T> parseList(String json, Type listType) {
+        List<T> items = gson.fromJson(json, listType);
+        return items != null ? items : new ArrayList<>();
+    }
+
+    private static <T> List<T> cacheAll(List<T> items, LruCache<String, T> entityCache, Function<T, String> idOf) {
+        if (entityCache == null) {
+            return items;
+        }
+        for (T item : items) {
+            entityCache.put(idOf.apply(item), item);
+        }
+        return items;
+    }
+
+    /**
+     * Adds a fields parameter to a list path. The server leaves out the other
+     * fields, and a server that ignores the parameter still answers correctly.
+     */
+    private static String projected(String path, Collection<String> fields) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        names.addAll(fields);
+        return path + "?fields=" + String.join(",", names);
+    }
+
+    private <T> List<T> getList(String path, Type listType, LruCache<String, T> entityCache,
+                                Function<T, String> idOf) throws IOException {
+        return getList(path, listType, entityCache, idOf, null);
+    }
+
+    private <T> List<T> getList(String path, Type listType, LruCache<String, T> entityCache,
+                                Function<T, String> idOf, List<T> current) throws IOException {
+        String url = baseUrl + path;
+        return coalesced(url, () -> fetchList(url, listType, entityCache, idOf, current));
+    }
+
+    /**
+     * Downloads a list, or on a 304 returns the cached items or, for a list too
+     * long to keep, {@code current} if it has as many items as the list had. With
+     * neither, the list is requested again without validators.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> fetchList(String url, Type listType, LruCache<String, T> entityCache,
+                                  Function<T, String> idOf, List<T> current) throws IOException {
+        CachedCollection<T> cached = (CachedCollection<T>) collectionCache.get(url);
+        List<T> unchanged = cached == null ? null : cached.items != null ? cached.items
+                : current != null && current.size() == cached.count ? current : null;
+        String etag = unchanged != null ? cached.etag : null;
+        String lastModified = unchanged != null ? cached.lastModified : null;
+
+        try (ConditionalResponse response = apiClient.openConditional(url, etag, lastModified)) {
+            if (response.isNotModified() && unchanged != null) {
+                return unchanged;
+            }
+            List<T> parsed = gson.fromJson(response.getReader(), listType);
+            List<T> items = parsed != null ? Collections.unmodifiableList(parsed) : Collections.emptyList();
+            cacheAll(items, entityCache, idOf);
+            if (response.hasValidators()) {
+                collectionCache.put(url, new CachedCollection<>(items.size() <= COLLECTION_CACHE_MAX_ITEMS ? items : null,
+                        items.size(), response.getEtag(), response.getLastModified()));
+            }
+            return items;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CloseableIterator<T> streamList(String path, Class<T> type, LruCache<String, T> entityCache,
+                                                Function<T, String> idOf) throws IOException {
+        String url = baseUrl + path;
+        CachedCollection<T> cached = (CachedCollection<T>) collectionCache.get(url);
+        // Validators of a list whose items were not kept are no use to a stream
+        boolean revalidate = cached != null && cached.items != null;
+        ConditionalResponse response = apiClient.openConditional(url, revalidate ? cached.etag : null,
+                revalidate ? cached.lastModified : null);
+        if (response.isNotModified() && revalidate) {
+            response.close();
+            return CloseableIterator.of(cached.items);
+        }
+        JsonArrayIterator<T> elements = new JsonArrayIterator<>(response.getReader(), gson, type);
+        return new CachingIterator<>(elements, url, response, entityCache, idOf);
+    }
+
+    /**
+     * Streams a list once, straight through: no validators are sent and nothing
+     * read is kept in either cache, so memory stays flat however long the list
+     * is. For exports, which read everything exactly once.
+     */
+    <T> CloseableIterator<T> streamUncached(String path, Collection<String> fields, Class<T> type) throws IOException {
+        ConditionalResponse response = apiClient.openConditional(baseUrl + projected(path, fields), null, null);
+        return new JsonArrayIterator<>(response.getReader(), gson, type);
+    }
+
+    /**
+     * A list response's validators and item count, and its items unless there
+     * were more than {@link #COLLECTION_CACHE_MAX_ITEMS}.
+     */
+    private static final class CachedCollection<T> {
+        final List<T> items;
+        final int count;
+        final String etag;
+        final String lastModified;
+
+        CachedCollection(List<T> items, int count, String etag, String lastModified) {
+            this.items = items;
+            this.count = count;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Passes streamed elements through to the caller while recording them in the
+     * entity cache and, when the server sent validators, in the collection cache
+     * once the stream has been read to the end. Only lists of up to
+     * {@link #COLLECTION_CACHE_MAX_ITEMS} are copied for the collection cache;
+     * past that the copy is dropped, so a long stream still runs in memory that
+     * does not grow with its length, and only the validators and count are kept.
+     */
+    private final class CachingIterator<T> implements CloseableIterator<T> {
+        private final JsonArrayIterator<T> delegate;
+        private final String url;
+        private final ConditionalResponse response;
+        private final LruCache<String, T> entityCache;
+        private final Function<T, String> idOf;
+        private List<T> collected;
+        private int count;
+
+        CachingIterator(JsonArrayIterator<T> delegate, String url, ConditionalResponse response,
+                        LruCache<String, T> entityCache, Function<T, String> idOf) {
+            this.delegate = delegate;
+            this.url = url;
+            this.response = response;
+            this.entityCache = entityCache;
+            this.idOf = idOf;
+            this.collected = response.hasValidators() ? new ArrayList<>() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = delegate.hasNext();
+            if (!hasNext && response.hasValidators()) {
+                collectionCache.put(url, new CachedCollection<>(
+                        collected != null ? Collections.unmodifiableList(collected) : null, count,
+                        response.getEtag(), response.getLastModified()));
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            T item = delegate.next();
+            if (entityCache != null) {
+                entityCache.put(idOf.apply(item), item);
+            }
+            count++;
+            if (collected != null) {
+                if (collected.size() < COLLECTION_CACHE_MAX_ITEMS) {
+                    collected.add(item);
+                } else {
+                    collected = null;
+                }
+            }
+            return item;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
 }
@@ -0,0 +1,303 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Car;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Searchable view of the loaded cars, answering {@link CarQuery} locally instead
+ * of posting to /api/cars/search.
+ *
+ * Every car gets a slot number; each criterion resolves to a bit set of slots
+ * and a query is the intersection of those sets. Text fields (make, model,
+ * color, fuel type, transmission) have inverted indexes from lower-cased value
+ * to slots. Daily rate, year and seats keep their values in sorted maps, which
+ * answer range criteria and also give results ordered by those fields without
+ * a comparison sort.
+ */
+public class CarSearchIndex {
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private Entry[] entries = new Entry[64];
+    private int slotCount;
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+
+    private final TermIndex makes = new TermIndex();
+    private final TermIndex models = new TermIndex();
+    private final TermIndex colors = new TermIndex();
+    private final TermIndex fuelTypes = new TermIndex();
+    private final TermIndex transmissions = new TermIndex();
+    private final RangeIndex<BigDecimal> dailyRates = new RangeIndex<>();
+    private final RangeIndex<Integer> years = new RangeIndex<>();
+    private final RangeIndex<Integer> seats = new RangeIndex<>();
+    // In the order of Entry.terms
+    private final TermIndex[] termIndexes = {makes, models, colors, fuelTypes, transmissions};
+
+    public synchronized void clear() {
+        slotById.clear();
+        freeSlots.clear();
+        entries = new Entry[64];
+        slotCount = 0;
+        live.clear();
+        available.clear();
+        for (TermIndex index : termIndexes) {
+            index.postings.clear();
+        }
+        dailyRates.postings.clear();
+        years.postings.clear();
+        seats.postings.clear();
+    }
+
+    /**
+     * Replaces the whole index with {@code cars}.
+     */
+    public synchronized void rebuild(Collection<Car> cars) {
+        clear();
+        addAll(cars);
+    }
+
+    public synchronized void addAll(Collection<Car> cars) {
+        for (Car car : cars) {
+            put(car);
+        }
+    }
+
+    /**
+     * Indexes a created or updated car, replacing any earlier version with the same id.
+     */
+    public synchronized void put(Car car) {
+        if (car == null || car.getId() == null) {
+            return;
+        }
+        remove(car.getId());
+        int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        if (slot >= entries.length) {
+            Entry[] grown = new Entry[entries.length * 2];
+            System.arraycopy(entries, 0, grown, 0, entries.length);
+            entries = grown;
+        }
+        Entry entry = new Entry(car);
+        entries[slot] = entry;
+        slotById.put(car.getId(), slot);
+        live.set(slot);
+        if (car.isAvailable()) {
+            available.set(slot);
+        }
+        for (int i = 0; i < entry.terms.length; i++) {
+            termIndexes[i].add(entry.terms[i], slot);
+        }
+        dailyRates.add(entry.dailyRate, slot);
+        years.add(entry.year, slot);
+        seats.add(entry.seats, slot);
+    }
+
+    public synchronized void remove(String carId) {
+        Integer slot = slotById.remove(carId);
+        if (slot == null) {
+            return;
+        }
+        // Remove using the values captured at indexing time, in case the Car was mutated since
+        Entry entry = entries[slot];
+        for (int i = 0; i < entry.terms.length; i++) {
+            termIndexes[i].remove(entry.terms[i], slot);
+        }
+        dailyRates.remove(entry.dailyRate, slot);
+        years.remove(entry.year, slot);
+        seats.remove(entry.seats, slot);
+        live.clear(slot);
+        available.clear(slot);
+        entries[slot] = null;
+        freeSlots.push(slot);
+    }
+
+    public synchronized int size() {
+        return slotById.size();
+    }
+
+    public synchronized List<Car> search(CarQuery query) {
+        BitSet matches = (BitSet) live.clone();
+        and(matches, makes, query.getMake());
+        and(matches, models, query.getModel());
+        and(matches, colors, query.getColor());
+        and(matches, fuelTypes, query.getFuelType());
+        and(matches, transmissions, query.getTransmission());
+        if (query.getMinDailyRate() != null || query.getMaxDailyRate() != null) {
+            matches.and(dailyRates.range(query.getMinDailyRate(), query.getMaxDailyRate()));
+        }
+        if (query.getMinYear() != null || query.getMaxYear() != null) {
+            matches.and(years.range(query.getMinYear(), query.getMaxYear()));
+        }
+        if (query.getMinSeats() != null || query.getMaxSeats() != null) {
+            matches.and(seats.range(query.getMinSeats(), query.getMaxSeats()));
+        }
+        if (query.getAvailable() != null) {
+            if (query.getAvailable()) {
+                matches.and(available);
+            } else {
+                matches.andNot(available);
+            }
+        }
+
+        int limit = query.getLimit();
+        switch (query.getSortKey()) {
+            case DAILY_RATE:
+                return dailyRates.collectOrdered(matches, query.isDescending(), limit);
+            case YEAR:
+                return years.collectOrdered(matches, query.isDescending(), limit);
+            case SEATS:
+                return seats.collectOrdered(matches, query.isDescending(), limit);
+            case MAKE:
+                return sorted(matches, Car::getMake, query.isDescending(), limit);
+            case MODEL:
+                return sorted(matches, Car::getModel, query.isDescending(), limit);
+            default:
+                List<Car> result = new ArrayList<>(Math.min(matches.cardinality(), limit));
+                for (int slot = matches.nextSetBit(0); slot >= 0 && result.size() < limit; slot = matches.nextSetBit(slot + 1)) {
+                    result.add(entries[slot].car);
+                }
+                return result;
+        }
+    }
+
+    private static void and(BitSet matches, TermIndex index, String value) {
+        if (value != null) {
+            BitSet slots = index.postings.get(value);
+            if (slots != null) {
+                matches.and(slots);
+            } else {
+                matches.clear();
+            }
+        }
+    }
+
+    private List<Car> sorted(BitSet matches, Function<Car, String> key, boolean descending, int limit) {
+        List<Car> result = new ArrayList<>(matches.cardinality());
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            result.add(entries[slot].car);
+        }
+        Comparator<Car> order = Comparator.comparing(key, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        result.sort(descending ? order.reversed() : order);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Field values of an indexed car as they were when it was indexed.
+     */
+    private static final class Entry {
+        final Car car;
+        final String[] terms;
+        final BigDecimal dailyRate;
+        final Integer year;
+        final Integer seats;
+
+        Entry(Car car) {
+            this.car = car;
+            this.terms = new String[] {
+                CarQuery.normalize(car.getMake()),
+                CarQuery.normalize(car.getModel()),
+                CarQuery.normalize(car.getColor()),
+                CarQuery.normalize(car.getFuelType()),
+                CarQuery.normalize(car.getTransmission())
+            };
+            this.dailyRate = car.getDailyRate();
+            this.year = car.getYear();
+            this.seats = car.getSeats();
+        }
+    }
+
+    private static final class TermIndex {
+        final Map<String, BitSet> postings = new HashMap<>();
+
+        void add(String term, int slot) {
+            if (term != null) {
+                postings.computeIfAbsent(term, t -> new BitSet()).set(slot);
+            }
+        }
+
+        void remove(String term, int slot) {
+            BitSet slots = term != null ? postings.get(term) : null;
+            if (slots != null) {
+                slots.clear(slot);
+                if (slots.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private final class RangeIndex<K extends Comparable<K>> {
+        final TreeMap<K, BitSet> postings = new TreeMap<>();
+
+        void add(K value, int slot) {
+            if (value != null) {
+                postings.computeIfAbsent(value, v -> new BitSet()).set(slot);
+            }
+        }
+
+        void remove(K value, int slot) {
+            BitSet slots = value != null ? postings.get(value) : null;
+            if (slots != null) {
+                slots.clear(slot);
+                if (slots.isEmpty()) {
+                    postings.remove(value);
+                }
+            }
+        }
+
+        /** Slots with a value in [min, max]; either bound may be null. Empty when min > max. */
+        BitSet range(K min, K max) {
+            if (min != null && max != null && min.compareTo(max) > 0) {
+                return new BitSet();
+            }
+            NavigableMap<K, BitSet> selected = postings;
+            if (min != null) {
+                selected = selected.tailMap(min, true);
+            }
+            if (max != null) {
+                selected = selected.headMap(max, true);
+            }
+            BitSet union = new BitSet();
+            for (BitSet slots : selected.values()) {
+                union.or(slots);
+            }
+            return union;
+        }
+
+        /**
+         * Walks the values in order and picks the matching slots under each, so the
+         * result comes out sorted. Cars without a value come last.
+         */
+        List<Car> collectOrdered(BitSet matches, boolean descending, int limit) {
+            List<Car> result = new ArrayList<>(Math.min(matches.cardinality(), limit));
+            BitSet remaining = (BitSet) matches.clone();
+            for (BitSet slots : (descending ? postings.descendingMap() : postings).values()) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                BitSet hits = (BitSet) slots.clone();
+                hits.and(remaining);
+                for (int slot = hits.nextSetBit(0); slot >= 0 && result.size() < limit; slot = hits.nextSetBit(slot + 1)) {
+                    result.add(entries[slot].car);
+                }
+                remaining.andNot(hits);
+            }
+            for (int slot = remaining.nextSetBit(0); slot >= 0 && result.size() < limit; slot = remaining.nextSetBit(slot + 1)) {
+                result.add(entries[slot].car);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Address;
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.utils.CloseableIterator;
+import com.carrental.frontend.utils.CsvWriter;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Exports cars, customers or bookings to CSV, streaming records from the
+ * response straight to disk. Only the record being written is held; the HTTP
+ * body and the file are read and written through fixed-size buffers, so an
+ * export of any length runs in constant memory. Only the exported columns are
+ * requested from the server.
+ *
+ * The header row uses the JSON property names, dotted for nested objects, the
+ * same format {@link BulkImporter} reads, so exported cars and customers can be
+ * imported again. The file is written next to the target and moved into place
+ * when complete, so a failed or cancelled export leaves no partial file.
+ */
+public class CsvExporter {
+    private static final int PROGRESS_INTERVAL = 10_000;
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private static final List<Column<Car>> CAR_COLUMNS = Arrays.asList(
+            new Column<>("id", Car::getId),
+            new Column<>("make", Car::getMake),
+            new Column<>("model", Car::getModel),
+            new Column<>("year", car -> String.valueOf(car.getYear())),
+            new Column<>("color", Car::getColor),
+            new Column<>("licensePlate", Car::getLicensePlate),
+            new Column<>("dailyRate", car -> plain(car.getDailyRate())),
+            new Column<>("isAvailable", car -> String.valueOf(car.isAvailable())),
+            new Column<>("fuelType", Car::getFuelType),
+            new Column<>("transmission", Car::getTransmission),
+            new Column<>("seats", car -> String.valueOf(car.getSeats())),
+            new Column<>("imageUrl", Car::getImageUrl),
+            new Column<>("description", Car::getDescription));
+
+    private static final List<Column<Customer>> CUSTOMER_COLUMNS = Arrays.asList(
+            new Column<>("id", Customer::getId),
+            new Column<>("firstName", Customer::getFirstName),
+            new Column<>("lastName", Customer::getLastName),
+            new Column<>("email", Customer::getEmail),
+            new Column<>("phone", Customer::getPhone),
+            new Column<>("address.street", customer -> address(customer, Address::getStreet)),
+            new Column<>("address.city", customer -> address(customer, Address::getCity)),
+            new Column<>("address.state", customer -> address(customer, Address::getState)),
+            new Column<>("address.zipCode", customer -> address(customer, Address::getZipCode)),
+            new Column<>("address.country", customer -> address(customer, Address::getCountry)),
+            new Column<>("dateOfBirth", customer -> text(customer.getDateOfBirth())),
+            new Column<>("driversLicense", Customer::getDriversLicense),
+            new Column<>("createdAt", customer -> text(customer.getCreatedAt())));
+
+    private static final List<Column<Booking>> BOOKING_COLUMNS = Arrays.asList(
+            new Column<>("id", Booking::getId),
+            new Column<>("status", booking -> text(booking.getStatus())),
+            new Column<>("customerId", Booking::getCustomerId),
+            new Column<>("customerName", Booking::getCustomerName),
+            new Column<>("carId", Booking::getCarId),
+            new Column<>("carInfo", Booking::getCarInfo),
+            new Column<>("pickupDate", booking -> text(booking.getPickupDate())),
+            new Column<>("returnDate", booking -> text(booking.getReturnDate())),
+            new Column<>("totalDays", booking -> String.valueOf(booking.getTotalDays())),
+            new Column<>("dailyRate", booking -> plain(booking.getDailyRate())),
+            new Column<>("totalAmount", booking -> plain(booking.getTotalAmount())),
+            new Column<>("pickupLocation", Booking::getPickupLocation),
+            new Column<>("returnLocation", Booking::getReturnLocation),
+            new Column<>("createdAt", booking -> text(booking.getCreatedAt())),
+            new Column<>("updatedAt", booking -> text(booking.getUpdatedAt())),
+            new Column<>("notes", Booking::getNotes));
+
+    /**
+     * Receives progress from the exporting thread; implementations hand off to
+     * the EDT themselves if they touch Swing.
+     */
+    public interface ProgressListener {
+        void onProgress(long read, long written, double rowsPerSecond);
+    }
+
+    private final CarRentalService service;
+
+    public CsvExporter(CarRentalService service) {
+        this.service = service;
+    }
+
+    public ExportResult exportCars(File file, ProgressListener listener) throws IOException {
+        return export(file, "/api/cars", Car.class, CAR_COLUMNS, car -> true, listener);
+    }
+
+    public ExportResult exportCustomers(File file, ProgressListener listener) throws IOException {
+        return export(file, "/api/customers", Customer.class, CUSTOMER_COLUMNS, customer -> true, listener);
+    }
+
+    /**
+     * Exports the bookings picked up from {@code from} to {@code to} inclusive
+     * with one of {@code statuses}. A null bound leaves that end of the range
+     * open, and null or empty statuses match every status.
+     */
+    public ExportResult exportBookings(File file, LocalDate from, LocalDate to, Set<BookingStatus> statuses,
+                                       ProgressListener listener) throws IOException {
+        Set<BookingStatus> wanted = statuses == null || statuses.isEmpty() ? null : statuses;
+        Predicate<Booking> filter = booking -> {
+            LocalDate pickup = booking.getPickupDate();
+            if ((from != null || to != null) && pickup == null) {
+                return false;
+            }
+            return (from == null || !pickup.isBefore(from))
+                    && (to == null || !pickup.isAfter(to))
+                    && (wanted == null || wanted.contains(booking.getStatus()));
+        };
+        return export(file, "/api/bookings", Booking.class, BOOKING_COLUMNS, filter, listener);
+    }
+
+    private <T> ExportResult export(File file, String path, Class<T> type, List<Column<T>> columns,
+                                    Predicate<T> filter, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        List<String> names = new ArrayList<>(columns.size());
+        for (Column<T> column : columns) {
+            names.add(column.name);
+        }
+        long read = 0;
+        long written = 0;
+
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        boolean complete = false;
+        try (CloseableIterator<T> records = service.streamUncached(path, names, type);
+             CsvWriter csv = new CsvWriter(new BufferedWriter(
+                     new OutputStreamWriter(Files.newOutputStream(temp), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS))) {
+            csv.writeRecord(names);
+            List<String> row = new ArrayList<>(Collections.nCopies(columns.size(), (String) null));
+            while (records.hasNext()) {
+                T record = records.next();
+                read++;
+                if (filter.test(record)) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        row.set(i, columns.get(i).value.apply(record));
+                    }
+                    csv.writeRecord(row);
+                    written++;
+                }
+                if (read % PROGRESS_INTERVAL == 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Export cancelled after " + read + " records");
+                    }
+                    if (listener != null) {
+                        listener.onProgress(read, written, rate(written, start));
+                    }
+                }
+            }
+            complete = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (JsonParseException e) {
+            throw new IOException("Unreadable response after " + read + " records", e);
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        ExportResult result = new ExportResult(file, read, written, (System.nanoTime() - start) / 1_000_000);
+        if (listener != null) {
+            listener.onProgress(read, written, result.getRowsPerSecond());
+        }
+        return result;
+    }
+
+    private static double rate(long count, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed > 0 ? count * 1_000_000_000.0 / elapsed : 0;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : null;
+    }
+
+    private static String address(Customer customer, Function<Address, String> part) {
+        return customer.getAddress() != null ? part.apply(customer.getAddress()) : null;
+    }
+
+    private static final class Column<T> {
+        final String name;
+        final Function<T, String> value;
+
+        Column(String name, Function<T, String> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
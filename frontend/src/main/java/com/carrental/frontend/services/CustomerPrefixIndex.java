@@ -0,0 +1,194 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Customer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix search over customers' first name, last name, email, phone and
+ * driver's license, for type-ahead lookups.
+ *
+ * Every field value is a key in one sorted array, so the keys starting with a
+ * prefix form a contiguous run found by binary search; a lookup costs a binary
+ * search plus one step per returned match. Phone numbers are indexed by their
+ * digits only, so "555 01" finds "555-0101". Instances are immutable and safe to
+ * search from any thread; rebuild with {@link #build} when the customers change.
+ */
+public final class CustomerPrefixIndex {
+    // Bounds the work for multi-word queries whose first word matches many customers
+    private static final int MAX_SCANNED_KEYS = 20_000;
+    private static final CustomerPrefixIndex EMPTY = new CustomerPrefixIndex(new Customer[0], new String[0], new int[0]);
+
+    private final Customer[] customers;
+    private final String[] keys;
+    private final int[] owners;
+
+    private CustomerPrefixIndex(Customer[] customers, String[] keys, int[] owners) {
+        this.customers = customers;
+        this.keys = keys;
+        this.owners = owners;
+    }
+
+    public static CustomerPrefixIndex empty() {
+        return EMPTY;
+    }
+
+    public static CustomerPrefixIndex build(Collection<Customer> source) {
+        Customer[] customers = source.toArray(new Customer[0]);
+        List<Key> all = new ArrayList<>(customers.length * 5);
+        for (int i = 0; i < customers.length; i++) {
+            for (String key : keysOf(customers[i])) {
+                all.add(new Key(key, i));
+            }
+        }
+        Key[] sorted = all.toArray(new Key[0]);
+        Arrays.sort(sorted, (a, b) -> a.key.compareTo(b.key));
+
+        String[] keys = new String[sorted.length];
+        int[] owners = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].key;
+            owners[i] = sorted[i].owner;
+        }
+        return new CustomerPrefixIndex(customers, keys, owners);
+    }
+
+    public int size() {
+        return customers.length;
+    }
+
+    /**
+     * Returns up to {@code limit} customers matching every word of {@code text},
+     * each word as a prefix of one of the indexed fields, ordered by the key the
+     * first word matched.
+     */
+    public List<Customer> search(String text, int limit) {
+        List<String> words = words(text);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String first = words.get(0);
+        List<Customer> result = new ArrayList<>(Math.min(limit, 64));
+        BitSet seen = new BitSet(customers.length);
+        int start = lowerBound(first);
+        int end = Math.min(keys.length, start + MAX_SCANNED_KEYS);
+        for (int i = start; i < end && keys[i].startsWith(first); i++) {
+            int owner = owners[i];
+            if (seen.get(owner)) {
+                continue;
+            }
+            seen.set(owner);
+            if (words.size() == 1 || matchesAll(customers[owner], words)) {
+                result.add(customers[owner]);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean matchesAll(Customer customer, List<String> words) {
+        List<String> customerKeys = keysOf(customer);
+        for (int w = 1; w < words.size(); w++) {
+            boolean found = false;
+            for (String key : customerKeys) {
+                if (key.startsWith(words.get(w))) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> keysOf(Customer customer) {
+        List<String> keys = new ArrayList<>(5);
+        addKey(keys, normalize(customer.getFirstName()));
+        addKey(keys, normalize(customer.getLastName()));
+        addKey(keys, normalize(customer.getEmail()));
+        addKey(keys, digits(customer.getPhone()));
+        addKey(keys, normalize(customer.getDriversLicense()));
+        return keys;
+    }
+
+    private static void addKey(List<String> keys, String key) {
+        if (key != null && !key.isEmpty()) {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * Splits a query into normalized words. Runs of digits separated only by
+     * spaces or punctuation are joined, since that is how phone numbers are typed.
+     */
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String trimmed = text.trim();
+        if (trimmed.matches(".*[0-9].*") && trimmed.matches("[0-9()+.\\-\\s]+")) {
+            words.add(digits(trimmed));
+            return words;
+        }
+        for (String word : trimmed.split("\\s+")) {
+            String normalized = normalize(word);
+            if (normalized != null && !normalized.isEmpty()) {
+                words.add(normalized);
+            }
+        }
+        return words;
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static final class Key {
+        final String key;
+        final int owner;
+
+        Key(String key, int owner) {
+            this.key = key;
+            this.owner = owner;
+        }
+    }
+}
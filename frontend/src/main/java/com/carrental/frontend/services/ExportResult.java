@@ -0,0 +1,36 @@
+package com.carrental.frontend.services;
+
+import java.io.File;
+
+/**
+ * Outcome of a CSV export: how many records the server sent, how many of them
+ * passed the filters and were written, and how fast.
+ */
+public class ExportResult {
+    private final File file;
+    private final long readCount;
+    private final long writtenCount;
+    private final long elapsedMillis;
+
+    public ExportResult(File file, long readCount, long writtenCount, long elapsedMillis) {
+        this.file = file;
+        this.readCount = readCount;
+        this.writtenCount = writtenCount;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public File getFile() { return file; }
+    public long getReadCount() { return readCount; }
+    public long getWrittenCount() { return writtenCount; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? writtenCount * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Exported %d of %d records to %s in %.1f s, %.0f rows/sec",
+                writtenCount, readCount, file.getName(), elapsedMillis / 1000.0, getRowsPerSecond());
+    }
+}
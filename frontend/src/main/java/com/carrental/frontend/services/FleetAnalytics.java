@@ -0,0 +1,259 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Computes a {@link FleetReport} from loaded cars and bookings. Needs only the
+ * booking fields the bookings table already loads: carId, pickupDate,
+ * returnDate, totalAmount, status and pickupLocation.
+ *
+ * Bookings are bucketed by car, then each car's booked days are marked in a
+ * bitset over the period, with days half-open [pickupDate, returnDate) as in
+ * {@link BookingIntervalIndex}, so overlapping bookings of one car are not
+ * counted twice. Cars are processed in parallel on the common fork-join pool,
+ * each worker summing its own revenue-by-day and per-location totals, which are
+ * merged at the end. Cancelled bookings are left out.
+ */
+public final class FleetAnalytics {
+    private static final String NO_LOCATION = "(none)";
+
+    private final List<Car> cars;
+    private final List<Booking> bookings;
+    private final long firstDay;
+    private final int days;
+    // Bookings counted, as indexes into bookings grouped by car: car c's are order[offsets[c]..offsets[c + 1])
+    private int[] order;
+    private int[] offsets;
+    // Written by one worker per car, so no synchronization is needed
+    private final long[] carBookedDays;
+    private final double[] carRevenue;
+    private final int[] carBookings;
+
+    private FleetAnalytics(List<Car> cars, List<Booking> bookings, LocalDate from, LocalDate to) {
+        this.cars = cars;
+        this.bookings = bookings;
+        this.firstDay = from.toEpochDay();
+        this.days = (int) Math.max(0, to.toEpochDay() - firstDay);
+        this.carBookedDays = new long[cars.size()];
+        this.carRevenue = new double[cars.size()];
+        this.carBookings = new int[cars.size()];
+    }
+
+    /**
+     * Reports on the days from {@code from} up to but not including {@code to}.
+     */
+    public static FleetReport compute(List<Car> cars, List<Booking> bookings, LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        FleetAnalytics analytics = new FleetAnalytics(cars, bookings, from, to);
+        analytics.bucketByCar();
+        Totals totals = IntStream.range(0, cars.size()).parallel()
+                .collect(analytics::newTotals, Totals::addCar, Totals::merge);
+        return analytics.report(totals, from, to, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * A counting sort of the bookings that fall in the period by car index.
+     */
+    private void bucketByCar() {
+        Map<String, Integer> carIndex = new HashMap<>(cars.size() * 2);
+        for (int i = 0; i < cars.size(); i++) {
+            carIndex.put(cars.get(i).getId(), i);
+        }
+        int[] carOf = new int[bookings.size()];
+        IntStream.range(0, bookings.size()).parallel().forEach(i -> carOf[i] = carOf(bookings.get(i), carIndex));
+
+        offsets = new int[cars.size() + 1];
+        for (int car : carOf) {
+            if (car >= 0) {
+                offsets[car + 1]++;
+            }
+        }
+        for (int i = 0; i < cars.size(); i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        order = new int[offsets[cars.size()]];
+        int[] next = Arrays.copyOf(offsets, cars.size());
+        for (int i = 0; i < carOf.length; i++) {
+            if (carOf[i] >= 0) {
+                order[next[carOf[i]]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Index of the booking's car, or -1 if the booking does not count: cancelled,
+     * for a car not loaded, without valid dates, or outside the period.
+     */
+    private int carOf(Booking booking, Map<String, Integer> carIndex) {
+        if (booking.getStatus() == BookingStatus.CANCELLED || booking.getPickupDate() == null
+                || booking.getReturnDate() == null) {
+            return -1;
+        }
+        long pickup = booking.getPickupDate().toEpochDay();
+        long returned = booking.getReturnDate().toEpochDay();
+        if (returned <= pickup || returned <= firstDay || pickup >= firstDay + days) {
+            return -1;
+        }
+        Integer car = carIndex.get(booking.getCarId());
+        return car != null ? car : -1;
+    }
+
+    private Totals newTotals() {
+        return new Totals();
+    }
+
+    private FleetReport report(Totals totals, LocalDate from, LocalDate to, long elapsedMillis) {
+        List<FleetReport.Utilization> byCar = new ArrayList<>(cars.size());
+        Map<String, long[]> groupCounts = new LinkedHashMap<>();
+        Map<String, Double> groupRevenue = new HashMap<>();
+        long bookedDays = 0;
+        double revenue = 0;
+        for (int i = 0; i < cars.size(); i++) {
+            Car car = cars.get(i);
+            String label = car.getMake() + " " + car.getModel();
+            byCar.add(new FleetReport.Utilization(label + " (" + car.getLicensePlate() + ")", 1, carBookings[i],
+                    carBookedDays[i], days, carRevenue[i]));
+            long[] counts = groupCounts.computeIfAbsent(label, key -> new long[3]);
+            counts[0]++;
+            counts[1] += carBookings[i];
+            counts[2] += carBookedDays[i];
+            groupRevenue.merge(label, carRevenue[i], Double::sum);
+            bookedDays += carBookedDays[i];
+            revenue += carRevenue[i];
+        }
+        List<FleetReport.Utilization> byMakeModel = new ArrayList<>(groupCounts.size());
+        for (Map.Entry<String, long[]> entry : groupCounts.entrySet()) {
+            long[] counts = entry.getValue();
+            byMakeModel.add(new FleetReport.Utilization(entry.getKey(), (int) counts[0], (int) counts[1], counts[2],
+                    counts[0] * days, groupRevenue.get(entry.getKey())));
+        }
+        Comparator<FleetReport.Utilization> mostUtilized =
+                Comparator.comparingDouble(FleetReport.Utilization::getUtilization).reversed();
+        byCar.sort(mostUtilized);
+        byMakeModel.sort(mostUtilized);
+
+        long locationDays = 0;
+        for (LocationTotals location : totals.locations.values()) {
+            locationDays += location.bookedDays;
+        }
+        List<FleetReport.Location> byLocation = new ArrayList<>(totals.locations.size());
+        for (Map.Entry<String, LocationTotals> entry : totals.locations.entrySet()) {
+            LocationTotals location = entry.getValue();
+            byLocation.add(new FleetReport.Location(entry.getKey(), location.bookings, location.bookedDays,
+                    locationDays > 0 ? (double) location.bookedDays / locationDays : 0, location.revenue));
+        }
+        byLocation.sort(Comparator.comparingLong(FleetReport.Location::getBookedDays).reversed());
+
+        List<FleetReport.Day> byDay = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            byDay.add(new FleetReport.Day(from.plusDays(d), totals.carsBooked[d],
+                    cars.isEmpty() ? 0 : (double) totals.carsBooked[d] / cars.size(), totals.revenueByDay[d]));
+        }
+        return new FleetReport(from, to, cars.size(), bookedDays, revenue, byCar, byMakeModel, byLocation, byDay,
+                elapsedMillis);
+    }
+
+    private static final class LocationTotals {
+        int bookings;
+        long bookedDays;
+        double revenue;
+    }
+
+    /**
+     * One worker's share: the day bitset it reuses for each car, and its sums
+     * by day and by location.
+     */
+    private final class Totals {
+        final long[] bits = new long[(days + 63) >>> 6];
+        final int[] carsBooked = new int[days];
+        final double[] revenueByDay = new double[days];
+        final Map<String, LocationTotals> locations = new HashMap<>();
+
+        void addCar(int car) {
+            Arrays.fill(bits, 0L);
+            double revenue = 0;
+            for (int k = offsets[car]; k < offsets[car + 1]; k++) {
+                Booking booking = bookings.get(order[k]);
+                long pickup = booking.getPickupDate().toEpochDay();
+                long returned = booking.getReturnDate().toEpochDay();
+                int start = (int) Math.max(pickup - firstDay, 0);
+                int end = (int) Math.min(returned - firstDay, days);
+                setRange(start, end);
+
+                // Accrue the amount evenly over the booking's days
+                double perDay = booking.getTotalAmount() != null
+                        ? booking.getTotalAmount().doubleValue() / (returned - pickup) : 0;
+                for (int d = start; d < end; d++) {
+                    revenueByDay[d] += perDay;
+                }
+                double inPeriod = perDay * (end - start);
+                revenue += inPeriod;
+
+                String name = booking.getPickupLocation() != null && !booking.getPickupLocation().isEmpty()
+                        ? booking.getPickupLocation() : NO_LOCATION;
+                LocationTotals location = locations.computeIfAbsent(name, key -> new LocationTotals());
+                location.bookings++;
+                location.bookedDays += end - start;
+                location.revenue += inPeriod;
+            }
+
+            long booked = 0;
+            for (int i = 0; i < bits.length; i++) {
+                long word = bits[i];
+                booked += Long.bitCount(word);
+                while (word != 0) {
+                    carsBooked[(i << 6) + Long.numberOfTrailingZeros(word)]++;
+                    word &= word - 1;
+                }
+            }
+            carBookedDays[car] = booked;
+            carRevenue[car] = revenue;
+            carBookings[car] = offsets[car + 1] - offsets[car];
+        }
+
+        /** Sets bits [start, end) a word at a time. */
+        private void setRange(int start, int end) {
+            if (start >= end) {
+                return;
+            }
+            int first = start >>> 6;
+            int last = (end - 1) >>> 6;
+            long firstMask = -1L << start;
+            long lastMask = -1L >>> -end;
+            if (first == last) {
+                bits[first] |= firstMask & lastMask;
+                return;
+            }
+            bits[first] |= firstMask;
+            for (int i = first + 1; i < last; i++) {
+                bits[i] = -1L;
+            }
+            bits[last] |= lastMask;
+        }
+
+        void merge(Totals other) {
+            for (int d = 0; d < days; d++) {
+                carsBooked[d] += other.carsBooked[d];
+                revenueByDay[d] += other.revenueByDay[d];
+            }
+            other.locations.forEach((name, theirs) -> {
+                LocationTotals ours = locations.computeIfAbsent(name, key -> new LocationTotals());
+                ours.bookings += theirs.bookings;
+                ours.bookedDays += theirs.bookedDays;
+                ours.revenue += theirs.revenue;
+            });
+        }
+    }
+}
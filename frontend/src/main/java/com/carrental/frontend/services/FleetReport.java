@@ -0,0 +1,149 @@
+package com.carrental.frontend.services;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Utilization and revenue over a period, as computed by {@link FleetAnalytics}.
+ * Utilization is the fraction of available car-days that were booked; amounts
+ * are accrued evenly over each booking's days, so a booking straddling the end
+ * of the period contributes only its days inside it.
+ */
+public class FleetReport {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int carCount;
+    private final long bookedDays;
+    private final double revenue;
+    private final List<Utilization> byCar;
+    private final List<Utilization> byMakeModel;
+    private final List<Location> byLocation;
+    private final List<Day> byDay;
+    private final long elapsedMillis;
+
+    public FleetReport(LocalDate from, LocalDate to, int carCount, long bookedDays, double revenue,
+                       List<Utilization> byCar, List<Utilization> byMakeModel, List<Location> byLocation,
+                       List<Day> byDay, long elapsedMillis) {
+        this.from = from;
+        this.to = to;
+        this.carCount = carCount;
+        this.bookedDays = bookedDays;
+        this.revenue = revenue;
+        this.byCar = Collections.unmodifiableList(byCar);
+        this.byMakeModel = Collections.unmodifiableList(byMakeModel);
+        this.byLocation = Collections.unmodifiableList(byLocation);
+        this.byDay = Collections.unmodifiableList(byDay);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /** First day of the period. */
+    public LocalDate getFrom() { return from; }
+    /** Day after the last day of the period. */
+    public LocalDate getTo() { return to; }
+    public int getCarCount() { return carCount; }
+    public long getBookedDays() { return bookedDays; }
+    public double getRevenue() { return revenue; }
+    /** Every car, most utilized first. */
+    public List<Utilization> getByCar() { return byCar; }
+    /** Cars grouped by make and model, most utilized first. */
+    public List<Utilization> getByMakeModel() { return byMakeModel; }
+    /** Pickup locations, most booked days first. */
+    public List<Location> getByLocation() { return byLocation; }
+    /** Every day of the period in order. */
+    public List<Day> getByDay() { return byDay; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int getDayCount() {
+        return byDay.size();
+    }
+
+    public double getUtilization() {
+        long available = (long) carCount * byDay.size();
+        return available > 0 ? (double) bookedDays / available : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d cars from %s to %s: %.1f%% utilized, %.2f revenue (computed in %d ms)",
+                carCount, from, to.minusDays(1), getUtilization() * 100, revenue, elapsedMillis);
+    }
+
+    /**
+     * Booked days against available days for one car or a group of cars.
+     */
+    public static class Utilization {
+        private final String name;
+        private final int carCount;
+        private final int bookingCount;
+        private final long bookedDays;
+        private final long availableDays;
+        private final double revenue;
+
+        public Utilization(String name, int carCount, int bookingCount, long bookedDays, long availableDays,
+                           double revenue) {
+            this.name = name;
+            this.carCount = carCount;
+            this.bookingCount = bookingCount;
+            this.bookedDays = bookedDays;
+            this.availableDays = availableDays;
+            this.revenue = revenue;
+        }
+
+        public String getName() { return name; }
+        public int getCarCount() { return carCount; }
+        public int getBookingCount() { return bookingCount; }
+        public long getBookedDays() { return bookedDays; }
+        public long getAvailableDays() { return availableDays; }
+        public double getRevenue() { return revenue; }
+
+        public double getUtilization() {
+            return availableDays > 0 ? (double) bookedDays / availableDays : 0;
+        }
+    }
+
+    /**
+     * Bookings picked up at one location. Cars are not tied to a location, so
+     * its share of all booked days stands in for utilization.
+     */
+    public static class Location {
+        private final String name;
+        private final int bookingCount;
+        private final long bookedDays;
+        private final double share;
+        private final double revenue;
+
+        public Location(String name, int bookingCount, long bookedDays, double share, double revenue) {
+            this.name = name;
+            this.bookingCount = bookingCount;
+            this.bookedDays = bookedDays;
+            this.share = share;
+            this.revenue = revenue;
+        }
+
+        public String getName() { return name; }
+        public int getBookingCount() { return bookingCount; }
+        public long getBookedDays() { return bookedDays; }
+        public double getShare() { return share; }
+        public double getRevenue() { return revenue; }
+    }
+
+    public static class Day {
+        private final LocalDate date;
+        private final int carsBooked;
+        private final double utilization;
+        private final double revenue;
+
+        public Day(LocalDate date, int carsBooked, double utilization, double revenue) {
+            this.date = date;
+            this.carsBooked = carsBooked;
+            this.utilization = utilization;
+            this.revenue = revenue;
+        }
+
+        public LocalDate getDate() { return date; }
+        public int getCarsBooked() { return carsBooked; }
+        public double getUtilization() { return utilization; }
+        public double getRevenue() { return revenue; }
+    }
+}
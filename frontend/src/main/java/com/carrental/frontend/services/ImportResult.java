@@ -0,0 +1,71 @@
+package com.carrental.frontend.services;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Records the server rejected are listed individually
+ * so the file can be fixed and the remainder imported again. An import that
+ * stopped early (unreadable input, cancellation) carries the reason.
+ */
+public class ImportResult {
+    private final int importedCount;
+    private final List<ImportFailure> failures;
+    private final String abortReason;
+    private final long elapsedMillis;
+
+    public ImportResult(int importedCount, List<ImportFailure> failures, String abortReason, long elapsedMillis) {
+        this.importedCount = importedCount;
+        this.failures = Collections.unmodifiableList(failures);
+        this.abortReason = abortReason;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getImportedCount() { return importedCount; }
+    public List<ImportFailure> getFailures() { return failures; }
+    public String getAbortReason() { return abortReason; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public int getProcessedCount() {
+        return importedCount + failures.size();
+    }
+
+    public boolean isComplete() {
+        return abortReason == null && failures.isEmpty();
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedMillis > 0 ? getProcessedCount() * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d of %d records (%d failed) in %.1f s, %.0f records/sec%s",
+                importedCount, getProcessedCount(), failures.size(), elapsedMillis / 1000.0, getRecordsPerSecond(),
+                abortReason != null ? "; stopped: " + abortReason : "");
+    }
+
+    /**
+     * A record that could not be imported, identified by its position in the file.
+     */
+    public static class ImportFailure {
+        private final int recordNumber;
+        private final String location;
+        private final String message;
+
+        public ImportFailure(int recordNumber, String location, String message) {
+            this.recordNumber = recordNumber;
+            this.location = location;
+            this.message = message;
+        }
+
+        public int getRecordNumber() { return recordNumber; }
+        public String getLocation() { return location; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return location + ": " + message;
+        }
+    }
+}
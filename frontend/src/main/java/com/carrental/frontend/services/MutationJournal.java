@@ -0,0 +1,377 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.utils.PrivateFiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log behind the {@link WriteBehindQueue}, so mutations accepted
+ * while the server is unreachable survive a restart.
+ *
+ * After a header with a magic number and format version, the file is a sequence
+ * of records, each a length, a CRC32 of the payload and the payload: a mutation
+ * was added, its body replaced by a coalesced update, it is done (applied,
+ * refused or dropped), or a local id now has a server id. Every append is forced
+ * to disk before returning. Replaying the records in order gives back the
+ * pending mutations; a torn record at the end, left by a crash mid-append, is
+ * cut off. Once nothing is pending, and whenever it grows large, the file is
+ * rewritten with just the pending mutations and the local-to-server id
+ * mappings, which rows and snapshots may still refer to after a restart.
+ *
+ * Mutation bodies can hold customers' personal details, so the file is
+ * created readable by its owner only.
+ *
+ * Delivery is at least once: a mutation sent just before a crash, but not yet
+ * marked done, is sent again on the next launch.
+ *
+ * One client at a time owns the journal: opening it takes an exclusive lock on a
+ * sibling ".lock" file, held until the journal is closed, so a second instance
+ * cannot append to, compact or replay the same mutations. The lock file rather
+ * than the journal is locked because compaction replaces the journal file.
+ */
+public class MutationJournal implements AutoCloseable {
+    private static final int MAGIC = 0x4352574A; // "CRWJ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final long COMPACT_THRESHOLD_BYTES = 1 << 20;
+
+    private static final byte ADDED = 1;
+    private static final byte REPLACED = 2;
+    private static final byte DONE = 3;
+    private static final byte RESOLVED = 4;
+
+    private final Path file;
+    private FileChannel lockChannel;
+    private final Map<Long, PendingMutation> recovered = new LinkedHashMap<>();
+    private final Map<String, String> resolvedIds = new HashMap<>();
+    private FileChannel channel;
+    // Size of the file as last compacted, so an idle queue does not rewrite it again
+    private long compactedSize = HEADER_SIZE;
+
+    private MutationJournal(Path file) {
+        this.file = file;
+    }
+
+    public static Path defaultLocation() {
+        return Paths.get(System.getProperty("user.home"), ".carrental", "journal.bin");
+    }
+
+    /**
+     * Opens the journal at {@code file}, creating it if needed, and replays it.
+     * Reads the whole file, so keep it off the EDT. Fails if another running
+     * client has the journal open.
+     */
+    public static MutationJournal open(Path file) throws IOException {
+        MutationJournal journal = new MutationJournal(file);
+        try {
+            journal.lock();
+            journal.recover();
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * A journal that keeps nothing on disk, for when the file cannot be opened.
+     * Pending mutations are then lost on exit.
+     */
+    public static MutationJournal inMemory() {
+        return new MutationJournal(null);
+    }
+
+    public boolean isDurable() {
+        return channel != null;
+    }
+
+    /**
+     * The mutations still pending when the journal was opened, in order, with the
+     * ids resolved since they were added already substituted.
+     */
+    Collection<PendingMutation> getRecovered() {
+        return new ArrayList<>(recovered.values());
+    }
+
+    Map<String, String> getResolvedIds() {
+        return new HashMap<>(resolvedIds);
+    }
+
+    synchronized void added(PendingMutation mutation) throws IOException {
+        append(addedRecord(mutation));
+    }
+
+    synchronized void replaced(PendingMutation mutation) throws IOException {
+        Record record = new Record(REPLACED);
+        record.out.writeLong(mutation.getSequence());
+        record.writeString(mutation.getBody());
+        append(record);
+    }
+
+    synchronized void done(long sequence) throws IOException {
+        Record record = new Record(DONE);
+        record.out.writeLong(sequence);
+        append(record);
+    }
+
+    synchronized void resolved(String localId, String serverId) throws IOException {
+        append(resolvedRecord(localId, serverId));
+    }
+
+    /**
+     * Called by the queue whenever mutations finish, with those still pending and
+     * every id resolved so far: rewrites the file with just those when nothing is
+     * pending or when it has grown large.
+     */
+    synchronized void compact(Collection<PendingMutation> pending, Map<String, String> resolvedIds) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        if (pending.isEmpty() && resolvedIds.isEmpty()) {
+            channel.truncate(HEADER_SIZE);
+            channel.force(true);
+            compactedSize = HEADER_SIZE;
+        } else if (pending.isEmpty() ? channel.size() > compactedSize : channel.size() > COMPACT_THRESHOLD_BYTES) {
+            rewrite(pending, resolvedIds);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            if (lockChannel != null) {
+                // Closing the channel releases its lock
+                lockChannel.close();
+                lockChannel = null;
+            }
+        }
+    }
+
+    private void lock() throws IOException {
+        PrivateFiles.createDirectories(file.toAbsolutePath().getParent());
+        lockChannel = PrivateFiles.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by this JVM
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("Journal " + file + " is in use by another running client");
+        }
+    }
+
+    private void recover() throws IOException {
+        channel = PrivateFiles.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            writeHeader();
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Journal " + file + " was written by an incompatible version");
+        }
+        long validEnd = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= 8) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            try {
+                replay(payload);
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IOException("Journal " + file + " is corrupt", e);
+            }
+            buffer.position(buffer.position() + length);
+            validEnd = buffer.position();
+        }
+        if (validEnd < size) {
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        channel.position(validEnd);
+    }
+
+    private void replay(ByteBuffer payload) {
+        byte type = payload.get();
+        switch (type) {
+            case ADDED: {
+                long sequence = payload.getLong();
+                PendingMutation.Entity entity = PendingMutation.Entity.values()[payload.get()];
+                PendingMutation.Action action = PendingMutation.Action.values()[payload.get()];
+                String entityId = readString(payload);
+                String body = readString(payload);
+                long createdAt = payload.getLong();
+                PendingMutation mutation = new PendingMutation(sequence, entity, action, entityId, body, createdAt);
+                for (Map.Entry<String, String> resolved : resolvedIds.entrySet()) {
+                    mutation = mutation.withResolvedId(resolved.getKey(), resolved.getValue());
+                }
+                recovered.put(sequence, mutation);
+                break;
+            }
+            case REPLACED: {
+                long sequence = payload.getLong();
+                String body = readString(payload);
+                recovered.computeIfPresent(sequence, (key, mutation) -> mutation.withBody(body));
+                break;
+            }
+            case DONE:
+                recovered.remove(payload.getLong());
+                break;
+            case RESOLVED: {
+                String localId = readString(payload);
+                String serverId = readString(payload);
+                resolvedIds.put(localId, serverId);
+                recovered.replaceAll((key, mutation) -> mutation.withResolvedId(localId, serverId));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown journal record type " + type);
+        }
+    }
+
+    private void rewrite(Collection<PendingMutation> pending, Map<String, String> resolvedIds) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        channel.close();
+        channel = PrivateFiles.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        writeHeader();
+        for (Map.Entry<String, String> resolved : resolvedIds.entrySet()) {
+            write(resolvedRecord(resolved.getKey(), resolved.getValue()));
+        }
+        for (PendingMutation mutation : pending) {
+            write(addedRecord(mutation));
+        }
+        channel.force(true);
+        channel.close();
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        compactedSize = channel.size();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION);
+        header.flip();
+        channel.truncate(0);
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    private static Record addedRecord(PendingMutation mutation) throws IOException {
+        Record record = new Record(ADDED);
+        record.out.writeLong(mutation.getSequence());
+        record.out.writeByte(mutation.getEntity().ordinal());
+        record.out.writeByte(mutation.getAction().ordinal());
+        record.writeString(mutation.getEntityId());
+        record.writeString(mutation.getBody());
+        record.out.writeLong(mutation.getCreatedAtMillis());
+        return record;
+    }
+
+    private static Record resolvedRecord(String localId, String serverId) throws IOException {
+        Record record = new Record(RESOLVED);
+        record.writeString(localId);
+        record.writeString(serverId);
+        return record;
+    }
+
+    private void append(Record record) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        write(record);
+        channel.force(false);
+    }
+
+    private void write(Record record) throws IOException {
+        byte[] payload = record.bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Record {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        Record(byte type) throws IOException {
+            out.writeByte(type);
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.carrental.frontend.services;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A write accepted locally and waiting in the {@link WriteBehindQueue} to be sent
+ * to the server.
+ *
+ * Entities created while offline have no server id yet; they get a local id
+ * (see {@link #isLocalId}) that later mutations refer to and that is swapped for
+ * the real id once the create has gone through.
+ */
+public final class PendingMutation {
+    public enum Entity {
+        CAR("/api/cars", "car"),
+        CUSTOMER("/api/customers", "customer"),
+        BOOKING("/api/bookings", "booking");
+
+        private final String path;
+        private final String label;
+
+        Entity(String path, String label) {
+            this.path = path;
+            this.label = label;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public enum Action { CREATE, UPDATE, DELETE, CANCEL }
+
+    static final String LOCAL_ID_PREFIX = "local-";
+    private static final Pattern QUOTED_LOCAL_ID = Pattern.compile("\"(" + LOCAL_ID_PREFIX + "[0-9a-f-]+)\"");
+
+    private final long sequence;
+    private final Entity entity;
+    private final Action action;
+    private final String entityId;
+    private final String body;
+    private final long createdAtMillis;
+
+    PendingMutation(long sequence, Entity entity, Action action, String entityId, String body, long createdAtMillis) {
+        this.sequence = sequence;
+        this.entity = entity;
+        this.action = action;
+        this.entityId = entityId;
+        this.body = body;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public static boolean isLocalId(String id) {
+        return id != null && id.startsWith(LOCAL_ID_PREFIX);
+    }
+
+    public long getSequence() { return sequence; }
+    public Entity getEntity() { return entity; }
+    public Action getAction() { return action; }
+    public String getEntityId() { return entityId; }
+    public String getBody() { return body; }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+
+    /**
+     * The ids that only exist locally so far that sending this mutation needs:
+     * its own entity's, unless it is the create, and for a booking its car's or
+     * customer's.
+     */
+    Set<String> getLocalIdsNeeded() {
+        Set<String> ids = new HashSet<>();
+        if (action != Action.CREATE && isLocalId(entityId)) {
+            ids.add(entityId);
+        }
+        if (body != null && body.contains("\"" + LOCAL_ID_PREFIX)) {
+            Matcher matcher = QUOTED_LOCAL_ID.matcher(body);
+            while (matcher.find()) {
+                ids.add(matcher.group(1));
+            }
+        }
+        return ids;
+    }
+
+    PendingMutation withBody(String newBody) {
+        return new PendingMutation(sequence, entity, action, entityId, newBody, createdAtMillis);
+    }
+
+    /**
+     * Returns this mutation with {@code localId} replaced by {@code serverId}
+     * wherever it appears, or this instance if it does not mention it.
+     */
+    PendingMutation withResolvedId(String localId, String serverId) {
+        boolean ownId = localId.equals(entityId);
+        String quoted = "\"" + localId + "\"";
+        boolean inBody = body != null && body.contains(quoted);
+        if (!ownId && !inBody) {
+            return this;
+        }
+        return new PendingMutation(sequence, entity, action, ownId ? serverId : entityId,
+                inBody ? body.replace(quoted, "\"" + serverId + "\"") : body, createdAtMillis);
+    }
+
+    @Override
+    public String toString() {
+        String verb = action.name().charAt(0) + action.name().substring(1).toLowerCase();
+        return verb + " " + entity.getLabel() + (action == Action.CREATE ? "" : " " + entityId);
+    }
+}
@@ -0,0 +1,31 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The cars, customers and bookings the client last had, as saved by
+ * {@link SnapshotStore}.
+ */
+public class Snapshot {
+    private final List<Car> cars;
+    private final List<Customer> customers;
+    private final List<Booking> bookings;
+    private final long savedAtMillis;
+
+    public Snapshot(List<Car> cars, List<Customer> customers, List<Booking> bookings, long savedAtMillis) {
+        this.cars = Collections.unmodifiableList(cars);
+        this.customers = Collections.unmodifiableList(customers);
+        this.bookings = Collections.unmodifiableList(bookings);
+        this.savedAtMillis = savedAtMillis;
+    }
+
+    public List<Car> getCars() { return cars; }
+    public List<Customer> getCustomers() { return customers; }
+    public List<Booking> getBookings() { return bookings; }
+    public long getSavedAtMillis() { return savedAtMillis; }
+}
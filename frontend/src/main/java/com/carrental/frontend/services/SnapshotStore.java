@@ -0,0 +1,330 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Address;
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.utils.PrivateFiles;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves the last loaded data to a local file so the next launch can show it
+ * immediately instead of waiting for the API.
+ *
+ * The file is a compact binary format read through a memory mapping: a header
+ * with a magic number and format version, a table of every distinct string
+ * (makes, cities, statuses and the like repeat heavily), then the cars,
+ * customers and bookings with strings stored as table indices and dates as
+ * epoch values. Files written with another format version are ignored, so bump
+ * {@link #FORMAT_VERSION} whenever the layout or the models change.
+ *
+ * Customers' personal details are in the file, so it is created readable by its
+ * owner only.
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x43525350; // "CRSP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL_INDEX = -1;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    private final Path file;
+
+    public SnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    public static Path defaultLocation() {
+        return Paths.get(System.getProperty("user.home"), ".carrental", "snapshot.bin");
+    }
+
+    /**
+     * Returns the saved snapshot, or null if there is none or it was written in a
+     * different format version.
+     */
+    public Snapshot load() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            return new Decoder(buffer).readSnapshot();
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Snapshot file " + file + " is corrupt", e);
+        }
+    }
+
+    /**
+     * Replaces the saved snapshot. The file is written next to the old one and
+     * moved into place, so a crash mid-write leaves the previous snapshot intact.
+     */
+    public void save(Snapshot snapshot) throws IOException {
+        Encoder encoder = new Encoder();
+        byte[] body = encoder.encode(snapshot);
+
+        PrivateFiles.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(PrivateFiles.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            encoder.writeStringTable(out);
+            out.write(body);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static final class Encoder {
+        private final Map<String, Integer> stringIndex = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        byte[] encode(Snapshot snapshot) throws IOException {
+            out.writeLong(snapshot.getSavedAtMillis());
+
+            out.writeInt(snapshot.getCars().size());
+            for (Car car : snapshot.getCars()) {
+                writeString(car.getId());
+                writeString(car.getMake());
+                writeString(car.getModel());
+                out.writeInt(car.getYear());
+                writeString(car.getColor());
+                writeString(car.getLicensePlate());
+                writeDecimal(car.getDailyRate());
+                out.writeBoolean(car.isAvailable());
+                writeString(car.getFuelType());
+                writeString(car.getTransmission());
+                out.writeInt(car.getSeats());
+                writeString(car.getImageUrl());
+                writeString(car.getDescription());
+            }
+
+            out.writeInt(snapshot.getCustomers().size());
+            for (Customer customer : snapshot.getCustomers()) {
+                writeString(customer.getId());
+                writeString(customer.getFirstName());
+                writeString(customer.getLastName());
+                writeString(customer.getEmail());
+                writeString(customer.getPhone());
+                Address address = customer.getAddress();
+                out.writeBoolean(address != null);
+                if (address != null) {
+                    writeString(address.getStreet());
+                    writeString(address.getCity());
+                    writeString(address.getState());
+                    writeString(address.getZipCode());
+                    writeString(address.getCountry());
+                }
+                writeDate(customer.getDateOfBirth());
+                writeString(customer.getDriversLicense());
+                writeDate(customer.getCreatedAt());
+            }
+
+            out.writeInt(snapshot.getBookings().size());
+            for (Booking booking : snapshot.getBookings()) {
+                writeString(booking.getId());
+                writeString(booking.getCustomerId());
+                writeString(booking.getCarId());
+                writeDate(booking.getPickupDate());
+                writeDate(booking.getReturnDate());
+                out.writeInt(booking.getTotalDays());
+                writeDecimal(booking.getDailyRate());
+                writeDecimal(booking.getTotalAmount());
+                out.writeByte(booking.getStatus() != null ? booking.getStatus().ordinal() : -1);
+                writeString(booking.getPickupLocation());
+                writeString(booking.getReturnLocation());
+                writeDateTime(booking.getCreatedAt());
+                writeDateTime(booking.getUpdatedAt());
+                writeString(booking.getNotes());
+                writeString(booking.getCustomerName());
+                writeString(booking.getCarInfo());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        void writeStringTable(DataOutputStream target) throws IOException {
+            target.writeInt(strings.size());
+            for (String value : strings) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                target.writeInt(utf8.length);
+                target.write(utf8);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(NULL_INDEX);
+                return;
+            }
+            Integer index = stringIndex.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.add(value);
+                stringIndex.put(value, index);
+            }
+            out.writeInt(index);
+        }
+
+        private void writeDecimal(BigDecimal value) throws IOException {
+            writeString(value != null ? value.toPlainString() : null);
+        }
+
+        private void writeDate(LocalDate value) throws IOException {
+            out.writeLong(value != null ? value.toEpochDay() : NULL_LONG);
+        }
+
+        private void writeDateTime(LocalDateTime value) throws IOException {
+            out.writeLong(value != null ? value.toEpochSecond(ZoneOffset.UTC) : NULL_LONG);
+            out.writeInt(value != null ? value.getNano() : 0);
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer buffer;
+        private String[] strings;
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Snapshot readSnapshot() {
+            strings = new String[readCount()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] utf8 = new byte[readCount()];
+                buffer.get(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            long savedAtMillis = buffer.getLong();
+
+            int count = readCount();
+            List<Car> cars = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Car car = new Car();
+                car.setId(readString());
+                car.setMake(readString());
+                car.setModel(readString());
+                car.setYear(buffer.getInt());
+                car.setColor(readString());
+                car.setLicensePlate(readString());
+                car.setDailyRate(readDecimal());
+                car.setAvailable(buffer.get() != 0);
+                car.setFuelType(readString());
+                car.setTransmission(readString());
+                car.setSeats(buffer.getInt());
+                car.setImageUrl(readString());
+                car.setDescription(readString());
+                cars.add(car);
+            }
+
+            count = readCount();
+            List<Customer> customers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Customer customer = new Customer();
+                customer.setId(readString());
+                customer.setFirstName(readString());
+                customer.setLastName(readString());
+                customer.setEmail(readString());
+                customer.setPhone(readString());
+                if (buffer.get() != 0) {
+                    customer.setAddress(new Address(readString(), readString(), readString(), readString(), readString()));
+                } else {
+                    customer.setAddress(null);
+                }
+                customer.setDateOfBirth(readDate());
+                customer.setDriversLicense(readString());
+                customer.setCreatedAt(readDate());
+                customers.add(customer);
+            }
+
+            count = readCount();
+            List<Booking> bookings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Booking booking = new Booking();
+                booking.setId(readString());
+                booking.setCustomerId(readString());
+                booking.setCarId(readString());
+                booking.setPickupDate(readDate());
+                booking.setReturnDate(readDate());
+                booking.setTotalDays(buffer.getInt());
+                booking.setDailyRate(readDecimal());
+                booking.setTotalAmount(readDecimal());
+                int status = buffer.get();
+                booking.setStatus(status >= 0 ? STATUSES[status] : null);
+                booking.setPickupLocation(readString());
+                booking.setReturnLocation(readString());
+                booking.setCreatedAt(readDateTime());
+                booking.setUpdatedAt(readDateTime());
+                booking.setNotes(readString());
+                booking.setCustomerName(readString());
+                booking.setCarInfo(readString());
+                bookings.add(booking);
+            }
+            return new Snapshot(cars, customers, bookings, savedAtMillis);
+        }
+
+        private int readCount() {
+            int count = buffer.getInt();
+            // Every element takes at least one byte, so a larger count means a damaged file
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IllegalArgumentException("Bad element count " + count);
+            }
+            return count;
+        }
+
+        private String readString() {
+            int index = buffer.getInt();
+            return index == NULL_INDEX ? null : strings[index];
+        }
+
+        private BigDecimal readDecimal() {
+            String value = readString();
+            return value != null ? new BigDecimal(value) : null;
+        }
+
+        private LocalDate readDate() {
+            long epochDay = buffer.getLong();
+            return epochDay != NULL_LONG ? LocalDate.ofEpochDay(epochDay) : null;
+        }
+
+        private LocalDateTime readDateTime() {
+            long epochSecond = buffer.getLong();
+            int nano = buffer.getInt();
+            return epochSecond != NULL_LONG ? LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC) : null;
+        }
+    }
+}
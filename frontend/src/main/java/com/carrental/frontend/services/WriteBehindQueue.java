@@ -0,0 +1,444 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.services.PendingMutation.Action;
+import com.carrental.frontend.services.PendingMutation.Entity;
+import com.carrental.frontend.utils.HttpStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts creates, updates, deletes and cancellations immediately by writing
+ * them to a {@link MutationJournal}, and sends them to the server in the
+ * background, so the counter keeps working while the backend is slow or down.
+ *
+ * Mutations are sent in the order they were made. Consecutive mutations of one
+ * entity that have not been sent yet are coalesced: an update replaces the
+ * previous update's body or folds into the pending create, and a delete drops
+ * the unsent mutations before it, along with the delete itself when the
+ * entity's create was never sent. A cancellation is always sent after the
+ * booking's create and updates, since a cancelled booking stays on record with
+ * its status, notes and history. The backend has no batch endpoints, so
+ * batching means sending up to {@link #MAX_BATCH} mutations concurrently, as
+ * long as they touch different entities and do not depend on an entity created
+ * earlier in the same batch.
+ *
+ * A mutation the server refuses (a 4xx answer) is dropped and reported; any
+ * other failure leaves it pending and retries the queue with exponential
+ * backoff. Listener callbacks run on the queue's own thread.
+ *
+ * A create that timed out or failed in transit may still have gone through, and
+ * so may one recovered from the journal, which could have been sent just before
+ * the client stopped. Such a create is looked up on the server before it is sent
+ * again (see {@link CarRentalService#sendMutation}), so retries neither duplicate
+ * the entity nor report its first copy's conflict as a refusal. A delete that a
+ * retry finds already gone counts as applied.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+    public static final int MAX_BATCH = 8;
+    private static final long MIN_RETRY_DELAY_MILLIS = 1_000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+    public interface Listener {
+        /**
+         * The server accepted {@code mutation}; for creates {@code entityId} is the
+         * server id that replaced the local one.
+         */
+        void mutationApplied(PendingMutation mutation, String entityId);
+
+        void mutationRefused(PendingMutation mutation, IOException error);
+
+        /**
+         * The number of pending mutations changed, or sending them failed with
+         * {@code lastError} (null once sending works again).
+         */
+        void queueChanged(int pendingCount, IOException lastError);
+    }
+
+    private final CarRentalService service;
+    private final MutationJournal journal;
+    private final ScheduledExecutorService sender;
+    private final LinkedHashMap<Long, PendingMutation> pending = new LinkedHashMap<>();
+    private final Set<Long> inFlight = new HashSet<>();
+    // Creates whose earlier attempt may have reached the server
+    private final Set<Long> mayBeApplied = new HashSet<>();
+    private final Map<String, String> resolvedIds;
+    private volatile Listener listener;
+    private long nextSequence = 1;
+    private long retryDelayMillis;
+    private boolean drainScheduled;
+    private IOException lastError;
+
+    public WriteBehindQueue(CarRentalService service, MutationJournal journal) {
+        this.service = service;
+        this.journal = journal;
+        this.resolvedIds = journal.getResolvedIds();
+        for (PendingMutation mutation : journal.getRecovered()) {
+            pending.put(mutation.getSequence(), mutation);
+            if (mutation.getAction() == Action.CREATE) {
+                mayBeApplied.add(mutation.getSequence());
+            }
+            nextSequence = Math.max(nextSequence, mutation.getSequence() + 1);
+        }
+        this.sender = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        synchronized (this) {
+            scheduleDrain(0);
+        }
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized List<PendingMutation> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Bookings created locally that the server has not accepted yet, with their
+     * local ids, so they can be shown and checked for conflicts meanwhile.
+     */
+    public synchronized List<Booking> getPendingBookings() {
+        List<Booking> bookings = new ArrayList<>();
+        for (PendingMutation mutation : pending.values()) {
+            if (mutation.getEntity() == Entity.BOOKING && mutation.getAction() == Action.CREATE) {
+                Booking booking = service.fromJson(mutation.getBody(), Booking.class);
+                booking.setId(mutation.getEntityId());
+                bookings.add(booking);
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * Sends pending mutations now instead of waiting out the retry delay.
+     */
+    public synchronized void retryNow() {
+        retryDelayMillis = 0;
+        scheduleDrain(0);
+    }
+
+    // Each returns once the mutation is in the journal; creates return the local id
+    // the new entity goes by until the server has assigned one.
+
+    public String createCar(Car car) throws IOException {
+        return enqueue(Entity.CAR, Action.CREATE, null, service.toJson(car));
+    }
+
+    public void updateCar(String id, Car car) throws IOException {
+        enqueue(Entity.CAR, Action.UPDATE, id, service.toJson(car));
+    }
+
+    public void deleteCar(String id) throws IOException {
+        enqueue(Entity.CAR, Action.DELETE, id, null);
+    }
+
+    public String createCustomer(Customer customer) throws IOException {
+        return enqueue(Entity.CUSTOMER, Action.CREATE, null, service.toJson(customer));
+    }
+
+    public void updateCustomer(String id, Customer customer) throws IOException {
+        enqueue(Entity.CUSTOMER, Action.UPDATE, id, service.toJson(customer));
+    }
+
+    public void deleteCustomer(String id) throws IOException {
+        enqueue(Entity.CUSTOMER, Action.DELETE, id, null);
+    }
+
+    public String createBooking(Booking booking) throws IOException {
+        return enqueue(Entity.BOOKING, Action.CREATE, null, service.toJson(booking));
+    }
+
+    public void updateBooking(String id, Booking booking) throws IOException {
+        enqueue(Entity.BOOKING, Action.UPDATE, id, service.toJson(booking));
+    }
+
+    public void cancelBooking(String id) throws IOException {
+        enqueue(Entity.BOOKING, Action.CANCEL, id, null);
+    }
+
+    public void deleteBooking(String id) throws IOException {
+        enqueue(Entity.BOOKING, Action.DELETE, id, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sender.shutdownNow();
+        journal.close();
+    }
+
+    private String enqueue(Entity entity, Action action, String entityId, String body) throws IOException {
+        int count;
+        String id;
+        synchronized (this) {
+            id = action == Action.CREATE ? PendingMutation.LOCAL_ID_PREFIX + UUID.randomUUID() : resolve(entityId);
+            if (body != null) {
+                for (Map.Entry<String, String> resolved : resolvedIds.entrySet()) {
+                    body = body.replace("\"" + resolved.getKey() + "\"", "\"" + resolved.getValue() + "\"");
+                }
+            }
+            if (!coalesce(entity, action, id, body)) {
+                PendingMutation mutation = new PendingMutation(nextSequence++, entity, action, id, body,
+                        System.currentTimeMillis());
+                journal.added(mutation);
+                pending.put(mutation.getSequence(), mutation);
+            }
+            if (retryDelayMillis == 0) {
+                scheduleDrain(0);
+            }
+            count = pending.size();
+        }
+        notifyQueueChanged(count);
+        return id;
+    }
+
+    /**
+     * Folds the new mutation into the entity's not yet sent ones where possible.
+     * Returns true if nothing needs to be added.
+     */
+    private boolean coalesce(Entity entity, Action action, String id, String body) throws IOException {
+        if (action == Action.CREATE || action == Action.CANCEL) {
+            return false;
+        }
+        // A create that may have reached the server is as good as sent
+        List<PendingMutation> unsent = new ArrayList<>();
+        for (PendingMutation mutation : pending.values()) {
+            if (mutation.getEntity() == entity && id.equals(mutation.getEntityId())
+                    && !inFlight.contains(mutation.getSequence()) && !mayBeApplied.contains(mutation.getSequence())) {
+                unsent.add(mutation);
+            }
+        }
+        if (unsent.isEmpty()) {
+            return false;
+        }
+        PendingMutation last = unsent.get(unsent.size() - 1);
+        if (action == Action.UPDATE) {
+            if (last.getAction() != Action.CREATE && last.getAction() != Action.UPDATE) {
+                return false;
+            }
+            PendingMutation replaced = last.withBody(body);
+            journal.replaced(replaced);
+            pending.put(replaced.getSequence(), replaced);
+            return true;
+        }
+        // A delete makes the unsent updates and cancellations pointless, and an
+        // unsent create with them: the server never needs to hear of the entity at all
+        boolean createUnsent = unsent.get(0).getAction() == Action.CREATE;
+        for (PendingMutation mutation : unsent) {
+            if (mutation.getAction() != Action.DELETE) {
+                journal.done(mutation.getSequence());
+                pending.remove(mutation.getSequence());
+            }
+        }
+        return createUnsent;
+    }
+
+    private String resolve(String id) {
+        String serverId = resolvedIds.get(id);
+        return serverId != null ? serverId : id;
+    }
+
+    // Called with the lock held
+    private void scheduleDrain(long delayMillis) {
+        if (drainScheduled || pending.isEmpty() || sender.isShutdown()) {
+            return;
+        }
+        drainScheduled = true;
+        sender.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        List<PendingMutation> batch = new ArrayList<>();
+        List<PendingMutation> orphans = new ArrayList<>();
+        List<Boolean> retried = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            nextBatch(batch, orphans);
+            for (PendingMutation mutation : batch) {
+                inFlight.add(mutation.getSequence());
+                retried.add(mayBeApplied.contains(mutation.getSequence()));
+            }
+        }
+        for (PendingMutation orphan : orphans) {
+            notifyRefused(orphan, new IOException("It refers to a new entity that was refused or deleted before it was saved"));
+        }
+        if (batch.isEmpty()) {
+            if (!orphans.isEmpty()) {
+                int count;
+                synchronized (this) {
+                    compactJournal();
+                    scheduleDrain(retryDelayMillis);
+                    count = pending.size();
+                }
+                notifyQueueChanged(count);
+            }
+            return;
+        }
+
+        List<CompletableFuture<String>> sends = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            sends.add(service.sendMutation(batch.get(i), retried.get(i)));
+        }
+        IOException transientError = null;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingMutation mutation = batch.get(i);
+            try {
+                finished(mutation, sends.get(i).get(), null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                IOException error = asIOException(e.getCause());
+                if (error instanceof HttpStatusException && ((HttpStatusException) error).isClientError()) {
+                    finished(mutation, null, error);
+                } else {
+                    transientError = error;
+                    synchronized (this) {
+                        inFlight.remove(mutation.getSequence());
+                        if (mutation.getAction() == Action.CREATE) {
+                            mayBeApplied.add(mutation.getSequence());
+                        }
+                    }
+                }
+            }
+        }
+
+        int count;
+        synchronized (this) {
+            lastError = transientError;
+            if (transientError != null) {
+                retryDelayMillis = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(MIN_RETRY_DELAY_MILLIS, retryDelayMillis * 2));
+            } else {
+                retryDelayMillis = 0;
+            }
+            compactJournal();
+            scheduleDrain(retryDelayMillis);
+            count = pending.size();
+        }
+        notifyQueueChanged(count);
+    }
+
+    /**
+     * Picks the mutations to send next: a prefix of the queue in which no entity
+     * appears twice and nothing waits for a create that has not gone through.
+     * Mutations needing a local id whose create is no longer pending can never be
+     * sent; they are dropped into {@code orphans}. Called with the lock held.
+     */
+    private void nextBatch(List<PendingMutation> batch, List<PendingMutation> orphans) {
+        Set<String> pendingCreates = new HashSet<>();
+        for (PendingMutation mutation : pending.values()) {
+            if (mutation.getAction() == Action.CREATE) {
+                pendingCreates.add(mutation.getEntityId());
+            }
+        }
+        Set<String> entities = new HashSet<>();
+        Iterator<PendingMutation> it = pending.values().iterator();
+        while (it.hasNext() && batch.size() < MAX_BATCH) {
+            PendingMutation mutation = it.next();
+            Set<String> needed = mutation.getLocalIdsNeeded();
+            if (!pendingCreates.containsAll(needed)) {
+                try {
+                    journal.done(mutation.getSequence());
+                } catch (IOException e) {
+                    // Found to be an orphan again after a restart
+                }
+                it.remove();
+                orphans.add(mutation);
+                continue;
+            }
+            if (!needed.isEmpty() || !entities.add(mutation.getEntity() + " " + mutation.getEntityId())) {
+                break;
+            }
+            batch.add(mutation);
+        }
+    }
+
+    private void finished(PendingMutation mutation, String serverId, IOException refusal) {
+        synchronized (this) {
+            inFlight.remove(mutation.getSequence());
+            mayBeApplied.remove(mutation.getSequence());
+            pending.remove(mutation.getSequence());
+            try {
+                if (refusal == null && mutation.getAction() == Action.CREATE && serverId != null) {
+                    resolveLocalId(mutation.getEntityId(), serverId);
+                }
+                journal.done(mutation.getSequence());
+            } catch (IOException e) {
+                // Replayed after a restart at worst, which the server sees as a repeat
+            }
+        }
+        if (refusal != null) {
+            notifyRefused(mutation, refusal);
+            return;
+        }
+        Listener current = listener;
+        if (current != null) {
+            current.mutationApplied(mutation, serverId != null ? serverId : mutation.getEntityId());
+        }
+    }
+
+    // Called with the lock held
+    private void resolveLocalId(String localId, String serverId) throws IOException {
+        journal.resolved(localId, serverId);
+        resolvedIds.put(localId, serverId);
+        pending.replaceAll((sequence, mutation) -> mutation.withResolvedId(localId, serverId));
+    }
+
+    // Called with the lock held
+    private void compactJournal() {
+        try {
+            journal.compact(new ArrayList<>(pending.values()), resolvedIds);
+        } catch (IOException e) {
+            // The journal still replays correctly, just from a longer file
+        }
+    }
+
+    private void notifyRefused(PendingMutation mutation, IOException error) {
+        Listener current = listener;
+        if (current != null) {
+            current.mutationRefused(mutation, error);
+        }
+    }
+
+    private void notifyQueueChanged(int count) {
+        Listener current = listener;
+        IOException error;
+        synchronized (this) {
+            error = lastError;
+        }
+        if (current != null) {
+            current.queueChanged(count, error);
+        }
+    }
+
+    private static IOException asIOException(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof IOException ? (IOException) error : new IOException(error);
+    }
+}
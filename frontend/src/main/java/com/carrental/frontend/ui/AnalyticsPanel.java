@@ -0,0 +1,166 @@
+package com.carrental.frontend.ui;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.services.FleetAnalytics;
+import com.carrental.frontend.services.FleetReport;
+import com.carrental.frontend.utils.TaskRunner;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.table.DefaultTableModel;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Utilization and revenue over a chosen period, computed by
+ * {@link FleetAnalytics} from the cars and bookings already loaded, by car,
+ * make and model, pickup location and day.
+ */
+public class AnalyticsPanel extends JPanel {
+    private static final String[] UTILIZATION_COLUMNS = {"Name", "Cars", "Bookings", "Booked Days", "Available Days",
+            "Utilization %", "Revenue"};
+    private static final String[] LOCATION_COLUMNS = {"Pickup Location", "Bookings", "Booked Days", "Share %", "Revenue"};
+    private static final String[] DAY_COLUMNS = {"Date", "Cars Booked", "Utilization %", "Revenue"};
+
+    private final TaskRunner taskRunner;
+    private final Supplier<List<Car>> cars;
+    private final Supplier<List<Booking>> bookings;
+    private final JTextField fromField = new JTextField(10);
+    private final JTextField toField = new JTextField(10);
+    private final JLabel summaryLabel = new JLabel("Choose a period and press Compute.");
+    private final DefaultTableModel carModel = model(UTILIZATION_COLUMNS, 4);
+    private final DefaultTableModel makeModelModel = model(UTILIZATION_COLUMNS, 4);
+    private final DefaultTableModel locationModel = model(LOCATION_COLUMNS, 2);
+    private final DefaultTableModel dayModel = model(DAY_COLUMNS, 1);
+
+    public AnalyticsPanel(TaskRunner taskRunner, Supplier<List<Car>> cars, Supplier<List<Booking>> bookings) {
+        super(new BorderLayout());
+        this.taskRunner = taskRunner;
+        this.cars = cars;
+        this.bookings = bookings;
+
+        LocalDate today = LocalDate.now();
+        fromField.setText(today.minusYears(1).plusDays(1).toString());
+        toField.setText(today.toString());
+        JButton computeButton = new JButton("Compute");
+        computeButton.addActionListener(e -> compute());
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("From (YYYY-MM-DD):"));
+        controls.add(fromField);
+        controls.add(new JLabel("To (YYYY-MM-DD):"));
+        controls.add(toField);
+        controls.add(computeButton);
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(0, 5, 5, 5));
+
+        JPanel north = new JPanel(new BorderLayout());
+        north.add(controls, BorderLayout.NORTH);
+        north.add(summaryLabel, BorderLayout.SOUTH);
+
+        JTabbedPane views = new JTabbedPane();
+        views.addTab("By Car", table(carModel));
+        views.addTab("By Make/Model", table(makeModelModel));
+        views.addTab("By Location", table(locationModel));
+        views.addTab("Revenue by Day", table(dayModel));
+
+        add(north, BorderLayout.NORTH);
+        add(views, BorderLayout.CENTER);
+    }
+
+    private void compute() {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(fromField.getText().trim());
+            to = LocalDate.parse(toField.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Please enter dates as YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (to.isBefore(from)) {
+            JOptionPane.showMessageDialog(this, "The period must end on or after its first day.", "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        summaryLabel.setText("Computing...");
+        // The period includes the To day
+        taskRunner.submit("analytics", () -> FleetAnalytics.compute(cars.get(), bookings.get(), from, to.plusDays(1)),
+                this::show, e -> {
+                    summaryLabel.setText(" ");
+                    JOptionPane.showMessageDialog(this, "Error computing analytics: " + e.getMessage(), "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                });
+    }
+
+    private void show(FleetReport report) {
+        summaryLabel.setText(report.toString());
+        fill(carModel, report.getByCar());
+        fill(makeModelModel, report.getByMakeModel());
+
+        locationModel.setRowCount(0);
+        for (FleetReport.Location location : report.getByLocation()) {
+            locationModel.addRow(new Object[]{location.getName(), (long) location.getBookingCount(),
+                    location.getBookedDays(), percent(location.getShare()), money(location.getRevenue())});
+        }
+        dayModel.setRowCount(0);
+        for (FleetReport.Day day : report.getByDay()) {
+            dayModel.addRow(new Object[]{day.getDate().toString(), (long) day.getCarsBooked(),
+                    percent(day.getUtilization()), money(day.getRevenue())});
+        }
+    }
+
+    private static void fill(DefaultTableModel model, List<FleetReport.Utilization> rows) {
+        model.setRowCount(0);
+        for (FleetReport.Utilization row : rows) {
+            model.addRow(new Object[]{row.getName(), (long) row.getCarCount(), (long) row.getBookingCount(),
+                    row.getBookedDays(), row.getAvailableDays(), percent(row.getUtilization()), money(row.getRevenue())});
+        }
+    }
+
+    /**
+     * A read-only model of a name column, counts up to {@code lastCount} and
+     * then decimals, typed so the row sorter orders numbers numerically.
+     */
+    private static DefaultTableModel model(String[] columns, int lastCount) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                if (column == 0) {
+                    return String.class;
+                }
+                return column <= lastCount ? Long.class : Double.class;
+            }
+        };
+    }
+
+    private static JScrollPane table(DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        return new JScrollPane(table);
+    }
+
+    private static double percent(double fraction) {
+        return Math.round(fraction * 1000) / 10.0;
+    }
+
+    private static double money(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
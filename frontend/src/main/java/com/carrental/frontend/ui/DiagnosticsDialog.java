@@ -0,0 +1,142 @@
+package com.carrental.frontend.ui;
+
+import com.carrental.frontend.utils.CacheStats;
+import com.carrental.frontend.utils.EndpointMetrics;
+import com.carrental.frontend.utils.HttpMetrics;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Live view of the per-endpoint HTTP metrics and cache counters, refreshed every
+ * second while open, with an option to save the current numbers to a text file.
+ */
+public class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MILLIS = 1000;
+    private static final String[] COLUMNS = {"Endpoint", "Requests", "Errors", "p50 ms", "p95 ms", "p99 ms",
+            "Max ms", "DNS ms", "Connect ms", "TTFB ms", "Body ms", "Bytes Out", "Bytes In"};
+
+    private final HttpMetrics metrics;
+    private final Supplier<Map<String, CacheStats>> cacheStats;
+    private final DefaultTableModel tableModel;
+    private final JLabel summaryLabel = new JLabel();
+    private final Timer refreshTimer;
+
+    public DiagnosticsDialog(JFrame owner, HttpMetrics metrics, Supplier<Map<String, CacheStats>> cacheStats) {
+        super(owner, "Diagnostics", false);
+        this.metrics = metrics;
+        this.cacheStats = cacheStats;
+        this.tableModel = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                // Typed columns so the row sorter orders numbers numerically
+                if (column == 0) {
+                    return String.class;
+                }
+                return column <= 2 || column >= 11 ? Long.class : Double.class;
+            }
+        };
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton refreshButton = new JButton("Refresh");
+        JButton resetButton = new JButton("Reset");
+        JButton saveButton = new JButton("Save to File...");
+        JButton closeButton = new JButton("Close");
+        refreshButton.addActionListener(e -> refresh());
+        resetButton.addActionListener(e -> {
+            metrics.reset();
+            refresh();
+        });
+        saveButton.addActionListener(e -> saveToFile());
+        closeButton.addActionListener(e -> dispose());
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(resetButton);
+        buttonPanel.add(saveButton);
+        buttonPanel.add(closeButton);
+
+        add(summaryLabel, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+        setSize(1100, 400);
+        setLocationRelativeTo(owner);
+
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                refreshTimer.start();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refreshTimer.stop();
+            }
+        });
+        refresh();
+    }
+
+    private void refresh() {
+        tableModel.setRowCount(0);
+        for (EndpointMetrics m : metrics.getEndpoints()) {
+            tableModel.addRow(new Object[]{m.getEndpoint(), m.getRequestCount(), m.getErrorCount(),
+                    millis(m.getP50Millis()), millis(m.getP95Millis()), millis(m.getP99Millis()),
+                    millis(m.getMaxMillis()), millis(m.getDnsMillis()), millis(m.getConnectMillis()),
+                    millis(m.getTtfbMillis()), millis(m.getBodyReadMillis()), m.getBytesSent(), m.getBytesReceived()});
+        }
+
+        StringBuilder summary = new StringBuilder("<html>");
+        summary.append(String.format("Requests: %d, errors: %d, connections opened: %d, reused: %d",
+                metrics.getRequestCount(), metrics.getErrorCount(),
+                metrics.getConnectionsOpened(), metrics.getConnectionsReused()));
+        for (Map.Entry<String, CacheStats> entry : cacheStats.get().entrySet()) {
+            summary.append("<br>Cache ").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        summaryLabel.setText(summary.append("</html>").toString());
+    }
+
+    private void saveToFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("http-metrics.txt"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        try {
+            metrics.dumpTo(file.toPath());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Error saving metrics: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static double millis(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.carrental.frontend.ui;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory {@link PagedTableModel.PageSource} that can grow while the table is
+ * showing it, e.g. as a streamed response arrives. Pages are read from the
+ * model's loader thread, so access is synchronized.
+ */
+public class ListPageSource<T> implements PagedTableModel.PageSource<T> {
+    private final List<T> items;
+
+    public ListPageSource() {
+        this.items = new ArrayList<>();
+    }
+
+    public ListPageSource(Collection<? extends T> items) {
+        this.items = new ArrayList<>(items);
+    }
+
+    public synchronized void addAll(Collection<? extends T> more) {
+        items.addAll(more);
+    }
+
+    public synchronized List<T> snapshot() {
+        return new ArrayList<>(items);
+    }
+
+    @Override
+    public synchronized int size() {
+        return items.size();
+    }
+
+    @Override
+    public synchronized List<T> fetch(int offset, int limit) {
+        int end = Math.min(offset + limit, items.size());
+        if (offset >= end) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(items.subList(offset, end));
+    }
+}
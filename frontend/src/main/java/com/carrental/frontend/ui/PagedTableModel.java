@@ -0,0 +1,278 @@
+package com.carrental.frontend.ui;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Read-only table model that materializes rows a page at a time, only for the
+ * pages the table actually asks for. Rows whose page is not loaded yet render as
+ * {@link #LOADING} while the page is fetched in the background; at most
+ * {@code maxCachedPages} pages are kept, least recently used first out.
+ *
+ * All methods must be called on the EDT.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+    public static final Object LOADING = "…";
+
+    /**
+     * Random-access supplier of the entities behind the table.
+     */
+    public interface PageSource<T> {
+        int size();
+
+        List<T> fetch(int offset, int limit) throws Exception;
+    }
+
+    private final String[] columnNames;
+    private final Function<? super T, Object[]> rowMapper;
+    private final int pageSize;
+    private final int maxCachedPages;
+    private final Executor pageLoader;
+    private final Map<Integer, Page<T>> pages;
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private PageSource<T> source;
+    private int rowCount;
+    // Bumped whenever the source changes so that loads started earlier are dropped
+    private int generation;
+
+    public PagedTableModel(String[] columnNames, Function<? super T, Object[]> rowMapper,
+                           int pageSize, int maxCachedPages, Executor pageLoader) {
+        this.columnNames = columnNames.clone();
+        this.rowMapper = rowMapper;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.pageLoader = pageLoader;
+        this.pages = new LinkedHashMap<Integer, Page<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page<T>> eldest) {
+                return size() > PagedTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        this.generation++;
+        pages.clear();
+        pendingPages.clear();
+        rowCount = source != null ? source.size() : 0;
+        fireTableDataChanged();
+    }
+
+    public PageSource<T> getSource() {
+        return source;
+    }
+
+    /**
+     * Picks up rows appended to the current source since the last call.
+     */
+    public void sourceGrew() {
+        int newCount = source != null ? source.size() : 0;
+        if (newCount <= rowCount) {
+            return;
+        }
+        int oldCount = rowCount;
+        if (oldCount > 0) {
+            // The last page may have been loaded while still partially filled
+            int lastPage = (oldCount - 1) / pageSize;
+            pages.remove(lastPage);
+        }
+        rowCount = newCount;
+        fireTableRowsInserted(oldCount, newCount - 1);
+    }
+
+    /**
+     * Switches to {@code newSource} by firing only the row events described by
+     * {@code diff}, coalesced into contiguous ranges, so the table keeps its
+     * selection and scroll position. Cached pages in front of the first inserted
+     * or deleted row stay valid unless one of their rows was updated.
+     */
+    public void applyDiff(PageSource<T> newSource, RowDiff<?> diff) {
+        if (diff.isReordered() || source == null) {
+            setSource(newSource);
+            return;
+        }
+        int[] deleted = diff.getDeletedOldRows();
+        int[] inserted = diff.getInsertedNewRows();
+        int[] updated = diff.getUpdatedNewRows();
+
+        int firstShifted = Integer.MAX_VALUE;
+        if (deleted.length > 0) {
+            firstShifted = deleted[0];
+        }
+        if (inserted.length > 0) {
+            firstShifted = Math.min(firstShifted, inserted[0]);
+        }
+        int firstShiftedPage = firstShifted == Integer.MAX_VALUE ? Integer.MAX_VALUE : firstShifted / pageSize;
+        pages.keySet().removeIf(page -> page >= firstShiftedPage);
+        for (int row : updated) {
+            pages.remove(row / pageSize);
+        }
+        pendingPages.clear();
+        generation++;
+        source = newSource;
+
+        // Deletions bottom-up so the indices of earlier runs stay valid
+        int i = deleted.length - 1;
+        while (i >= 0) {
+            int last = deleted[i];
+            int first = last;
+            while (i > 0 && deleted[i - 1] == first - 1) {
+                first--;
+                i--;
+            }
+            i--;
+            rowCount -= last - first + 1;
+            fireTableRowsDeleted(first, last);
+        }
+
+        // Insertions top-down: every row before an insertion point is already in place
+        i = 0;
+        while (i < inserted.length) {
+            int first = inserted[i];
+            int last = first;
+            while (i + 1 < inserted.length && inserted[i + 1] == last + 1) {
+                last++;
+                i++;
+            }
+            i++;
+            rowCount += last - first + 1;
+            fireTableRowsInserted(first, last);
+        }
+
+        i = 0;
+        while (i < updated.length) {
+            int first = updated[i];
+            int last = first;
+            while (i + 1 < updated.length && updated[i + 1] == last + 1) {
+                last++;
+                i++;
+            }
+            i++;
+            fireTableRowsUpdated(first, last);
+        }
+
+        rowCount = newSource.size();
+    }
+
+    /**
+     * Drops cached pages covering the given rows so they are re-read from the source.
+     */
+    public void invalidateRows(int firstRow, int lastRow) {
+        for (int page = firstRow / pageSize; page <= lastRow / pageSize; page++) {
+            pages.remove(page);
+        }
+        fireTableRowsUpdated(firstRow, lastRow);
+    }
+
+    /**
+     * Returns the entity shown at {@code row}, reading it from the source directly
+     * if its page is not loaded.
+     */
+    public T getEntityAt(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        Page<T> page = pages.get(row / pageSize);
+        if (page != null) {
+            return page.items.get(row % pageSize);
+        }
+        try {
+            List<T> items = source.fetch(row, 1);
+            return items.isEmpty() ? null : items.get(0);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / pageSize;
+        Page<T> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return LOADING;
+        }
+        int offset = row % pageSize;
+        return offset < page.rows.length ? page.rows[offset][column] : LOADING;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (source == null || !pendingPages.add(pageIndex)) {
+            return;
+        }
+        PageSource<T> requestSource = source;
+        int requestGeneration = generation;
+        int offset = pageIndex * pageSize;
+        int limit = Math.min(pageSize, rowCount - offset);
+
+        pageLoader.execute(() -> {
+            Page<T> loaded = null;
+            try {
+                List<T> items = requestSource.fetch(offset, limit);
+                Object[][] rows = new Object[items.size()][];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = rowMapper.apply(items.get(i));
+                }
+                loaded = new Page<>(items, rows);
+            } catch (Exception e) {
+                // Leave the page unloaded; it is requested again on the next repaint
+            }
+            Page<T> result = loaded;
+            SwingUtilities.invokeLater(() -> pageLoaded(requestGeneration, pageIndex, result));
+        });
+    }
+
+    private void pageLoaded(int requestGeneration, int pageIndex, Page<T> page) {
+        if (requestGeneration != generation) {
+            return;
+        }
+        pendingPages.remove(pageIndex);
+        if (page == null) {
+            return;
+        }
+        pages.put(pageIndex, page);
+        int first = pageIndex * pageSize;
+        int last = Math.min(first + page.rows.length, rowCount) - 1;
+        if (last >= first) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private static final class Page<T> {
+        final List<T> items;
+        final Object[][] rows;
+
+        Page(List<T> items, Object[][] rows) {
+            this.items = items;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.carrental.frontend.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Difference between the rows a table shows and a freshly loaded result, matched
+ * by entity id. Rows count as updated when their rendered cells differ. When the
+ * surviving rows come back in a different order the diff is marked as reordered
+ * and callers fall back to a full refresh.
+ */
+public class RowDiff<T> {
+    private final List<T> newItems;
+    private final int[] deletedOldRows;
+    private final int[] insertedNewRows;
+    private final int[] updatedNewRows;
+    private final boolean reordered;
+
+    private RowDiff(List<T> newItems, int[] deletedOldRows, int[] insertedNewRows,
+                    int[] updatedNewRows, boolean reordered) {
+        this.newItems = newItems;
+        this.deletedOldRows = deletedOldRows;
+        this.insertedNewRows = insertedNewRows;
+        this.updatedNewRows = updatedNewRows;
+        this.reordered = reordered;
+    }
+
+    public static <T> RowDiff<T> compute(List<T> oldItems, List<T> newItems, Function<? super T, String> idOf,
+                                         Function<? super T, Object[]> rowMapper) {
+        Map<String, Integer> oldIndexById = new HashMap<>(oldItems.size() * 2);
+        for (int i = 0; i < oldItems.size(); i++) {
+            oldIndexById.put(idOf.apply(oldItems.get(i)), i);
+        }
+
+        Set<String> newIds = new HashSet<>(newItems.size() * 2);
+        List<Integer> inserted = new ArrayList<>();
+        List<Integer> updated = new ArrayList<>();
+        List<Integer> retainedOldOrder = new ArrayList<>();
+        for (int i = 0; i < newItems.size(); i++) {
+            T item = newItems.get(i);
+            String id = idOf.apply(item);
+            newIds.add(id);
+            Integer oldIndex = oldIndexById.get(id);
+            if (oldIndex == null) {
+                inserted.add(i);
+            } else {
+                retainedOldOrder.add(oldIndex);
+                if (!Arrays.equals(rowMapper.apply(oldItems.get(oldIndex)), rowMapper.apply(item))) {
+                    updated.add(i);
+                }
+            }
+        }
+
+        List<Integer> deleted = new ArrayList<>();
+        for (int i = 0; i < oldItems.size(); i++) {
+            if (!newIds.contains(idOf.apply(oldItems.get(i)))) {
+                deleted.add(i);
+            }
+        }
+
+        boolean reordered = false;
+        for (int i = 1; i < retainedOldOrder.size(); i++) {
+            if (retainedOldOrder.get(i) < retainedOldOrder.get(i - 1)) {
+                reordered = true;
+                break;
+            }
+        }
+
+        return new RowDiff<>(Collections.unmodifiableList(newItems), toArray(deleted), toArray(inserted),
+                toArray(updated), reordered);
+    }
+
+    public List<T> getNewItems() { return newItems; }
+    public int[] getDeletedOldRows() { return deletedOldRows.clone(); }
+    public int[] getInsertedNewRows() { return insertedNewRows.clone(); }
+    public int[] getUpdatedNewRows() { return updatedNewRows.clone(); }
+    public boolean isReordered() { return reordered; }
+
+    public boolean isEmpty() {
+        return !reordered && deletedOldRows.length == 0 && insertedNewRows.length == 0 && updatedNewRows.length == 0;
+    }
+
+    public int getChangeCount() {
+        return deletedOldRows.length + insertedNewRows.length + updatedNewRows.length;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+package com.carrental.frontend.ui;
+
+import javax.swing.AbstractAction;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Text field that suggests matching items in a popup as the user types, for
+ * picking one entity out of many more than a combo box can hold.
+ *
+ * Lookups are debounced and run on {@code searchExecutor}, so typing never waits
+ * for them; results of a lookup overtaken by newer input are dropped. Up/Down
+ * move through the suggestions, Enter or a click picks one, Escape closes the
+ * popup. Must be used on the EDT.
+ */
+public class TypeAheadField<T> extends JTextField {
+    private final BiFunction<String, Integer, List<T>> searcher;
+    private final Executor searchExecutor;
+    private final int maxSuggestions;
+    private final DefaultListModel<T> suggestions = new DefaultListModel<>();
+    private final JList<T> suggestionList = new JList<>(suggestions);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer debounce;
+    private Consumer<T> selectionListener;
+    private T selectedItem;
+    private int generation;
+    // Set while the text is changed programmatically so it does not trigger a lookup
+    private boolean updatingText;
+
+    /**
+     * @param searcher returns up to the given number of matches for the typed text;
+     *                 called off the EDT
+     */
+    public TypeAheadField(int columns, BiFunction<String, Integer, List<T>> searcher, Executor searchExecutor,
+                          int maxSuggestions, int debounceMillis) {
+        super(columns);
+        this.searcher = searcher;
+        this.searchExecutor = searchExecutor;
+        this.maxSuggestions = maxSuggestions;
+
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setFocusable(false);
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = suggestionList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    choose(suggestions.get(index));
+                }
+            }
+        });
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(suggestionList));
+
+        debounce = new Timer(debounceMillis, e -> lookup());
+        debounce.setRepeats(false);
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { textEdited(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { textEdited(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { textEdited(); }
+        });
+
+        bindKey("DOWN", "typeAheadNext", () -> moveSelection(1));
+        bindKey("UP", "typeAheadPrevious", () -> moveSelection(-1));
+        bindKey("ENTER", "typeAheadChoose", () -> {
+            T highlighted = suggestionList.getSelectedValue();
+            if (popup.isVisible() && highlighted != null) {
+                choose(highlighted);
+            }
+        });
+        bindKey("ESCAPE", "typeAheadClose", () -> popup.setVisible(false));
+    }
+
+    public T getSelectedItem() {
+        return selectedItem;
+    }
+
+    /**
+     * Selects {@code item} (or clears the selection for null) and shows it in the field.
+     */
+    public void setSelectedItem(T item) {
+        selectedItem = item;
+        generation++;
+        debounce.stop();
+        popup.setVisible(false);
+        updatingText = true;
+        try {
+            setText(item != null ? item.toString() : "");
+        } finally {
+            updatingText = false;
+        }
+    }
+
+    public void setSelectionListener(Consumer<T> selectionListener) {
+        this.selectionListener = selectionListener;
+    }
+
+    private void textEdited() {
+        if (updatingText) {
+            return;
+        }
+        // Editing the text invalidates the previous pick until a new one is made
+        if (selectedItem != null) {
+            selectedItem = null;
+            if (selectionListener != null) {
+                selectionListener.accept(null);
+            }
+        }
+        debounce.restart();
+    }
+
+    private void lookup() {
+        String text = getText();
+        int requestGeneration = ++generation;
+        if (text.trim().isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        searchExecutor.execute(() -> {
+            List<T> matches = searcher.apply(text, maxSuggestions);
+            SwingUtilities.invokeLater(() -> showSuggestions(requestGeneration, matches));
+        });
+    }
+
+    private void showSuggestions(int requestGeneration, List<T> matches) {
+        if (requestGeneration != generation || !isShowing()) {
+            return;
+        }
+        suggestions.clear();
+        for (T match : matches) {
+            suggestions.addElement(match);
+        }
+        if (matches.isEmpty()) {
+            popup.setVisible(false);
+            return;
+        }
+        suggestionList.setSelectedIndex(0);
+        suggestionList.setVisibleRowCount(Math.min(matches.size(), 10));
+        popup.pack();
+        popup.setPopupSize(Math.max(getWidth(), popup.getPreferredSize().width), popup.getPreferredSize().height);
+        if (!popup.isVisible()) {
+            popup.show(this, 0, getHeight());
+        }
+        requestFocusInWindow();
+    }
+
+    private void moveSelection(int delta) {
+        if (!popup.isVisible() || suggestions.isEmpty()) {
+            return;
+        }
+        int index = Math.max(0, Math.min(suggestions.size() - 1, suggestionList.getSelectedIndex() + delta));
+        suggestionList.setSelectedIndex(index);
+        suggestionList.ensureIndexIsVisible(index);
+    }
+
+    private void choose(T item) {
+        setSelectedItem(item);
+        if (selectionListener != null) {
+            selectionListener.accept(item);
+        }
+    }
+
+    private void bindKey(String key, String name, Runnable action) {
+        getInputMap().put(KeyStroke.getKeyStroke(key), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+}
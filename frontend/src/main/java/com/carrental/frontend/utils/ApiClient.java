@@ -1,40 +1,144 @@
 package com.carrental.frontend.utils;
 
 import okhttp3.*;
+import okhttp3.brotli.BrotliInterceptor;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * HTTP transport for the backend API. Every call runs under the client's
+ * {@link ResiliencePolicy}: a deadline, retries of GET and PUT with jittered
+ * backoff, hedging of slow GETs and a circuit breaker per endpoint. DELETE is
+ * not retried, since a retry of a delete that did go through would report 404.
+ */
 public class ApiClient {
+    // Enough idle keep-alive connections to serve a full fan-out without reconnecting
+    private static final int MAX_IDLE_CONNECTIONS = 32;
+
+    // Hedge, backoff and deadline timers of all clients; the tasks only enqueue calls
+    private static final ScheduledExecutorService TIMERS = newTimerExecutor();
+
     private final OkHttpClient client;
+    private final HttpMetrics metrics = new HttpMetrics();
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private volatile ResiliencePolicy policy;
 
     public ApiClient() {
+        this(ResiliencePolicy.defaults());
+    }
+
+    public ApiClient(ResiliencePolicy policy) {
+        this.policy = policy;
+
+        // OkHttp allows only 5 concurrent async calls per host by default, which would
+        // serialize fan-outs against our single backend
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(64);
+        dispatcher.setMaxRequestsPerHost(MAX_IDLE_CONNECTIONS);
+
         this.client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, 5, TimeUnit.MINUTES))
+                .eventListenerFactory(metrics)
+                // Offers "br, gzip" and decodes either; without it OkHttp only asks for gzip
+                .addInterceptor(BrotliInterceptor.INSTANCE)
                 .build();
     }
 
+    public HttpMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ResiliencePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Replaces the policy for calls started from now on; circuit breakers start over.
+     */
+    public void setPolicy(ResiliencePolicy policy) {
+        this.policy = policy;
+        breakers.clear();
+    }
+
     public String get(String url) throws IOException {
         Request request = new Request.Builder()
                 .url(url)
                 .addHeader("Accept", "application/json")
                 .build();
+        return await(execute(request, ApiClient::successfulBody, false));
+    }
+
+    /**
+     * Opens the response body of a GET as a character stream so large payloads can
+     * be parsed incrementally. The caller owns the reader; closing it releases the
+     * underlying connection.
+     */
+    public Reader openReader(String url) throws IOException {
+        return openConditional(url, null, null).getReader();
+    }
+
+    /**
+     * Issues a GET carrying If-None-Match / If-Modified-Since when validators from a
+     * previous response are known. A 304 comes back as {@link ConditionalResponse#isNotModified()}
+     * with no body, so the caller can reuse what it parsed last time.
+     */
+    public ConditionalResponse openConditional(String url, String etag, String lastModified) throws IOException {
+        Request.Builder builder = new Request.Builder()
+                .url(url)
+                .addHeader("Accept", "application/json");
+        if (etag != null) {
+            builder.addHeader("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.addHeader("If-Modified-Since", lastModified);
+        }
 
-        try (Response response = client.newCall(request).execute()) {
+        return await(execute(builder.build(), response -> {
+            if (response.code() == 304) {
+                response.close();
+                return new ConditionalResponse(true, etag, lastModified, new StringReader(""));
+            }
             if (!response.isSuccessful()) {
-                throw new IOException("Unexpected code " + response.code() + ": " + response.message());
+                response.close();
+                throw new HttpStatusException(response.code(), response.message());
             }
             ResponseBody body = response.body();
-            return body != null ? body.string() : "";
-        }
+            Reader reader;
+            if (body == null) {
+                response.close();
+                reader = new StringReader("");
+            } else {
+                reader = body.charStream();
+            }
+            return new ConditionalResponse(false, response.header("ETag"), response.header("Last-Modified"), reader);
+        }, true));
     }
 
     public String post(String url, String json) throws IOException {
         MediaType mediaType = MediaType.parse("application/json");
         RequestBody body = RequestBody.create(json, mediaType);
-        
+
         Request request = new Request.Builder()
                 .url(url)
                 .post(body)
@@ -42,19 +146,13 @@ public class ApiClient {
                 .addHeader("Accept", "application/json")
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Unexpected code " + response.code() + ": " + response.message());
-            }
-            ResponseBody responseBody = response.body();
-            return responseBody != null ? responseBody.string() : "";
-        }
+        return await(execute(request, ApiClient::successfulBody, false));
     }
 
     public int put(String url, String json) throws IOException {
         MediaType mediaType = MediaType.parse("application/json");
         RequestBody body = RequestBody.create(json, mediaType);
-        
+
         Request request = new Request.Builder()
                 .url(url)
                 .put(body)
@@ -62,9 +160,7 @@ public class ApiClient {
                 .addHeader("Accept", "application/json")
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
-            return response.code();
-        }
+        return await(execute(request, Response::code, false));
     }
 
     public int delete(String url) throws IOException {
@@ -74,8 +170,361 @@ public class ApiClient {
                 .addHeader("Accept", "application/json")
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
-            return response.code();
+        return await(execute(request, Response::code, false));
+    }
+
+    // Asynchronous counterparts. Calls are queued on OkHttp's dispatcher, so the
+    // caller never blocks; cancelling the returned future, or letting it time out via
+    // orTimeout, cancels the underlying HTTP calls.
+
+    public CompletableFuture<String> getAsync(String url) {
+        Request request = new Request.Builder()
+                .url(url)
+                .addHeader("Accept", "application/json")
+                .build();
+        return execute(request, ApiClient::successfulBody, false);
+    }
+
+    public CompletableFuture<String> postAsync(String url, String json) {
+        return postAsync(url, json, null);
+    }
+
+    /**
+     * Posts {@code json} with an {@code Idempotency-Key} header, so a server that
+     * honours it applies a resent create once. The call itself is still not retried.
+     */
+    public CompletableFuture<String> postAsync(String url, String json, String idempotencyKey) {
+        Request.Builder request = new Request.Builder()
+                .url(url)
+                .post(RequestBody.create(json, MediaType.parse("application/json")))
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Accept", "application/json");
+        if (idempotencyKey != null) {
+            request.addHeader("Idempotency-Key", idempotencyKey);
+        }
+        return execute(request.build(), ApiClient::successfulBody, false);
+    }
+
+    public CompletableFuture<Integer> putAsync(String url, String json) {
+        Request request = new Request.Builder()
+                .url(url)
+                .put(RequestBody.create(json, MediaType.parse("application/json")))
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Accept", "application/json")
+                .build();
+        return execute(request, Response::code, false);
+    }
+
+    public CompletableFuture<Integer> deleteAsync(String url) {
+        Request request = new Request.Builder()
+                .url(url)
+                .delete()
+                .addHeader("Accept", "application/json")
+                .build();
+        return execute(request, Response::code, false);
+    }
+
+    /**
+     * Runs {@code request} under the current policy. With {@code streaming} the
+     * handler keeps the response open, so the deadline bounds only the wait for
+     * the response headers and reading the body is left to the read timeout.
+     */
+    private <T> CompletableFuture<T> execute(Request request, ResponseHandler<T> handler, boolean streaming) {
+        ResiliencePolicy current = policy;
+        CircuitBreaker breaker = null;
+        if (current.isBreakerEnabled()) {
+            breaker = breakers.computeIfAbsent(HttpMetrics.endpointOf(request),
+                    key -> new CircuitBreaker(current.getBreakerFailureThreshold(), current.getBreakerOpenMillis()));
+        }
+        return new ResilientCall<>(request, handler, streaming, current, breaker).start();
+    }
+
+    /**
+     * Waits for an asynchronous call on behalf of a blocking caller, rethrowing its
+     * failure as is. Interrupting the caller cancels the call.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the server");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static String successfulBody(Response response) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new HttpStatusException(response.code(), response.message());
+        }
+        ResponseBody body = response.body();
+        return body != null ? body.string() : "";
+    }
+
+    private static boolean isRetryableStatus(int code) {
+        return code == 429 || code >= 500;
+    }
+
+    private static void closeQuietly(Object value) {
+        if (value instanceof Closeable) {
+            try {
+                ((Closeable) value).close();
+            } catch (IOException ignored) {
+                // Nothing was read from it
+            }
+        }
+    }
+
+    private static ScheduledExecutorService newTimerExecutor() {
+        ScheduledThreadPoolExecutor timers = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "api-client-timers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timers.setRemoveOnCancelPolicy(true);
+        return timers;
+    }
+
+    private interface ResponseHandler<T> {
+        T handle(Response response) throws IOException;
+    }
+
+    /**
+     * One logical call: a chain of attempts, the first possibly overlapped by a
+     * hedge, that completes {@link #result} with the first usable response or the
+     * last failure. Attempts report back on OkHttp's dispatcher threads and timers
+     * fire on {@link #TIMERS}, so state changes are synchronized on the call.
+     */
+    private final class ResilientCall<T> {
+        private final Request request;
+        private final ResponseHandler<T> handler;
+        private final boolean streaming;
+        private final ResiliencePolicy policy;
+        private final CircuitBreaker breaker;
+        private final boolean retryable;
+        private final boolean hedgeable;
+        private final long deadline;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Set<Call> active = new HashSet<>();
+        private final List<ScheduledFuture<?>> timers = new ArrayList<>();
+        private int attempts;
+        private boolean hedged;
+
+        ResilientCall(Request request, ResponseHandler<T> handler, boolean streaming,
+                      ResiliencePolicy policy, CircuitBreaker breaker) {
+            this.request = request;
+            this.handler = handler;
+            this.streaming = streaming;
+            this.policy = policy;
+            this.breaker = breaker;
+            String method = request.method();
+            this.retryable = method.equals("GET") || method.equals("PUT");
+            this.hedgeable = method.equals("GET") && policy.isHedging();
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.getDeadlineMillis());
+        }
+
+        CompletableFuture<T> start() {
+            if (breaker != null && !breaker.tryAcquire()) {
+                result.completeExceptionally(
+                        new CircuitOpenException(HttpMetrics.endpointOf(request), breaker.getRemainingOpenMillis()));
+                return result;
+            }
+            // Also runs when the caller cancels or times out the future
+            result.whenComplete((value, error) -> finish());
+            synchronized (this) {
+                schedule(policy.getDeadlineMillis(), () -> result.completeExceptionally(new InterruptedIOException(
+                        "No response from the server within " + policy.getDeadlineMillis() + " ms")));
+                launch();
+                if (hedgeable) {
+                    long delay = metrics.percentileMillis(request, policy.getHedgePercentile(), policy.getHedgeMinSamples());
+                    if (delay >= 0) {
+                        schedule(Math.max(delay, policy.getMinHedgeDelayMillis()), this::hedge);
+                    }
+                }
+            }
+            return result;
+        }
+
+        // Called with the lock held
+        private void launch() {
+            attempts++;
+            Call call = client.newCall(request);
+            // A streamed body may take longer to read than the deadline allows
+            long remaining = streaming ? 0 : Math.max(1, deadline - System.nanoTime());
+            call.timeout().timeout(remaining, TimeUnit.NANOSECONDS);
+            active.add(call);
+            call.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    attemptFailed(call, e);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    handleResponse(call, response);
+                }
+            });
+        }
+
+        private synchronized void hedge() {
+            // Only while the first attempt is still waiting for its response headers
+            if (!result.isDone() && !hedged && attempts == 1 && active.size() == 1) {
+                hedged = true;
+                launch();
+            }
+        }
+
+        private void handleResponse(Call call, Response response) {
+            synchronized (this) {
+                active.remove(call);
+                if (result.isDone()) {
+                    response.close();
+                    return;
+                }
+            }
+            if (isRetryableStatus(response.code())) {
+                recordFailure();
+                IOException failure = new HttpStatusException(response.code(), response.message());
+                if (retry(failure, retryAfterMillis(response))) {
+                    response.close();
+                    return;
+                }
+            } else if (breaker != null) {
+                breaker.recordSuccess();
+            }
+
+            try {
+                T value = handler.handle(response);
+                if (!streaming) {
+                    response.close();
+                }
+                // A hedge that lost the race by a hair still holds an open stream
+                if (!result.complete(value)) {
+                    closeQuietly(value);
+                }
+            } catch (IOException | RuntimeException e) {
+                response.close();
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void attemptFailed(Call call, IOException e) {
+            synchronized (this) {
+                active.remove(call);
+                if (result.isDone()) {
+                    return;
+                }
+            }
+            recordFailure();
+            if (!retry(e, -1)) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Schedules another attempt after a failure, unless a hedge is still running
+         * (then its outcome decides), the attempts are used up or the backoff would
+         * overrun the deadline. Returns false if the failure is final.
+         */
+        private synchronized boolean retry(IOException failure, long retryAfterMillis) {
+            if (!active.isEmpty()) {
+                return true;
+            }
+            if (!retryable || attempts >= policy.getMaxAttempts()) {
+                return false;
+            }
+            long cap = Math.min(policy.getMaxBackoffMillis(),
+                    policy.getInitialBackoffMillis() << Math.min(attempts - 1, 20));
+            long backoff = retryAfterMillis >= 0 ? retryAfterMillis : ThreadLocalRandom.current().nextLong(cap + 1);
+            if (TimeUnit.MILLISECONDS.toNanos(backoff) >= deadline - System.nanoTime()) {
+                return false;
+            }
+            schedule(backoff, () -> {
+                synchronized (this) {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    // The circuit may have opened meanwhile; give up with the real error
+                    if (breaker != null && !breaker.tryAcquire()) {
+                        result.completeExceptionally(failure);
+                        return;
+                    }
+                    launch();
+                }
+            });
+            return true;
+        }
+
+        private void recordFailure() {
+            if (breaker != null) {
+                breaker.recordFailure();
+            }
+        }
+
+        // Called with the lock held
+        private void schedule(long delayMillis, Runnable task) {
+            timers.add(TIMERS.schedule(task, delayMillis, TimeUnit.MILLISECONDS));
+        }
+
+        private synchronized void finish() {
+            for (Call call : active) {
+                call.cancel();
+            }
+            active.clear();
+            for (ScheduledFuture<?> timer : timers) {
+                timer.cancel(false);
+            }
+            timers.clear();
+        }
+
+        private long retryAfterMillis(Response response) {
+            String retryAfter = response.header("Retry-After");
+            if (retryAfter == null) {
+                return -1;
+            }
+            try {
+                return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(retryAfter.trim())));
+            } catch (NumberFormatException e) {
+                // HTTP-date form; fall back to our own backoff
+                return -1;
+            }
+        }
+    }
+
+    public static class ConditionalResponse implements Closeable {
+        private final boolean notModified;
+        private final String etag;
+        private final String lastModified;
+        private final Reader reader;
+
+        ConditionalResponse(boolean notModified, String etag, String lastModified, Reader reader) {
+            this.notModified = notModified;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.reader = reader;
+        }
+
+        public boolean isNotModified() { return notModified; }
+        public String getEtag() { return etag; }
+        public String getLastModified() { return lastModified; }
+        public Reader getReader() { return reader; }
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
         }
     }
 }
@@ -0,0 +1,37 @@
+package com.carrental.frontend.utils;
+
+/**
+ * Point-in-time counters of an {@link LruCache}, used to size it.
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final int maxSize;
+
+    public CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d evictions=%d size=%d/%d hitRate=%.1f%%",
+                hits, misses, evictions, size, maxSize, getHitRate() * 100);
+    }
+}
@@ -0,0 +1,81 @@
+package com.carrental.frontend.utils;
+
+/**
+ * Consecutive-failure circuit breaker for one endpoint.
+ *
+ * Closed, it lets every request through. After {@code failureThreshold} failures
+ * in a row it opens and rejects requests for {@code openMillis}; then a single
+ * probe is let through (half-open), whose success closes the circuit again and
+ * whose failure reopens it.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long probeStartedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    /**
+     * Returns true if a request may be sent now. In the half-open state only the
+     * first caller gets true, until its outcome is recorded; a probe whose outcome
+     * never comes (say, it was cancelled) is replaced after {@code openMillis}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                long now = System.nanoTime();
+                if (probeInFlight && now - probeStartedAt < openNanos) {
+                    return false;
+                }
+                probeInFlight = true;
+                probeStartedAt = now;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+        probeInFlight = false;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Milliseconds until an open circuit lets a probe through, 0 if not open.
+     */
+    public synchronized long getRemainingOpenMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, (openNanos - (System.nanoTime() - openedAt)) / 1_000_000L);
+    }
+}
@@ -0,0 +1,19 @@
+package com.carrental.frontend.utils;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting the server when the endpoint's circuit breaker is open.
+ */
+public class CircuitOpenException extends IOException {
+    private final String endpoint;
+
+    public CircuitOpenException(String endpoint, long retryInMillis) {
+        super("Server unavailable for " + endpoint + ", retrying in " + (retryInMillis + 999) / 1000 + "s");
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
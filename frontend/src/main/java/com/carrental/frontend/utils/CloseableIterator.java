@@ -0,0 +1,30 @@
+package com.carrental.frontend.utils;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Iterator over a result that may hold an open connection until closed.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    static <T> CloseableIterator<T> of(List<T> items) {
+        Iterator<T> delegate = items.iterator();
+        return new CloseableIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return delegate.next();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.carrental.frontend.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes RFC 4180 style CSV one field at a time, the counterpart of
+ * {@link CsvReader}: records end in CRLF, and fields holding a comma, quote,
+ * line break or surrounding spaces are double-quoted with quotes doubled.
+ * Nothing is held beyond the underlying writer's buffer.
+ */
+public class CsvWriter implements Closeable, Flushable {
+    private final Writer writer;
+    private boolean atRecordStart = true;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+    }
+
+    /**
+     * Appends a field to the current record; null is written as an empty field.
+     */
+    public void writeField(String value) throws IOException {
+        if (!atRecordStart) {
+            writer.write(',');
+        }
+        atRecordStart = false;
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    public void endRecord() throws IOException {
+        writer.write("\r\n");
+        atRecordStart = true;
+    }
+
+    public void writeRecord(List<String> fields) throws IOException {
+        for (String field : fields) {
+            writeField(field);
+        }
+        endRecord();
+    }
+
+    private static boolean needsQuotes(String value) {
+        // Spreadsheet tools drop unquoted spaces at either end
+        if (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1))) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
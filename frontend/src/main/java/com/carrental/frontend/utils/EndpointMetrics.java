@@ -0,0 +1,58 @@
+package com.carrental.frontend.utils;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point-in-time figures for one endpoint, as shown in the diagnostics dialog and
+ * exposed over JMX. Durations are in milliseconds; the phase breakdown is the
+ * mean per call that went through that phase.
+ */
+public class EndpointMetrics {
+    private final String endpoint;
+    private final long requestCount;
+    private final long errorCount;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final double dnsMillis;
+    private final double connectMillis;
+    private final double ttfbMillis;
+    private final double bodyReadMillis;
+    private final long bytesSent;
+    private final long bytesReceived;
+
+    @ConstructorProperties({"endpoint", "requestCount", "errorCount", "p50Millis", "p95Millis", "p99Millis",
+            "maxMillis", "dnsMillis", "connectMillis", "ttfbMillis", "bodyReadMillis", "bytesSent", "bytesReceived"})
+    public EndpointMetrics(String endpoint, long requestCount, long errorCount, double p50Millis, double p95Millis,
+                           double p99Millis, double maxMillis, double dnsMillis, double connectMillis,
+                           double ttfbMillis, double bodyReadMillis, long bytesSent, long bytesReceived) {
+        this.endpoint = endpoint;
+        this.requestCount = requestCount;
+        this.errorCount = errorCount;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+        this.dnsMillis = dnsMillis;
+        this.connectMillis = connectMillis;
+        this.ttfbMillis = ttfbMillis;
+        this.bodyReadMillis = bodyReadMillis;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+    }
+
+    public String getEndpoint() { return endpoint; }
+    public long getRequestCount() { return requestCount; }
+    public long getErrorCount() { return errorCount; }
+    public double getP50Millis() { return p50Millis; }
+    public double getP95Millis() { return p95Millis; }
+    public double getP99Millis() { return p99Millis; }
+    public double getMaxMillis() { return maxMillis; }
+    public double getDnsMillis() { return dnsMillis; }
+    public double getConnectMillis() { return connectMillis; }
+    public double getTtfbMillis() { return ttfbMillis; }
+    public double getBodyReadMillis() { return bodyReadMillis; }
+    public long getBytesSent() { return bytesSent; }
+    public long getBytesReceived() { return bytesReceived; }
+}
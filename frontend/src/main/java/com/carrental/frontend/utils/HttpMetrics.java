@@ -0,0 +1,302 @@
+package com.carrental.frontend.utils;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-endpoint HTTP timings collected from OkHttp's call events: total latency
+ * percentiles, the DNS / connect / time-to-first-byte / body-read breakdown,
+ * bytes each way, failures and how often pooled connections were reused.
+ *
+ * Endpoints are keyed by method and path with ids replaced by {id}, so
+ * GET /api/cars/{id} is one endpoint rather than one per car. A call counts as
+ * an error when it fails at the transport level or gets a 4xx/5xx response.
+ */
+public class HttpMetrics implements EventListener.Factory, HttpMetricsMXBean {
+    public static final String OBJECT_NAME = "com.carrental.frontend:type=HttpMetrics";
+
+    // Mongo ObjectIds, UUIDs, numbers and anything with an @ (emails) are ids
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "[0-9a-fA-F]{24}|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+|[^/]*@[^/]*");
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong connectionsReused = new AtomicLong();
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallListener(stats(call.request()));
+    }
+
+    /**
+     * Registers this instance with the platform MBean server. Returns false if
+     * another instance already holds the name.
+     */
+    public boolean registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+            return true;
+        } catch (InstanceAlreadyExistsException e) {
+            return false;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public long getRequestCount() {
+        long total = 0;
+        for (EndpointStats stats : endpoints.values()) {
+            total += stats.requests.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getErrorCount() {
+        long total = 0;
+        for (EndpointStats stats : endpoints.values()) {
+            total += stats.errors.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    @Override
+    public long getConnectionsReused() {
+        return connectionsReused.get();
+    }
+
+    @Override
+    public List<EndpointMetrics> getEndpoints() {
+        List<EndpointMetrics> result = new ArrayList<>();
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            result.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        result.sort((a, b) -> a.getEndpoint().compareTo(b.getEndpoint()));
+        return result;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append("HTTP metrics at ").append(new Date()).append('\n');
+        out.append(String.format("requests=%d errors=%d connections opened=%d reused=%d%n",
+                getRequestCount(), getErrorCount(), getConnectionsOpened(), getConnectionsReused()));
+        out.append(String.format("%-40s %8s %6s %9s %9s %9s %9s %8s %8s %8s %8s %11s %11s%n",
+                "endpoint", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms",
+                "dns ms", "conn ms", "ttfb ms", "body ms", "bytes out", "bytes in"));
+        for (EndpointMetrics m : getEndpoints()) {
+            out.append(String.format("%-40s %8d %6d %9.1f %9.1f %9.1f %9.1f %8.1f %8.1f %8.1f %8.1f %11d %11d%n",
+                    m.getEndpoint(), m.getRequestCount(), m.getErrorCount(), m.getP50Millis(), m.getP95Millis(),
+                    m.getP99Millis(), m.getMaxMillis(), m.getDnsMillis(), m.getConnectMillis(), m.getTtfbMillis(),
+                    m.getBodyReadMillis(), m.getBytesSent(), m.getBytesReceived()));
+        }
+        return out.toString();
+    }
+
+    public void dumpTo(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(dump());
+        }
+    }
+
+    @Override
+    public void reset() {
+        endpoints.clear();
+        connectionsOpened.set(0);
+        connectionsReused.set(0);
+    }
+
+    static String endpointOf(Request request) {
+        StringBuilder key = new StringBuilder(request.method()).append(' ');
+        for (String segment : request.url().pathSegments()) {
+            key.append('/').append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the given latency percentile of the request's endpoint in
+     * milliseconds, or -1 if fewer than {@code minSamples} calls were measured.
+     */
+    long percentileMillis(Request request, double percentile, long minSamples) {
+        EndpointStats stats = endpoints.get(endpointOf(request));
+        if (stats == null || stats.total.getCount() < minSamples) {
+            return -1;
+        }
+        return stats.total.getPercentileMicros(percentile) / 1000;
+    }
+
+    private EndpointStats stats(Request request) {
+        return endpoints.computeIfAbsent(endpointOf(request), key -> new EndpointStats());
+    }
+
+    private static final class EndpointStats {
+        final LatencyHistogram total = new LatencyHistogram();
+        final LatencyHistogram dns = new LatencyHistogram();
+        final LatencyHistogram connect = new LatencyHistogram();
+        final LatencyHistogram ttfb = new LatencyHistogram();
+        final LatencyHistogram bodyRead = new LatencyHistogram();
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder bytesSent = new LongAdder();
+        final LongAdder bytesReceived = new LongAdder();
+
+        EndpointMetrics snapshot(String endpoint) {
+            return new EndpointMetrics(endpoint, requests.sum(), errors.sum(),
+                    total.getPercentileMicros(50) / 1000.0, total.getPercentileMicros(95) / 1000.0,
+                    total.getPercentileMicros(99) / 1000.0, total.getMaxMicros() / 1000.0,
+                    dns.getMeanMicros() / 1000.0, connect.getMeanMicros() / 1000.0,
+                    ttfb.getMeanMicros() / 1000.0, bodyRead.getMeanMicros() / 1000.0,
+                    bytesSent.sum(), bytesReceived.sum());
+        }
+    }
+
+    /**
+     * Timestamps of one call. OkHttp delivers a call's events sequentially, but not
+     * always on the same thread, hence the volatile fields.
+     */
+    private final class CallListener extends EventListener {
+        private final EndpointStats stats;
+        private volatile long callStart;
+        private volatile long dnsStart;
+        private volatile long connectStart;
+        private volatile long requestSent;
+        private volatile long bodyStart;
+        private volatile boolean connected;
+        private volatile boolean failed;
+
+        CallListener(EndpointStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> addresses) {
+            stats.dns.record(System.nanoTime() - dnsStart, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connectStart = System.nanoTime();
+            connected = true;
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+            stats.connect.record(System.nanoTime() - connectStart, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            // No connectStart for this call means the pool handed out a live connection
+            if (connected) {
+                connectionsOpened.incrementAndGet();
+            } else {
+                connectionsReused.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            requestSent = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            requestSent = System.nanoTime();
+            stats.bytesSent.add(byteCount);
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            if (requestSent != 0) {
+                stats.ttfb.record(System.nanoTime() - requestSent, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            if (response.code() >= 400) {
+                failed = true;
+            }
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            stats.bodyRead.record(System.nanoTime() - bodyStart, TimeUnit.NANOSECONDS);
+            stats.bytesReceived.add(byteCount);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            finish();
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            // Calls we cancelled ourselves, such as the losing half of a hedged
+            // request, are not errors; timeouts surface as InterruptedIOException
+            if (!call.isCanceled() || ioe instanceof InterruptedIOException) {
+                failed = true;
+            }
+            finish();
+        }
+
+        private void finish() {
+            stats.requests.increment();
+            stats.total.record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+            if (failed) {
+                stats.errors.increment();
+            }
+        }
+    }
+}
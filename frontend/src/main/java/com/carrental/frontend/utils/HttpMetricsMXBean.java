@@ -0,0 +1,23 @@
+package com.carrental.frontend.utils;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link HttpMetrics}, registered as
+ * {@code com.carrental.frontend:type=HttpMetrics}.
+ */
+public interface HttpMetricsMXBean {
+    long getRequestCount();
+
+    long getErrorCount();
+
+    long getConnectionsOpened();
+
+    long getConnectionsReused();
+
+    List<EndpointMetrics> getEndpoints();
+
+    String dump();
+
+    void reset();
+}
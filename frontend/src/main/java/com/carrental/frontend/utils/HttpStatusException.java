@@ -0,0 +1,27 @@
+package com.carrental.frontend.utils;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the server answers with an unsuccessful status code.
+ */
+public class HttpStatusException extends IOException {
+    private final int code;
+
+    public HttpStatusException(int code, String message) {
+        super("Unexpected code " + code + ": " + message);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * True for 4xx responses other than 408 and 429: the request itself was refused
+     * and sending it again will not change that.
+     */
+    public boolean isClientError() {
+        return code >= 400 && code < 500 && code != 408 && code != 429;
+    }
+}
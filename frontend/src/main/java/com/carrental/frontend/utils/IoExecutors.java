@@ -0,0 +1,49 @@
+package com.carrental.frontend.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for blocking network fan-out. On a JDK with virtual threads (21+)
+ * every task gets its own virtual thread; on older runtimes we fall back to a
+ * fixed pool of daemon platform threads. Callers bound concurrency themselves.
+ */
+public final class IoExecutors {
+
+    private IoExecutors() {
+    }
+
+    public static ExecutorService newIoExecutor(String name, int fallbackThreads) {
+        ExecutorService virtual = tryVirtualThreadExecutor();
+        if (virtual != null) {
+            return virtual;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(fallbackThreads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService tryVirtualThreadExecutor() {
+        try {
+            // Looked up reflectively so the module still targets Java 11
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.carrental.frontend.utils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the ISO-8601 dates the API sends without going through
+ * DateTimeFormatter for the common shapes: "2024-05-01", and date-times like
+ * "2024-05-01T10:30:00", "2024-05-01T10:30:00.1234567Z" or with a +02:00 offset.
+ * Anything else falls back to java.time's parsers.
+ *
+ * The backend stores every date as a DateTime, so a date-only field may arrive
+ * with a midnight time attached; {@link #parseDate} keeps the date part. Offsets
+ * are dropped: date-times are returned as the wall-clock time that was sent.
+ */
+public final class IsoDates {
+    private IsoDates() {
+    }
+
+    public static LocalDate parseDate(String text) {
+        if (isDatePrefix(text)) {
+            return LocalDate.of(digits(text, 0, 4), digits(text, 5, 7), digits(text, 8, 10));
+        }
+        return LocalDate.parse(text);
+    }
+
+    public static LocalDateTime parseDateTime(String text) {
+        int length = text.length();
+        if (isDatePrefix(text)) {
+            if (length == 10) {
+                return parseDate(text).atStartOfDay();
+            }
+            char separator = text.charAt(10);
+            if ((separator == 'T' || separator == ' ') && length >= 16 && text.charAt(13) == ':') {
+                int hour = digits(text, 11, 13);
+                int minute = digits(text, 14, 16);
+                int second = 0;
+                int nanos = 0;
+                int pos = 16;
+                if (pos < length && text.charAt(pos) == ':') {
+                    second = digits(text, pos + 1, pos + 3);
+                    pos += 3;
+                    if (pos < length && text.charAt(pos) == '.') {
+                        int scale = 100_000_000;
+                        for (pos++; pos < length && isDigit(text.charAt(pos)); pos++) {
+                            nanos += (text.charAt(pos) - '0') * scale;
+                            scale /= 10;
+                        }
+                    }
+                }
+                if (pos == length || isOffset(text, pos)) {
+                    return LocalDateTime.of(digits(text, 0, 4), digits(text, 5, 7), digits(text, 8, 10),
+                            hour, minute, second, nanos);
+                }
+            }
+        }
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(text).toLocalDateTime();
+        }
+    }
+
+    private static boolean isDatePrefix(String text) {
+        return text.length() >= 10 && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && allDigits(text, 0, 4) && allDigits(text, 5, 7) && allDigits(text, 8, 10)
+                && (text.length() == 10 || !isDigit(text.charAt(10)));
+    }
+
+    private static boolean isOffset(String text, int pos) {
+        char c = text.charAt(pos);
+        if (c == 'Z' || c == 'z') {
+            return pos + 1 == text.length();
+        }
+        return (c == '+' || c == '-') && text.length() - pos >= 3 && allDigits(text, pos + 1, pos + 3);
+    }
+
+    private static int digits(String text, int start, int end) {
+        if (end > text.length() || !allDigits(text, start, end)) {
+            throw new DateTimeParseException("Invalid date: " + text, text, start);
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static boolean allDigits(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
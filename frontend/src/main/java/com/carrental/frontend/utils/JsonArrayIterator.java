@@ -0,0 +1,78 @@
+package com.carrental.frontend.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the elements of a top-level JSON array one at a time, so only
+ * the element being decoded is held in memory rather than the whole document
+ * and the fully built list. Must be closed to release the HTTP connection.
+ */
+public class JsonArrayIterator<T> implements CloseableIterator<T> {
+    private final JsonReader reader;
+    private final Gson gson;
+    private final Type elementType;
+    private boolean started;
+    private boolean finished;
+
+    public JsonArrayIterator(Reader source, Gson gson, Type elementType) {
+        this.reader = new JsonReader(source);
+        this.gson = gson;
+        this.elementType = elementType;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (!started) {
+                started = true;
+                if (isEmptyOrNull()) {
+                    finished = true;
+                    return false;
+                }
+                reader.beginArray();
+            }
+            if (reader.hasNext()) {
+                return true;
+            }
+            reader.endArray();
+            finished = true;
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isEmptyOrNull() throws IOException {
+        try {
+            return reader.peek() == JsonToken.NULL;
+        } catch (EOFException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return gson.fromJson(reader, elementType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+}
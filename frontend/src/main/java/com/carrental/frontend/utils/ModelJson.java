@@ -0,0 +1,393 @@
+package com.carrental.frontend.utils;
+
+import com.carrental.frontend.models.Address;
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The Gson instance every part of the client shares, with streaming adapters for
+ * the models so that no field is bound through reflection.
+ *
+ * The default reflective binding cannot handle java.time on current JDKs (its
+ * fields are not open to Gson) and expects enum names where the API sends
+ * numbers. These adapters read and write the API's wire format instead: dates
+ * as ISO-8601 strings (see {@link IsoDates}), amounts as decimal numbers
+ * and {@link BookingStatus} as its number, while also accepting the status name.
+ * Like the default binding they skip unknown fields, leave out nulls when
+ * writing and accept numbers and booleans given as strings, which the bulk
+ * importer relies on for CSV rows.
+ */
+public final class ModelJson {
+    private static final Gson GSON = registerAdapters(new GsonBuilder()).create();
+
+    private ModelJson() {
+    }
+
+    public static Gson gson() {
+        return GSON;
+    }
+
+    public static GsonBuilder registerAdapters(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter().nullSafe())
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter().nullSafe())
+                .registerTypeAdapter(BigDecimal.class, new BigDecimalAdapter().nullSafe())
+                .registerTypeAdapter(BookingStatus.class, new BookingStatusAdapter().nullSafe())
+                .registerTypeAdapter(Address.class, new AddressAdapter().nullSafe())
+                .registerTypeAdapter(Car.class, new CarAdapter().nullSafe())
+                .registerTypeAdapter(Customer.class, new CustomerAdapter().nullSafe())
+                .registerTypeAdapter(Booking.class, new BookingAdapter().nullSafe());
+    }
+
+    private static final class LocalDateAdapter extends TypeAdapter<LocalDate> {
+        @Override
+        public void write(JsonWriter out, LocalDate value) throws IOException {
+            out.value(value.toString());
+        }
+
+        @Override
+        public LocalDate read(JsonReader in) throws IOException {
+            return readDate(in);
+        }
+    }
+
+    private static final class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
+        @Override
+        public void write(JsonWriter out, LocalDateTime value) throws IOException {
+            out.value(value.toString());
+        }
+
+        @Override
+        public LocalDateTime read(JsonReader in) throws IOException {
+            return readDateTime(in);
+        }
+    }
+
+    private static final class BigDecimalAdapter extends TypeAdapter<BigDecimal> {
+        @Override
+        public void write(JsonWriter out, BigDecimal value) throws IOException {
+            writeDecimal(out, value);
+        }
+
+        @Override
+        public BigDecimal read(JsonReader in) throws IOException {
+            return readDecimal(in);
+        }
+    }
+
+    private static final class BookingStatusAdapter extends TypeAdapter<BookingStatus> {
+        private static final BookingStatus[] VALUES = BookingStatus.values();
+
+        @Override
+        public void write(JsonWriter out, BookingStatus value) throws IOException {
+            out.value(value.ordinal());
+        }
+
+        @Override
+        public BookingStatus read(JsonReader in) throws IOException {
+            String text = in.nextString();
+            if (!text.isEmpty() && Character.isDigit(text.charAt(0))) {
+                int ordinal = Integer.parseInt(text);
+                return ordinal < VALUES.length ? VALUES[ordinal] : null;
+            }
+            for (BookingStatus status : VALUES) {
+                if (status.name().equalsIgnoreCase(text)) {
+                    return status;
+                }
+            }
+            // Like Gson's own enum binding, an unknown value reads as no status
+            return null;
+        }
+    }
+
+    private static final class AddressAdapter extends TypeAdapter<Address> {
+        @Override
+        public void write(JsonWriter out, Address value) throws IOException {
+            out.beginObject();
+            writeString(out, "street", value.getStreet());
+            writeString(out, "city", value.getCity());
+            writeString(out, "state", value.getState());
+            writeString(out, "zipCode", value.getZipCode());
+            writeString(out, "country", value.getCountry());
+            out.endObject();
+        }
+
+        @Override
+        public Address read(JsonReader in) throws IOException {
+            Address address = new Address();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "street": address.setStreet(in.nextString()); break;
+                    case "city": address.setCity(in.nextString()); break;
+                    case "state": address.setState(in.nextString()); break;
+                    case "zipCode": address.setZipCode(in.nextString()); break;
+                    case "country": address.setCountry(in.nextString()); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return address;
+        }
+    }
+
+    private static final class CarAdapter extends TypeAdapter<Car> {
+        @Override
+        public void write(JsonWriter out, Car value) throws IOException {
+            out.beginObject();
+            writeString(out, "id", value.getId());
+            writeString(out, "make", value.getMake());
+            writeString(out, "model", value.getModel());
+            out.name("year").value(value.getYear());
+            writeString(out, "color", value.getColor());
+            writeString(out, "licensePlate", value.getLicensePlate());
+            if (value.getDailyRate() != null) {
+                writeDecimal(out.name("dailyRate"), value.getDailyRate());
+            }
+            out.name("isAvailable").value(value.isAvailable());
+            writeString(out, "fuelType", value.getFuelType());
+            writeString(out, "transmission", value.getTransmission());
+            out.name("seats").value(value.getSeats());
+            writeString(out, "imageUrl", value.getImageUrl());
+            writeString(out, "description", value.getDescription());
+            out.endObject();
+        }
+
+        @Override
+        public Car read(JsonReader in) throws IOException {
+            Car car = new Car();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": car.setId(in.nextString()); break;
+                    case "make": car.setMake(in.nextString()); break;
+                    case "model": car.setModel(in.nextString()); break;
+                    case "year": car.setYear(readInt(in)); break;
+                    case "color": car.setColor(in.nextString()); break;
+                    case "licensePlate": car.setLicensePlate(in.nextString()); break;
+                    case "dailyRate": car.setDailyRate(readDecimal(in)); break;
+                    case "isAvailable": car.setAvailable(readBoolean(in)); break;
+                    case "fuelType": car.setFuelType(in.nextString()); break;
+                    case "transmission": car.setTransmission(in.nextString()); break;
+                    case "seats": car.setSeats(readInt(in)); break;
+                    case "imageUrl": car.setImageUrl(in.nextString()); break;
+                    case "description": car.setDescription(in.nextString()); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return car;
+        }
+    }
+
+    private static final class CustomerAdapter extends TypeAdapter<Customer> {
+        private final AddressAdapter addressAdapter = new AddressAdapter();
+
+        @Override
+        public void write(JsonWriter out, Customer value) throws IOException {
+            out.beginObject();
+            writeString(out, "id", value.getId());
+            writeString(out, "firstName", value.getFirstName());
+            writeString(out, "lastName", value.getLastName());
+            writeString(out, "email", value.getEmail());
+            writeString(out, "phone", value.getPhone());
+            if (value.getAddress() != null) {
+                addressAdapter.write(out.name("address"), value.getAddress());
+            }
+            writeDate(out, "dateOfBirth", value.getDateOfBirth());
+            writeString(out, "driversLicense", value.getDriversLicense());
+            writeDate(out, "createdAt", value.getCreatedAt());
+            out.endObject();
+        }
+
+        @Override
+        public Customer read(JsonReader in) throws IOException {
+            Customer customer = new Customer();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    if (name.equals("address")) {
+                        customer.setAddress(null);
+                    }
+                    continue;
+                }
+                switch (name) {
+                    case "id": customer.setId(in.nextString()); break;
+                    case "firstName": customer.setFirstName(in.nextString()); break;
+                    case "lastName": customer.setLastName(in.nextString()); break;
+                    case "email": customer.setEmail(in.nextString()); break;
+                    case "phone": customer.setPhone(in.nextString()); break;
+                    case "address": customer.setAddress(addressAdapter.read(in)); break;
+                    case "dateOfBirth": customer.setDateOfBirth(readDate(in)); break;
+                    case "driversLicense": customer.setDriversLicense(in.nextString()); break;
+                    case "createdAt": customer.setCreatedAt(readDate(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return customer;
+        }
+    }
+
+    private static final class BookingAdapter extends TypeAdapter<Booking> {
+        private final BookingStatusAdapter statusAdapter = new BookingStatusAdapter();
+
+        @Override
+        public void write(JsonWriter out, Booking value) throws IOException {
+            out.beginObject();
+            writeString(out, "id", value.getId());
+            writeString(out, "customerId", value.getCustomerId());
+            writeString(out, "carId", value.getCarId());
+            writeDate(out, "pickupDate", value.getPickupDate());
+            writeDate(out, "returnDate", value.getReturnDate());
+            out.name("totalDays").value(value.getTotalDays());
+            if (value.getDailyRate() != null) {
+                writeDecimal(out.name("dailyRate"), value.getDailyRate());
+            }
+            if (value.getTotalAmount() != null) {
+                writeDecimal(out.name("totalAmount"), value.getTotalAmount());
+            }
+            if (value.getStatus() != null) {
+                statusAdapter.write(out.name("status"), value.getStatus());
+            }
+            writeString(out, "pickupLocation", value.getPickupLocation());
+            writeString(out, "returnLocation", value.getReturnLocation());
+            if (value.getCreatedAt() != null) {
+                out.name("createdAt").value(value.getCreatedAt().toString());
+            }
+            if (value.getUpdatedAt() != null) {
+                out.name("updatedAt").value(value.getUpdatedAt().toString());
+            }
+            writeString(out, "notes", value.getNotes());
+            writeString(out, "customerName", value.getCustomerName());
+            writeString(out, "carInfo", value.getCarInfo());
+            out.endObject();
+        }
+
+        @Override
+        public Booking read(JsonReader in) throws IOException {
+            Booking booking = new Booking();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": booking.setId(in.nextString()); break;
+                    case "customerId": booking.setCustomerId(in.nextString()); break;
+                    case "carId": booking.setCarId(in.nextString()); break;
+                    case "pickupDate": booking.setPickupDate(readDate(in)); break;
+                    case "returnDate": booking.setReturnDate(readDate(in)); break;
+                    case "totalDays": booking.setTotalDays(readInt(in)); break;
+                    case "dailyRate": booking.setDailyRate(readDecimal(in)); break;
+                    case "totalAmount": booking.setTotalAmount(readDecimal(in)); break;
+                    case "status": booking.setStatus(statusAdapter.read(in)); break;
+                    case "pickupLocation": booking.setPickupLocation(in.nextString()); break;
+                    case "returnLocation": booking.setReturnLocation(in.nextString()); break;
+                    case "createdAt": booking.setCreatedAt(readDateTime(in)); break;
+                    case "updatedAt": booking.setUpdatedAt(readDateTime(in)); break;
+                    case "notes": booking.setNotes(in.nextString()); break;
+                    case "customerName": booking.setCustomerName(in.nextString()); break;
+                    case "carInfo": booking.setCarInfo(in.nextString()); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return booking;
+        }
+    }
+
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    private static void writeDate(JsonWriter out, String name, LocalDate value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value.toString());
+        }
+    }
+
+    private static void writeDecimal(JsonWriter out, BigDecimal value) throws IOException {
+        // A negative scale would print as e.g. 1E+3; jsonValue() would avoid that but
+        // is not supported when writing to a JsonElement tree
+        out.value(value.scale() < 0 ? value.setScale(0) : value);
+    }
+
+    private static int readInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Expected a whole number at " + in.getPath(), e);
+        }
+    }
+
+    private static boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    private static BigDecimal readDecimal(JsonReader in) throws IOException {
+        String text = in.nextString();
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException("Expected a number but was \"" + text + "\" at " + in.getPath(), e);
+        }
+    }
+
+    private static LocalDate readDate(JsonReader in) throws IOException {
+        String text = in.nextString();
+        try {
+            LocalDate date = IsoDates.parseDate(text);
+            // The models keep a date as an int epoch day; see EpochTime
+            if (date != null && (date.toEpochDay() <= Integer.MIN_VALUE || date.toEpochDay() > Integer.MAX_VALUE)) {
+                throw new DateTimeException("Date out of range: " + date);
+            }
+            return date;
+        } catch (DateTimeException e) {
+            throw new JsonSyntaxException("Expected a date but was \"" + text + "\" at " + in.getPath(), e);
+        }
+    }
+
+    private static LocalDateTime readDateTime(JsonReader in) throws IOException {
+        String text = in.nextString();
+        try {
+            return IsoDates.parseDateTime(text);
+        } catch (DateTimeException e) {
+            throw new JsonSyntaxException("Expected a date and time but was \"" + text + "\" at " + in.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.carrental.frontend.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Opens the files the client keeps under ~/.carrental, which hold customer
+ * details, so that only their owner can read them: rw------- for files and
+ * rwx------ for directories created on the way, whatever the umask allows.
+ * Files that already exist are narrowed to owner-only when opened. On file
+ * systems without POSIX permissions (Windows) files are opened as usual and
+ * rely on the access control of the user's profile directory.
+ */
+public final class PrivateFiles {
+    private static final Set<PosixFilePermission> OWNER_FILE = PosixFilePermissions.fromString("rw-------");
+    private static final Set<PosixFilePermission> OWNER_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
+    private PrivateFiles() {
+    }
+
+    public static void createDirectories(Path directory) throws IOException {
+        Path absolute = directory.toAbsolutePath();
+        if (isPosix(absolute)) {
+            Files.createDirectories(absolute, PosixFilePermissions.asFileAttribute(OWNER_DIRECTORY));
+        } else {
+            Files.createDirectories(absolute);
+        }
+    }
+
+    public static FileChannel open(Path file, OpenOption... options) throws IOException {
+        Set<OpenOption> optionSet = new HashSet<>(Arrays.asList(options));
+        if (!isPosix(file)) {
+            return FileChannel.open(file, optionSet);
+        }
+        FileChannel channel = FileChannel.open(file, optionSet, ownerOnly());
+        try {
+            Files.setPosixFilePermissions(file, OWNER_FILE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    /**
+     * Opens {@code file} for writing from the start, replacing any existing file.
+     */
+    public static OutputStream newOutputStream(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        return Channels.newOutputStream(open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    private static FileAttribute<Set<PosixFilePermission>> ownerOnly() {
+        return PosixFilePermissions.asFileAttribute(OWNER_FILE);
+    }
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+}
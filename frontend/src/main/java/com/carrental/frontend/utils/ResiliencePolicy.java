@@ -0,0 +1,150 @@
+package com.carrental.frontend.utils;
+
+/**
+ * How {@link ApiClient} protects callers from a slow or failing backend.
+ *
+ * <ul>
+ *   <li>Every call has a deadline covering all of its attempts.</li>
+ *   <li>GET and PUT are retried after transport failures, 5xx and 429 responses,
+ *       with exponentially growing, fully jittered backoff.</li>
+ *   <li>A GET that has not received its response headers after the endpoint's
+ *       observed p95 latency is hedged with a second, concurrent request; the
+ *       first response wins and the other is cancelled.</li>
+ *   <li>After a run of consecutive failures an endpoint's circuit opens and calls
+ *       to it fail immediately until a probe request succeeds.</li>
+ * </ul>
+ *
+ * Instances are immutable; create them with {@link #builder()}.
+ */
+public final class ResiliencePolicy {
+    private final long deadlineMillis;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final boolean hedging;
+    private final double hedgePercentile;
+    private final long minHedgeDelayMillis;
+    private final long hedgeMinSamples;
+    private final int breakerFailureThreshold;
+    private final long breakerOpenMillis;
+
+    private ResiliencePolicy(Builder builder) {
+        this.deadlineMillis = builder.deadlineMillis;
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+        this.hedging = builder.hedging;
+        this.hedgePercentile = builder.hedgePercentile;
+        this.minHedgeDelayMillis = builder.minHedgeDelayMillis;
+        this.hedgeMinSamples = builder.hedgeMinSamples;
+        this.breakerFailureThreshold = builder.breakerFailureThreshold;
+        this.breakerOpenMillis = builder.breakerOpenMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static ResiliencePolicy defaults() {
+        return builder().build();
+    }
+
+    /**
+     * One attempt per call and no circuit breaker; only the deadline applies.
+     */
+    public static ResiliencePolicy none() {
+        return builder().maxAttempts(1).hedging(false).breakerFailureThreshold(0).build();
+    }
+
+    public long getDeadlineMillis() { return deadlineMillis; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public long getInitialBackoffMillis() { return initialBackoffMillis; }
+    public long getMaxBackoffMillis() { return maxBackoffMillis; }
+    public boolean isHedging() { return hedging; }
+    public double getHedgePercentile() { return hedgePercentile; }
+    public long getMinHedgeDelayMillis() { return minHedgeDelayMillis; }
+    public long getHedgeMinSamples() { return hedgeMinSamples; }
+    public int getBreakerFailureThreshold() { return breakerFailureThreshold; }
+    public long getBreakerOpenMillis() { return breakerOpenMillis; }
+
+    public boolean isBreakerEnabled() {
+        return breakerFailureThreshold > 0;
+    }
+
+    public static final class Builder {
+        private long deadlineMillis = 15_000;
+        private int maxAttempts = 3;
+        private long initialBackoffMillis = 100;
+        private long maxBackoffMillis = 2_000;
+        private boolean hedging = true;
+        private double hedgePercentile = 95;
+        private long minHedgeDelayMillis = 50;
+        private long hedgeMinSamples = 20;
+        private int breakerFailureThreshold = 5;
+        private long breakerOpenMillis = 10_000;
+
+        private Builder() {
+        }
+
+        /** Upper bound on the whole call, retries and backoff included. */
+        public Builder deadlineMillis(long deadlineMillis) {
+            this.deadlineMillis = positive(deadlineMillis, "deadlineMillis");
+            return this;
+        }
+
+        /** Attempts of a retryable call, the first one included; 1 disables retries. */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = (int) positive(maxAttempts, "maxAttempts");
+            return this;
+        }
+
+        /** Backoff before the n-th retry is random in [0, min(max, initial * 2^(n-1))]. */
+        public Builder backoffMillis(long initialBackoffMillis, long maxBackoffMillis) {
+            this.initialBackoffMillis = positive(initialBackoffMillis, "initialBackoffMillis");
+            this.maxBackoffMillis = Math.max(initialBackoffMillis, maxBackoffMillis);
+            return this;
+        }
+
+        public Builder hedging(boolean hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * Hedge after the given latency percentile of the endpoint, but no sooner than
+         * {@code minDelayMillis}, and only once {@code minSamples} calls were measured.
+         */
+        public Builder hedgeAfter(double percentile, long minDelayMillis, long minSamples) {
+            if (percentile <= 0 || percentile >= 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+            }
+            this.hedgePercentile = percentile;
+            this.minHedgeDelayMillis = Math.max(0, minDelayMillis);
+            this.hedgeMinSamples = Math.max(1, minSamples);
+            return this;
+        }
+
+        /** Consecutive failures that open an endpoint's circuit; 0 disables the breaker. */
+        public Builder breakerFailureThreshold(int breakerFailureThreshold) {
+            this.breakerFailureThreshold = Math.max(0, breakerFailureThreshold);
+            return this;
+        }
+
+        /** How long an open circuit fails fast before letting a probe through. */
+        public Builder breakerOpenMillis(long breakerOpenMillis) {
+            this.breakerOpenMillis = positive(breakerOpenMillis, "breakerOpenMillis");
+            return this;
+        }
+
+        public ResiliencePolicy build() {
+            return new ResiliencePolicy(this);
+        }
+
+        private static long positive(long value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.carrental.frontend.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical requests into one: while a load for a key is in
+ * flight, further callers with the same key wait for it and get the same result
+ * (or the same failure) instead of starting their own. Nothing is kept once the
+ * load completes; caching is left to the caller.
+ *
+ * Blocking and asynchronous callers share the same in-flight loads.
+ *
+ * A blocking load runs on its leader's thread, and a leader may be interrupted
+ * because its own caller moved on, such as a refresh superseded by a newer one.
+ * That is not a failure of the load, so it is not handed on: callers still
+ * waiting take over, one of them starting a fresh load, rather than getting the
+ * leader's InterruptedIOException.
+ */
+public class SingleFlight<K> {
+    public interface Loader<V> {
+        V load() throws IOException;
+    }
+
+    private final ConcurrentHashMap<K, Flight<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code loader} on the calling thread, or waits for the load already in
+     * flight for {@code key}.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Loader<V> loader) throws IOException {
+        while (true) {
+            Flight<V> flight = new Flight<>();
+            Flight<V> existing = (Flight<V>) inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(key, flight, loader);
+            }
+            try {
+                return await(existing.result);
+            } catch (Abandoned e) {
+                // The leader was interrupted; join or start the next load
+            }
+        }
+    }
+
+    private <V> V lead(K key, Flight<V> flight, Loader<V> loader) throws IOException {
+        try {
+            V value = loader.load();
+            land(key, flight, value, null);
+            return value;
+        } catch (IOException | RuntimeException e) {
+            land(key, flight, null, isInterruption(e) ? new Abandoned() : e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts {@code loader} unless a load for {@code key} is already in flight.
+     * Each caller gets its own future; the shared load is cancelled only once every
+     * caller waiting on it has cancelled.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        Flight<V> flight = new Flight<>();
+        Flight<V> existing = (Flight<V>) inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing.join(() -> executeAsync(key, loader));
+        }
+        CompletableFuture<V> caller = flight.join(null);
+        try {
+            flight.source = loader.get();
+            flight.source.whenComplete((value, error) -> land(key, flight, value, error));
+        } catch (RuntimeException e) {
+            land(key, flight, null, e);
+        }
+        return caller;
+    }
+
+    /**
+     * Detaches in-flight loads whose key matches, so that callers arriving from
+     * now on start a fresh load. Use after a write that may make them stale;
+     * callers already waiting still get the old result.
+     */
+    public void forgetIf(Predicate<? super K> predicate) {
+        inFlight.keySet().removeIf(predicate);
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private <V> void land(K key, Flight<V> flight, V value, Throwable error) {
+        // Detach first so nobody joins a load that has already finished
+        inFlight.remove(key, flight);
+        if (error != null) {
+            flight.result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        } else {
+            flight.result.complete(value);
+        }
+    }
+
+    /**
+     * Whether a blocking leader failed because its thread was interrupted or its
+     * call cancelled, rather than because of the server. Socket timeouts are real
+     * failures and are shared.
+     */
+    private static boolean isInterruption(Exception e) {
+        return Thread.currentThread().isInterrupted() || e instanceof CancellationException
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException));
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a shared request");
+        } catch (CancellationException e) {
+            throw new IOException("Shared request was cancelled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /** Lands a flight whose blocking leader was interrupted; never seen by callers. */
+    private static final class Abandoned extends RuntimeException {
+        Abandoned() {
+            super("Shared request was abandoned by its leader", null, false, false);
+        }
+    }
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        // Asynchronous callers still waiting, so the load is cancelled with the last of them
+        final AtomicInteger waiters = new AtomicInteger();
+        // The asynchronous load behind this flight; null for blocking loads
+        volatile CompletableFuture<V> source;
+
+        /**
+         * A future for one more asynchronous caller. If the flight is abandoned,
+         * the caller is switched to the load {@code retry} joins or starts.
+         */
+        CompletableFuture<V> join(Supplier<CompletableFuture<V>> retry) {
+            waiters.incrementAndGet();
+            CompletableFuture<V> caller = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error instanceof Abandoned && retry != null && !caller.isDone()) {
+                    CompletableFuture<V> next = retry.get();
+                    next.whenComplete((nextValue, nextError) -> complete(caller, nextValue, nextError));
+                    caller.whenComplete((ignored, callerError) -> {
+                        if (caller.isCancelled()) {
+                            next.cancel(true);
+                        }
+                    });
+                } else {
+                    complete(caller, value, error);
+                }
+            });
+            caller.whenComplete((value, error) -> {
+                CompletableFuture<V> load = source;
+                if (caller.isCancelled() && waiters.decrementAndGet() == 0 && load != null) {
+                    load.cancel(true);
+                }
+            });
+            return caller;
+        }
+
+        private static <V> void complete(CompletableFuture<V> caller, V value, Throwable error) {
+            if (error != null) {
+                caller.completeExceptionally(error);
+            } else {
+                caller.complete(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.carrental.frontend.utils;
+
+import javax.swing.SwingUtilities;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs blocking work (HTTP calls, parsing) on a background pool and hands the
+ * result back on the Event Dispatch Thread, so Swing listeners never block.
+ *
+ * Tasks submitted under the same key replace each other: a second Refresh click
+ * cancels the load that is still in flight instead of queueing another one.
+ */
+public class TaskRunner {
+    private static final int MAX_PENDING_CHUNKS = 4;
+
+    private final ExecutorService executor;
+    private final Map<String, Future<?>> tasksByKey = new ConcurrentHashMap<>();
+    // Bumped by every submit and cancel under a key; only the latest task's results are delivered
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private volatile IntConsumer busyListener = count -> {};
+
+    public TaskRunner(int threads) {
+        this.executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+    }
+
+    /**
+     * Registers a callback invoked on the EDT with the number of running tasks
+     * whenever it changes.
+     */
+    public void setBusyListener(IntConsumer busyListener) {
+        this.busyListener = busyListener != null ? busyListener : count -> {};
+    }
+
+    public int getActiveTaskCount() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Submits {@code work} to the pool. Exactly one of {@code onSuccess} or
+     * {@code onFailure} runs on the EDT, unless the task is cancelled or, for a
+     * keyed task, superseded first. A task superseded after it completed still
+     * delivers nothing, so a slow load cannot overwrite a newer one's result.
+     */
+    public <T> Future<T> submit(String key, Callable<T> work,
+                                Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+        BackgroundTask<T> task = new BackgroundTask<>(key, nextGeneration(key), work, onSuccess, onFailure);
+        if (key != null) {
+            Future<?> previous = tasksByKey.put(key, task);
+            if (previous != null) {
+                previous.cancel(true);
+            }
+        }
+        taskStarted();
+        executor.execute(task);
+        return task;
+    }
+
+    public <T> Future<T> submit(Callable<T> work, Consumer<? super T> onSuccess, Consumer<? super Exception> onFailure) {
+        return submit(null, work, onSuccess, onFailure);
+    }
+
+    /**
+     * Streams elements from {@code source} and delivers them to {@code onChunk} on
+     * the EDT in batches of {@code chunkSize}, so tables fill progressively while
+     * the response is still being read. At most {@link #MAX_PENDING_CHUNKS} batches
+     * wait on the EDT at a time; the reader blocks until the UI catches up, which
+     * keeps memory bounded regardless of the size of the collection.
+     */
+    public <T> Future<Integer> stream(String key, Callable<? extends Iterator<T>> source, int chunkSize,
+                                      Consumer<? super List<T>> onChunk, IntConsumer onComplete,
+                                      Consumer<? super Exception> onFailure) {
+        AtomicReference<Future<Integer>> self = new AtomicReference<>();
+        Callable<Integer> work = () -> {
+            Semaphore pendingChunks = new Semaphore(MAX_PENDING_CHUNKS);
+            Iterator<T> iterator = source.call();
+            int count = 0;
+            try {
+                List<T> chunk = new ArrayList<>(chunkSize);
+                while (iterator.hasNext()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    chunk.add(iterator.next());
+                    count++;
+                    if (chunk.size() == chunkSize) {
+                        publish(self, chunk, onChunk, pendingChunks);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    publish(self, chunk, onChunk, pendingChunks);
+                }
+            } finally {
+                if (iterator instanceof Closeable) {
+                    ((Closeable) iterator).close();
+                }
+            }
+            return count;
+        };
+        Future<Integer> future = submit(key, work, onComplete::accept, onFailure);
+        self.set(future);
+        return future;
+    }
+
+    private <T> void publish(AtomicReference<Future<Integer>> self, List<T> chunk,
+                             Consumer<? super List<T>> onChunk, Semaphore pendingChunks) throws InterruptedException {
+        pendingChunks.acquire();
+        SwingUtilities.invokeLater(() -> {
+            try {
+                Future<Integer> future = self.get();
+                if (future == null || !future.isCancelled() && ((BackgroundTask<?>) future).isCurrent()) {
+                    onChunk.accept(chunk);
+                }
+            } finally {
+                pendingChunks.release();
+            }
+        });
+    }
+
+    public void cancel(String key) {
+        nextGeneration(key);
+        Future<?> task = tasksByKey.remove(key);
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    public void shutdown() {
+        tasksByKey.values().forEach(task -> task.cancel(true));
+        tasksByKey.clear();
+        executor.shutdownNow();
+    }
+
+    private long nextGeneration(String key) {
+        return key != null ? generations.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet() : 0;
+    }
+
+    private void taskStarted() {
+        fireBusyChanged(activeTasks.incrementAndGet());
+    }
+
+    private void taskFinished() {
+        fireBusyChanged(activeTasks.decrementAndGet());
+    }
+
+    private void fireBusyChanged(int count) {
+        IntConsumer listener = busyListener;
+        if (SwingUtilities.isEventDispatchThread()) {
+            listener.accept(count);
+        } else {
+            SwingUtilities.invokeLater(() -> listener.accept(activeTasks.get()));
+        }
+    }
+
+    private final class BackgroundTask<T> extends FutureTask<T> {
+        private final String key;
+        private final long generation;
+        private final Consumer<? super T> onSuccess;
+        private final Consumer<? super Exception> onFailure;
+
+        BackgroundTask(String key, long generation, Callable<T> work, Consumer<? super T> onSuccess,
+                       Consumer<? super Exception> onFailure) {
+            super(work);
+            this.key = key;
+            this.generation = generation;
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+        }
+
+        /** False once another task was submitted, or the key cancelled, after this one. */
+        boolean isCurrent() {
+            return key == null || generations.get(key).get() == generation;
+        }
+
+        @Override
+        protected void done() {
+            if (key != null) {
+                tasksByKey.remove(key, this);
+            }
+            taskFinished();
+            if (isCancelled()) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                // A newer task may have superseded this one after it completed, too late to cancel it
+                if (!isCurrent()) {
+                    return;
+                }
+                try {
+                    onSuccess.accept(get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    onFailure.accept(cause instanceof Exception ? (Exception) cause : e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "carrental-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalIndexTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void returnDayIsFreeForTheNextPickup() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(booking("b1", "car", 0, 3));
+
+        assertTrue(index.isAvailable("car", day(3), day(5)));
+        assertTrue(index.isAvailable("car", day(-2), day(0)));
+        assertFalse(index.isAvailable("car", day(2), day(4)));
+        assertFalse(index.isAvailable("car", day(-1), day(1)));
+    }
+
+    @Test
+    void findsContainedCoveringAndEdgeOverlaps() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.addAll(Arrays.asList(
+                booking("left", "car", 0, 5),
+                booking("inside", "car", 6, 8),
+                booking("right", "car", 9, 12),
+                booking("other-car", "other", 0, 30)));
+
+        assertEquals(Arrays.asList("left", "inside", "right"), index.getConflicts("car", day(4), day(10)));
+        assertEquals(Collections.singletonList("inside"), index.getConflicts("car", day(5), day(9)));
+        assertEquals(Collections.singletonList("left"), index.getConflicts("car", day(1), day(2)));
+        assertEquals(Collections.emptyList(), index.getConflicts("car", day(12), day(20)));
+        assertEquals(Collections.emptyList(), index.getConflicts("unknown", day(0), day(20)));
+    }
+
+    @Test
+    void longBookingIsFoundBehindLaterShortOnes() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.addAll(Arrays.asList(
+                booking("long", "car", 0, 40),
+                booking("short1", "car", 2, 3),
+                booking("short2", "car", 5, 6)));
+
+        // Starts after every booking, so only the running maximum end reaches "long"
+        assertEquals(Collections.singletonList("long"), index.getConflicts("car", day(20), day(21)));
+    }
+
+    @Test
+    void cancelledBookingsAreNotIndexed() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        Booking booking = booking("b1", "car", 0, 3);
+        index.put(booking);
+        booking.setStatus(BookingStatus.CANCELLED);
+        index.put(booking);
+
+        assertTrue(index.isAvailable("car", day(0), day(3)));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void updatedBookingMovesToItsNewCar() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        Booking booking = booking("b1", "car-a", 0, 3);
+        index.put(booking);
+        booking.setCarId("car-b");
+        index.put(booking);
+
+        assertTrue(index.isAvailable("car-a", day(0), day(3)));
+        assertFalse(index.isAvailable("car-b", day(0), day(3)));
+
+        index.remove("b1");
+        assertTrue(index.isAvailable("car-b", day(0), day(3)));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void nextFreeStartSkipsGapsThatAreTooShort() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.addAll(Arrays.asList(
+                booking("b1", "car", 0, 3),
+                booking("b2", "car", 5, 8),
+                booking("b3", "car", 9, 10)));
+
+        assertEquals(day(3), index.findNextFreeStart("car", day(0), 2));
+        assertEquals(day(10), index.findNextFreeStart("car", day(0), 3));
+        assertEquals(day(8), index.findNextFreeStart("car", day(6), 1));
+        assertEquals(day(20), index.findNextFreeStart("car", day(20), 5));
+        assertEquals(day(0), index.findNextFreeStart("unknown", day(0), 5));
+    }
+
+    @Test
+    void matchesNaiveScanOnRandomBookings() {
+        Random random = new Random(8);
+        for (int round = 0; round < 50; round++) {
+            List<Booking> bookings = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                int start = random.nextInt(100);
+                Booking booking = booking("b" + i, "car", start, start + 1 + random.nextInt(15));
+                if (random.nextInt(6) == 0) {
+                    booking.setStatus(BookingStatus.CANCELLED);
+                }
+                bookings.add(booking);
+            }
+            BookingIntervalIndex index = new BookingIntervalIndex();
+            index.rebuild(bookings);
+
+            for (int query = 0; query < 50; query++) {
+                int from = random.nextInt(120) - 10;
+                int to = from + 1 + random.nextInt(20);
+                assertEquals(naiveConflicts(bookings, from, to), index.getConflicts("car", day(from), day(to)));
+
+                int days = to - from;
+                int free = from;
+                while (!naiveConflicts(bookings, free, free + days).isEmpty()) {
+                    free++;
+                }
+                assertEquals(day(free), index.findNextFreeStart("car", day(from), days));
+            }
+        }
+    }
+
+    /** Conflicting booking ids in order of pickup, then of position in the list. */
+    private static List<String> naiveConflicts(List<Booking> bookings, int from, int to) {
+        List<Booking> conflicts = new ArrayList<>();
+        for (Booking booking : bookings) {
+            long start = booking.getPickupDate().toEpochDay() - DAY.toEpochDay();
+            long end = booking.getReturnDate().toEpochDay() - DAY.toEpochDay();
+            if (booking.getStatus() != BookingStatus.CANCELLED && start < to && end > from) {
+                conflicts.add(booking);
+            }
+        }
+        conflicts.sort((a, b) -> a.getPickupDate().compareTo(b.getPickupDate()));
+        List<String> ids = new ArrayList<>();
+        for (Booking booking : conflicts) {
+            ids.add(booking.getId());
+        }
+        return ids;
+    }
+
+    private static Booking booking(String id, String carId, int pickup, int returned) {
+        Booking booking = new Booking("customer", carId, day(pickup), day(returned), "Airport", "Airport");
+        booking.setId(id);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+
+    private static LocalDate day(int offset) {
+        return DAY.plusDays(offset);
+    }
+}
@@ -0,0 +1,283 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.stub.StubBackend;
+import com.carrental.frontend.utils.CloseableIterator;
+import com.carrental.frontend.utils.HttpStatusException;
+import com.carrental.frontend.utils.ResiliencePolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CarRentalService over HTTP against the in-process {@link StubBackend}.
+ */
+class CarRentalServiceTest {
+    private StubBackend backend;
+    private CarRentalService service;
+
+    @BeforeEach
+    void startBackend() throws IOException {
+        backend = StubBackend.builder().seed(7).cars(50).customers(40).bookings(100).gzip(true).start();
+        service = new CarRentalService(backend.baseUrl(), ResiliencePolicy.none());
+    }
+
+    @AfterEach
+    void stopBackend() {
+        backend.close();
+    }
+
+    @Test
+    void streamedProjectedAndBufferedListsAgree() throws IOException {
+        List<Car> buffered = service.getAllCars();
+        List<Car> streamed = new ArrayList<>();
+        try (CloseableIterator<Car> iterator = service.streamAllCars()) {
+            iterator.forEachRemaining(streamed::add);
+        }
+        List<Car> projected = service.getAllCars(CarRentalService.CAR_TABLE_FIELDS);
+
+        assertEquals(50, buffered.size());
+        assertEquals(ids(buffered), ids(streamed));
+        assertEquals(ids(buffered), ids(projected));
+        assertNotNull(buffered.get(0).getDescription());
+        assertNull(projected.get(0).getDescription());
+        assertEquals(buffered.get(0).getLicensePlate(), projected.get(0).getLicensePlate());
+    }
+
+    @Test
+    void repeatedListIsRevalidatedRatherThanSentAgain() throws IOException {
+        service.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS);
+        service.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS);
+
+        Map<String, Long> counts = backend.getRequestCounts();
+        assertEquals(2L, counts.get("GET /api/customers"));
+        assertEquals(1L, service.getCacheStats().get("collections").getHits());
+    }
+
+    @Test
+    void listTooLongToCacheIsRevalidatedAgainstTheCallersRows() throws IOException {
+        backend.close();
+        backend = StubBackend.builder().seed(7).cars(10).customers(5_100).bookings(0).start();
+        service = new CarRentalService(backend.baseUrl(), ResiliencePolicy.none());
+
+        List<Customer> current = service.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS);
+        backend.resetCounters();
+        List<Customer> unchanged = service.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS, current);
+
+        assertEquals(1L, backend.getRequestCounts().get("GET /api/customers"));
+        assertSame(current, unchanged);
+
+        // Rows that no longer match the list's count are not trusted
+        List<Customer> reloaded = service.getAllCustomers(CarRentalService.CUSTOMER_TABLE_FIELDS,
+                current.subList(1, current.size()));
+        assertEquals(customerIds(current), customerIds(reloaded));
+        assertEquals(2L, backend.getRequestCounts().get("GET /api/customers"));
+    }
+
+    @Test
+    void bookingSyncPicksUpCreatedAndCancelledBookings() throws IOException {
+        BookingSyncResult first = service.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        assertTrue(first.isFull());
+        int seeded = first.getBookings().size();
+
+        Booking created = service.createBooking(booking(service.getAllCars().get(0).getId(), 400, 403));
+        BookingSyncResult second = service.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        assertFalse(second.isFull());
+        assertEquals(seeded + 1, second.getBookings().size());
+
+        service.cancelBooking(created.getId());
+        BookingSyncResult third = service.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        assertEquals(seeded + 1, third.getBookings().size());
+        assertEquals(BookingStatus.CANCELLED, find(third.getBookings(), created.getId()).getStatus());
+    }
+
+    @Test
+    void bookingSyncFallsBackToFullLoadsWhenTheServerIgnoresUpdatedSince() throws IOException {
+        backend.close();
+        backend = StubBackend.builder().seed(7).cars(50).customers(40).bookings(100).ignoreUpdatedSince(true).start();
+        service = new CarRentalService(backend.baseUrl(), ResiliencePolicy.none());
+        int seeded = service.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS).getBookings().size();
+
+        Booking created = service.createBooking(booking(service.getAllCars().get(0).getId(), 400, 403));
+        BookingSyncResult second = service.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        assertTrue(second.isFull());
+        assertEquals(seeded + 1, second.getBookings().size());
+
+        service.cancelBooking(created.getId());
+        BookingSyncResult third = service.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        assertTrue(third.isFull());
+        assertEquals(BookingStatus.CANCELLED, find(third.getBookings(), created.getId()).getStatus());
+
+        // Once known, the server is no longer sent a delta request first
+        backend.resetCounters();
+        BookingSyncResult fourth = service.syncBookings(CarRentalService.BOOKING_TABLE_FIELDS);
+        assertEquals(seeded + 1, fourth.getBookings().size());
+        assertEquals(1L, backend.getRequestCounts().get("GET /api/bookings"));
+    }
+
+    @Test
+    void overlappingBookingIsRefused() throws IOException {
+        String carId = service.getAllCars().get(1).getId();
+        service.createBooking(booking(carId, 500, 505));
+
+        HttpStatusException refused = assertThrows(HttpStatusException.class,
+                () -> service.createBooking(booking(carId, 504, 506)));
+        assertEquals(400, refused.getCode());
+        assertTrue(service.isCarAvailable(carId, day(505).toString(), day(506).toString()));
+    }
+
+    @Test
+    void availabilityFanOutChecksEveryCarWithinTheDeadline() throws IOException {
+        AvailabilityResult all = service.availableCars(day(700).toString(), day(703).toString(), null,
+                10, TimeUnit.SECONDS);
+        assertTrue(all.isComplete());
+        assertEquals(50, all.getCheckedCount());
+        assertEquals(50L, backend.getRequestCounts().get("GET /api/cars/{id}/availability"));
+
+        // Loading the cars eats most of the timeout, so no check can answer in
+        // what is left; those never started are reported along with the rest
+        backend.resetCounters();
+        backend.setLatencyMillis(200);
+        AvailabilityResult late = service.availableCars(day(710).toString(), day(713).toString(), null,
+                300, TimeUnit.MILLISECONDS);
+        assertFalse(late.isComplete());
+        assertEquals(50, late.getTimedOutCarIds().size());
+        assertTrue(late.getFailures().isEmpty());
+        assertTrue(backend.getRequestCounts().get("GET /api/cars/{id}/availability") <= 32);
+    }
+
+    @Test
+    void queuedCreatesSurviveInjectedFailuresWithoutDuplicates() throws Exception {
+        int before = service.getAllCustomers().size();
+        // Some creates are refused, others applied with the response lost; the
+        // stub ignores idempotency keys like the real backend
+        backend.setErrorRate(0.3);
+        backend.setLostResponseRate(0.3);
+        try (WriteBehindQueue queue = new WriteBehindQueue(service, MutationJournal.inMemory())) {
+            for (int i = 0; i < 6; i++) {
+                Customer customer = new Customer();
+                customer.setFirstName("Queued");
+                customer.setLastName("Customer" + i);
+                customer.setEmail("queued" + i + "@example.com");
+                queue.createCustomer(customer);
+            }
+            long deadline = System.currentTimeMillis() + 20_000;
+            while (queue.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+                queue.retryNow();
+                Thread.sleep(20);
+            }
+            assertEquals(0, queue.getPendingCount());
+        }
+        backend.setErrorRate(0);
+        backend.setLostResponseRate(0);
+        service.clearCaches();
+
+        assertEquals(before + 6, service.getAllCustomers().size());
+        assertTrue(backend.getInjectedErrorCount() > 0);
+        assertTrue(backend.getLostResponseCount() > 0);
+    }
+
+    @Test
+    void bookingCancelledBeforeItsCreateWasSentReachesTheServerCancelled() throws Exception {
+        String carId = null;
+        for (Car car : service.getAllCars()) {
+            if (car.isAvailable()) {
+                carId = car.getId();
+            }
+        }
+        // Slow enough that the booking is still queued behind its customer's create
+        backend.setLatencyMillis(300);
+        try (WriteBehindQueue queue = new WriteBehindQueue(service, MutationJournal.inMemory())) {
+            Customer customer = new Customer();
+            customer.setFirstName("Queued");
+            customer.setLastName("Booker");
+            customer.setEmail("queued.booker@example.com");
+            String customerId = queue.createCustomer(customer);
+            String bookingId = queue.createBooking(booking(customerId, carId, 600, 603));
+            queue.updateBooking(bookingId, booking(customerId, carId, 600, 604));
+            queue.cancelBooking(bookingId);
+
+            List<PendingMutation.Action> bookingActions = new ArrayList<>();
+            for (PendingMutation mutation : queue.getPending()) {
+                if (mutation.getEntity() == PendingMutation.Entity.BOOKING) {
+                    bookingActions.add(mutation.getAction());
+                }
+            }
+            assertEquals(List.of(PendingMutation.Action.CREATE, PendingMutation.Action.CANCEL), bookingActions);
+
+            long deadline = System.currentTimeMillis() + 20_000;
+            while (queue.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, queue.getPendingCount());
+        }
+        backend.setLatencyMillis(0);
+
+        List<Booking> onServer = service.getBookingsByCar(carId);
+        Booking cancelled = null;
+        for (Booking booking : onServer) {
+            if (day(600).equals(booking.getPickupDate())) {
+                cancelled = booking;
+            }
+        }
+        assertNotNull(cancelled);
+        assertEquals(day(604), cancelled.getReturnDate());
+        assertEquals(BookingStatus.CANCELLED, cancelled.getStatus());
+    }
+
+    private static Booking booking(String carId, int pickup, int returned) {
+        return booking("customer", carId, pickup, returned);
+    }
+
+    private static Booking booking(String customerId, String carId, int pickup, int returned) {
+        return new Booking(customerId, carId, day(pickup), day(returned), "Airport", "Airport");
+    }
+
+    private static LocalDate day(int offset) {
+        return LocalDate.now(ZoneOffset.UTC).plusDays(offset);
+    }
+
+    private static Booking find(List<Booking> bookings, String id) {
+        for (Booking booking : bookings) {
+            if (id.equals(booking.getId())) {
+                return booking;
+            }
+        }
+        throw new AssertionError("No booking " + id);
+    }
+
+    private static List<String> ids(List<Car> cars) {
+        List<String> ids = new ArrayList<>();
+        for (Car car : cars) {
+            ids.add(car.getId());
+        }
+        return ids;
+    }
+
+    private static List<String> customerIds(List<Customer> customers) {
+        List<String> ids = new ArrayList<>();
+        for (Customer customer : customers) {
+            ids.add(customer.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,51 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Car;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CarSearchIndexTest {
+    @Test
+    void rangesAreInclusive() {
+        CarSearchIndex index = index();
+
+        assertEquals(Arrays.asList("b", "c"), ids(index.search(new CarQuery().minYear(2019).maxYear(2020))));
+        assertEquals(Arrays.asList("a"), ids(index.search(new CarQuery().maxDailyRate(new BigDecimal("40.00")))));
+    }
+
+    @Test
+    void invertedRangeMatchesNothing() {
+        CarSearchIndex index = index();
+
+        assertTrue(index.search(new CarQuery().minYear(2021).maxYear(2019)).isEmpty());
+        assertTrue(index.search(new CarQuery().minDailyRate(new BigDecimal("90")).maxDailyRate(new BigDecimal("10")))
+                .isEmpty());
+        assertTrue(index.search(new CarQuery().minSeats(7).maxSeats(2)).isEmpty());
+    }
+
+    private static CarSearchIndex index() {
+        CarSearchIndex index = new CarSearchIndex();
+        index.rebuild(Arrays.asList(
+                car("a", 2018, "35.00", 4),
+                car("b", 2019, "55.00", 5),
+                car("c", 2020, "80.00", 7)));
+        return index;
+    }
+
+    private static Car car(String id, int year, String rate, int seats) {
+        Car car = new Car("Toyota", "Camry", year, "Blue", "PLATE-" + id, new BigDecimal(rate), "Hybrid",
+                "Automatic", seats);
+        car.setId(id);
+        return car;
+    }
+
+    private static List<String> ids(List<Car> cars) {
+        return Arrays.asList(cars.stream().map(Car::getId).toArray(String[]::new));
+    }
+}
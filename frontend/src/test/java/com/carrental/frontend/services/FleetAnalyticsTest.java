@@ -0,0 +1,153 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FleetAnalyticsTest {
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void bookingsAcrossWordBoundariesAreCountedOncePerDay() {
+        List<Car> cars = Arrays.asList(car(0), car(1));
+        List<Booking> bookings = Arrays.asList(
+                booking(0, 62, 64, "100", BookingStatus.CONFIRMED),
+                booking(0, 63, 65, "100", BookingStatus.CONFIRMED),
+                booking(0, 0, 64, "640", BookingStatus.COMPLETED),
+                booking(1, 60, 130, "700", BookingStatus.ACTIVE),
+                booking(1, 127, 129, "20", BookingStatus.CONFIRMED),
+                booking(1, 128, 129, "50", BookingStatus.CANCELLED));
+
+        FleetReport report = FleetAnalytics.compute(cars, bookings, FROM, FROM.plusDays(192));
+
+        // Car 0 is booked on days 0..64, car 1 on days 60..129
+        assertEquals(65 + 70, report.getBookedDays());
+        assertEquals(expectedCarsBooked(cars, bookings, 192), carsBooked(report));
+        assertEquals(2, report.getByDay().get(63).getCarsBooked());
+        assertEquals(1, report.getByDay().get(65).getCarsBooked());
+        assertEquals(0, report.getByDay().get(130).getCarsBooked());
+        assertEquals(1560, report.getRevenue(), 1e-6);
+    }
+
+    @Test
+    void matchesANaiveDayByDayComputation() {
+        Random random = new Random(11);
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            cars.add(car(i));
+        }
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            // Some start before or end after the period, and some are for cars not loaded
+            int pickup = random.nextInt(260) - 30;
+            int returned = pickup + random.nextInt(40);
+            String amount = random.nextInt(10) == 0 ? null : String.valueOf(20 + random.nextInt(500));
+            Booking booking = booking(random.nextInt(44), pickup, returned, amount,
+                    statuses[random.nextInt(statuses.length)]);
+            bookings.add(booking);
+        }
+        int days = 201;
+
+        FleetReport report = FleetAnalytics.compute(cars, bookings, FROM, FROM.plusDays(days));
+
+        double[] revenueByDay = new double[days];
+        Map<String, Long> bookedDaysByCar = new HashMap<>();
+        long bookedDays = 0;
+        for (Car car : cars) {
+            long carDays = 0;
+            for (int d = 0; d < days; d++) {
+                boolean booked = false;
+                for (Booking booking : bookings) {
+                    if (covers(booking, car, d)) {
+                        booked = true;
+                        if (booking.getTotalAmount() != null) {
+                            long length = booking.getReturnDate().toEpochDay() - booking.getPickupDate().toEpochDay();
+                            revenueByDay[d] += booking.getTotalAmount().doubleValue() / length;
+                        }
+                    }
+                }
+                if (booked) {
+                    carDays++;
+                }
+            }
+            bookedDaysByCar.put(name(car), carDays);
+            bookedDays += carDays;
+        }
+
+        assertEquals(bookedDays, report.getBookedDays());
+        assertEquals(expectedCarsBooked(cars, bookings, days), carsBooked(report));
+        double revenue = 0;
+        for (int d = 0; d < days; d++) {
+            assertEquals(revenueByDay[d], report.getByDay().get(d).getRevenue(), 1e-6, "day " + d);
+            revenue += revenueByDay[d];
+        }
+        assertEquals(revenue, report.getRevenue(), 1e-6);
+        for (FleetReport.Utilization utilization : report.getByCar()) {
+            assertEquals(bookedDaysByCar.get(utilization.getName()), utilization.getBookedDays(), utilization.getName());
+            assertEquals(days, utilization.getAvailableDays());
+        }
+    }
+
+    private static List<Integer> expectedCarsBooked(List<Car> cars, List<Booking> bookings, int days) {
+        List<Integer> carsBooked = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            int count = 0;
+            for (Car car : cars) {
+                for (Booking booking : bookings) {
+                    if (covers(booking, car, d)) {
+                        count++;
+                        break;
+                    }
+                }
+            }
+            carsBooked.add(count);
+        }
+        return carsBooked;
+    }
+
+    private static boolean covers(Booking booking, Car car, int day) {
+        LocalDate date = FROM.plusDays(day);
+        return booking.getStatus() != BookingStatus.CANCELLED && booking.getCarId().equals(car.getId())
+                && !date.isBefore(booking.getPickupDate()) && date.isBefore(booking.getReturnDate());
+    }
+
+    private static List<Integer> carsBooked(FleetReport report) {
+        List<Integer> carsBooked = new ArrayList<>();
+        for (FleetReport.Day day : report.getByDay()) {
+            carsBooked.add(day.getCarsBooked());
+        }
+        return carsBooked;
+    }
+
+    private static Car car(int index) {
+        Car car = new Car("Make" + index % 3, "Model" + index % 5, 2022, "Blue", "PLATE-" + index,
+                new BigDecimal("40"), "Petrol", "Manual", 5);
+        car.setId("car-" + index);
+        return car;
+    }
+
+    private static String name(Car car) {
+        return car.getMake() + " " + car.getModel() + " (" + car.getLicensePlate() + ")";
+    }
+
+    private static Booking booking(int car, int pickup, int returned, String amount, BookingStatus status) {
+        Booking booking = new Booking("customer", "car-" + car, FROM.plusDays(pickup), FROM.plusDays(returned),
+                "Location" + (pickup & 3), "Airport");
+        booking.setTotalAmount(amount != null ? new BigDecimal(amount) : null);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,156 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.services.PendingMutation.Action;
+import com.carrental.frontend.services.PendingMutation.Entity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MutationJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAddedReplacedDoneAndResolvedRecords() throws IOException {
+        Path file = directory.resolve("journal.bin");
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            journal.added(mutation(1, Entity.CAR, Action.CREATE, "local-1", "{\"plate\":\"A\"}"));
+            journal.added(mutation(2, Entity.CAR, Action.UPDATE, "local-1", "{\"plate\":\"B\"}"));
+            journal.added(mutation(3, Entity.BOOKING, Action.CREATE, "local-2", "{\"carId\":\"local-1\"}"));
+            journal.replaced(mutation(2, Entity.CAR, Action.UPDATE, "local-1", "{\"plate\":\"C\"}"));
+            journal.done(1);
+            journal.resolved("local-1", "car-9");
+        }
+
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            assertEquals(Arrays.asList("2 UPDATE car-9 {\"plate\":\"C\"}", "3 CREATE local-2 {\"carId\":\"car-9\"}"),
+                    describe(journal));
+            assertEquals(Collections.singletonMap("local-1", "car-9"), journal.getResolvedIds());
+        }
+    }
+
+    @Test
+    void tornRecordAtTheEndIsCutOff() throws IOException {
+        Path file = directory.resolve("journal.bin");
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            journal.added(mutation(1, Entity.CUSTOMER, Action.UPDATE, "c1", "{\"email\":\"a@example.com\"}"));
+            journal.added(mutation(2, Entity.CUSTOMER, Action.UPDATE, "c2", "{\"email\":\"b@example.com\"}"));
+        }
+        long intact = Files.size(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(intact - 3);
+        }
+
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            assertEquals(Collections.singletonList("1 UPDATE c1 {\"email\":\"a@example.com\"}"), describe(journal));
+            assertTrue(Files.size(file) < intact - 3);
+            // Appends continue where the intact records end
+            journal.added(mutation(3, Entity.CUSTOMER, Action.DELETE, "c3", null));
+        }
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            assertEquals(Arrays.asList("1 UPDATE c1 {\"email\":\"a@example.com\"}", "3 DELETE c3 null"), describe(journal));
+        }
+    }
+
+    @Test
+    void recordWithABadChecksumEndsTheReplay() throws IOException {
+        Path file = directory.resolve("journal.bin");
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            journal.added(mutation(1, Entity.BOOKING, Action.CANCEL, "b1", null));
+            journal.added(mutation(2, Entity.BOOKING, Action.CANCEL, "b2", null));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 0xFF);
+        }
+
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            assertEquals(Collections.singletonList("1 CANCEL b1 null"), describe(journal));
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyThePendingMutationsAndTheResolvedIds() throws IOException {
+        Path file = directory.resolve("journal.bin");
+        char[] filler = new char[400_000];
+        Arrays.fill(filler, 'x');
+        String large = "{\"notes\":\"" + new String(filler) + "\"}";
+        List<PendingMutation> added = new ArrayList<>();
+        Map<String, String> resolvedIds = new HashMap<>();
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            for (int i = 1; i <= 4; i++) {
+                PendingMutation mutation = mutation(i, Entity.CAR, Action.UPDATE, "car-" + i, large);
+                journal.added(mutation);
+                added.add(mutation);
+            }
+            journal.done(1);
+            journal.resolved("local-1", "car-1");
+            resolvedIds.put("local-1", "car-1");
+            journal.done(2);
+            journal.compact(added.subList(2, 4), resolvedIds);
+            assertTrue(Files.size(file) < 1_000_000);
+            journal.done(3);
+        }
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            assertEquals(1, journal.getRecovered().size());
+            assertEquals(4, journal.getRecovered().iterator().next().getSequence());
+            assertEquals(resolvedIds, journal.getResolvedIds());
+            journal.done(4);
+            journal.resolved("local-2", "car-2");
+            resolvedIds.put("local-2", "car-2");
+            journal.compact(Collections.emptyList(), resolvedIds);
+        }
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            assertTrue(journal.getRecovered().isEmpty());
+            // Rows and snapshots may still show local ids after a restart
+            assertEquals(resolvedIds, journal.getResolvedIds());
+            journal.compact(Collections.emptyList(), Collections.emptyMap());
+        }
+        try (MutationJournal journal = MutationJournal.open(file)) {
+            assertTrue(journal.getResolvedIds().isEmpty());
+        }
+    }
+
+    @Test
+    void onlyOneClientCanOpenTheJournal() throws IOException {
+        Path file = directory.resolve("journal.bin");
+        MutationJournal first = MutationJournal.open(file);
+        first.added(mutation(1, Entity.CAR, Action.DELETE, "car-1", null));
+
+        assertThrows(IOException.class, () -> MutationJournal.open(file));
+
+        first.close();
+        try (MutationJournal second = MutationJournal.open(file)) {
+            assertEquals(Collections.singletonList("1 DELETE car-1 null"), describe(second));
+        }
+    }
+
+    private static PendingMutation mutation(long sequence, Entity entity, Action action, String id, String body) {
+        return new PendingMutation(sequence, entity, action, id, body, 1_700_000_000_000L + sequence);
+    }
+
+    private static List<String> describe(MutationJournal journal) {
+        List<String> described = new ArrayList<>();
+        for (PendingMutation mutation : journal.getRecovered()) {
+            described.add(mutation.getSequence() + " " + mutation.getAction() + " " + mutation.getEntityId()
+                    + " " + mutation.getBody());
+        }
+        return described;
+    }
+}
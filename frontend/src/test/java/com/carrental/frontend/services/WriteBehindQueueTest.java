@@ -0,0 +1,182 @@
+package com.carrental.frontend.services;
+
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.utils.ResiliencePolicy;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+    private HttpServer server;
+    private final List<JsonObject> customers = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> idempotencyKeys = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failCreates = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/customers", this::customers);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void createThatFailedAfterReachingTheServerIsNotSentAgain() throws Exception {
+        failCreates.set(1);
+        Recorder recorder = new Recorder(1);
+        try (WriteBehindQueue queue = queue(recorder)) {
+            String localId = queue.createCustomer(customer("ada@example.com"));
+
+            assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+
+            assertEquals(1, customers.size());
+            assertEquals(Collections.singletonList("c1"), recorder.applied);
+            assertTrue(recorder.refused.isEmpty());
+            assertEquals(Collections.singletonList(localId), idempotencyKeys);
+            assertEquals(0, queue.getPendingCount());
+        }
+    }
+
+    @Test
+    void createThatNeverArrivedIsSentAgain() throws Exception {
+        failCreates.set(-1);
+        Recorder recorder = new Recorder(1);
+        try (WriteBehindQueue queue = queue(recorder)) {
+            queue.createCustomer(customer("ada@example.com"));
+
+            assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+
+            assertEquals(1, customers.size());
+            assertEquals(Collections.singletonList("c1"), recorder.applied);
+            assertEquals(2, idempotencyKeys.size());
+            assertEquals(idempotencyKeys.get(0), idempotencyKeys.get(1));
+        }
+    }
+
+    @Test
+    void deleteOfAnEntityAlreadyGoneIsApplied() throws Exception {
+        Recorder recorder = new Recorder(1);
+        try (WriteBehindQueue queue = queue(recorder)) {
+            queue.deleteCustomer("missing");
+
+            assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+
+            assertEquals(Collections.singletonList("missing"), recorder.applied);
+            assertTrue(recorder.refused.isEmpty());
+        }
+    }
+
+    private WriteBehindQueue queue(Recorder recorder) {
+        CarRentalService service = new CarRentalService(
+                "http://127.0.0.1:" + server.getAddress().getPort(), ResiliencePolicy.none());
+        WriteBehindQueue queue = new WriteBehindQueue(service, MutationJournal.inMemory());
+        queue.setListener(recorder);
+        return queue;
+    }
+
+    /**
+     * Creates customers; with {@link #failCreates} positive the next creates are
+     * stored but answered with a 500, with it negative the next one is refused
+     * with a 503 before it is stored.
+     */
+    private void customers(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if (method.equals("POST") && path.equals("/api/customers")) {
+            idempotencyKeys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            if (failCreates.get() < 0) {
+                failCreates.incrementAndGet();
+                send(exchange, 503, null);
+                return;
+            }
+            JsonObject customer = JsonParser.parseString(
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+            customer.addProperty("id", "c" + (customers.size() + 1));
+            customers.add(customer);
+            if (failCreates.get() > 0) {
+                failCreates.decrementAndGet();
+                send(exchange, 500, null);
+                return;
+            }
+            send(exchange, 201, customer.toString());
+        } else if (method.equals("GET") && path.startsWith("/api/customers/email/")) {
+            String email = path.substring("/api/customers/email/".length());
+            synchronized (customers) {
+                for (JsonObject customer : customers) {
+                    if (email.equals(customer.get("email").getAsString())) {
+                        send(exchange, 200, customer.toString());
+                        return;
+                    }
+                }
+            }
+            send(exchange, 404, null);
+        } else {
+            send(exchange, 404, null);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length > 0 ? bytes.length : -1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setFirstName("Ada");
+        customer.setLastName("Lovelace");
+        customer.setEmail(email);
+        return customer;
+    }
+
+    private static final class Recorder implements WriteBehindQueue.Listener {
+        final List<String> applied = Collections.synchronizedList(new ArrayList<>());
+        final List<PendingMutation> refused = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done;
+
+        Recorder(int mutations) {
+            this.done = new CountDownLatch(mutations);
+        }
+
+        @Override
+        public void mutationApplied(PendingMutation mutation, String entityId) {
+            applied.add(entityId);
+            done.countDown();
+        }
+
+        @Override
+        public void mutationRefused(PendingMutation mutation, IOException error) {
+            refused.add(mutation);
+            done.countDown();
+        }
+
+        @Override
+        public void queueChanged(int pendingCount, IOException lastError) {
+        }
+    }
+}
@@ -0,0 +1,715 @@
+package com.carrental.frontend.stub;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.utils.IsoDates;
+import com.carrental.frontend.utils.ModelJson;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An in-process stand-in for the backend's /api surface, for performance work
+ * without a database: every cars, customers and bookings endpoint
+ * CarRentalService calls, seeded with {@link SyntheticData} at whatever scale
+ * the {@link Builder} asks for.
+ *
+ * Responses follow the backend's status codes and rules (see {@link StubStore})
+ * and the client's protocol extensions: {@code fields} projections and
+ * {@code updatedSince} on lists, ETags answered with 304, and optionally gzip.
+ * An {@code Idempotency-Key} on creates is only honoured when asked for, since
+ * the real backend ignores it; {@code updatedSince} can be ignored like it too.
+ *
+ * Latency, jitter and failures can be injected, and changed while running. A
+ * failure is either refused before the request is applied, or, for writes, a
+ * lost response: the write is applied and the error status is sent instead of
+ * its result, as when a connection drops after the server committed. Whether a
+ * request fails and how long it is held are drawn from a generator seeded with
+ * the seed and the request's sequence number, so a run issuing requests in the
+ * same order sees the same faults every time.
+ *
+ * Benchmarks that should time the client rather than the stub can have encoded
+ * GET responses cached until the data changes, and read how many bytes the
+ * responses took on the wire.
+ *
+ * It is test support, not part of the app: tests start it in process, and the
+ * benchmarks get it from the frontend's test-jar, which is also how
+ * StubLoadGenerator runs LoadGenerator against it. Run {@link #main} from the
+ * benchmarks jar to serve it on a fixed port for the app:
+ * <pre>
+ * java -cp target/benchmarks.jar com.carrental.frontend.stub.StubBackend \
+ *     --port 5000 --cars 5000 --latency 20
+ * </pre>
+ */
+public final class StubBackend implements AutoCloseable {
+    static {
+        // Without this the JDK server's separate header and body writes hit Nagle's
+        // algorithm and every small response waits ~40ms for a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final Gson gson = ModelJson.gson();
+    private final StubStore store;
+    private final long seed;
+    private final boolean gzip;
+    private final boolean cacheResponses;
+    private final boolean idempotencyKeys;
+    private final boolean ignoreUpdatedSince;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, LongAdder> routeCounts = new ConcurrentHashMap<>();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder lostResponses = new LongAdder();
+    private final LongAdder bodiesSent = new LongAdder();
+    private final LongAdder bodyBytesSent = new LongAdder();
+    // Kept for the life of the stub, like the data the creates made
+    private final Map<String, JsonElement> createdByIdempotencyKey = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> cachedResponses = new ConcurrentHashMap<>();
+    private long cachedVersion = -1;
+
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double errorRate;
+    private volatile double lostResponseRate;
+    private volatile int errorStatus;
+    private volatile long retryAfterSeconds = -1;
+
+    private StubBackend(Builder builder) throws IOException {
+        this.seed = builder.seed;
+        this.gzip = builder.gzip;
+        this.cacheResponses = builder.cacheResponses;
+        this.idempotencyKeys = builder.idempotencyKeys;
+        this.ignoreUpdatedSince = builder.ignoreUpdatedSince;
+        this.latencyMillis = builder.latencyMillis;
+        this.jitterMillis = builder.jitterMillis;
+        this.errorRate = builder.errorRate;
+        this.lostResponseRate = builder.lostResponseRate;
+        this.errorStatus = builder.errorStatus;
+        this.store = new StubStore(gson, new SyntheticData(builder.seed, builder.cars, builder.customers,
+                builder.bookings, builder.today != null ? builder.today : LocalDate.now(ZoneOffset.UTC)));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), 0);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-backend");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /** Fixed delay added to every response. */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /** Upper bound of a uniformly drawn extra delay on top of the latency. */
+    public void setJitterMillis(long jitterMillis) {
+        this.jitterMillis = jitterMillis;
+    }
+
+    /** Fraction of requests, 0 to 1, answered with the error status instead. */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Fraction of writes, 0 to 1, that are applied but answered with the error
+     * status instead of their result.
+     */
+    public void setLostResponseRate(double lostResponseRate) {
+        this.lostResponseRate = lostResponseRate;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    /** Retry-After sent with injected failures, in seconds; -1, the default, sends none. */
+    public void setRetryAfterSeconds(long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Requests served per route, such as "GET /api/cars/{id}", injected
+     * failures and lost responses included.
+     */
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        routeCounts.forEach((route, count) -> counts.put(route, count.sum()));
+        return counts;
+    }
+
+    /** Requests refused before they were applied. */
+    public long getInjectedErrorCount() {
+        return injectedErrors.sum();
+    }
+
+    /** Writes applied whose result was replaced with the error status. */
+    public long getLostResponseCount() {
+        return lostResponses.sum();
+    }
+
+    /**
+     * Average size of the response bodies sent so far as they went over the wire,
+     * that is after compression.
+     */
+    public long getAverageBodyBytes() {
+        long count = bodiesSent.sum();
+        return count == 0 ? 0 : bodyBytesSent.sum() / count;
+    }
+
+    /**
+     * Zeroes the counters and restarts the fault sequence, so a second run is
+     * faulted exactly like the first.
+     */
+    public void resetCounters() {
+        routeCounts.clear();
+        injectedErrors.reset();
+        lostResponses.reset();
+        bodiesSent.reset();
+        bodyBytesSent.reset();
+        sequence.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+            routeCounts.computeIfAbsent(method + " " + route(path), route -> new LongAdder()).increment();
+
+            SplittableRandom faults = new SplittableRandom(seed * 31 + sequence.getAndIncrement());
+            long delay = latencyMillis + (jitterMillis > 0 ? faults.nextLong(jitterMillis + 1) : 0);
+            boolean fail = faults.nextDouble() < errorRate;
+            boolean loseResponse = faults.nextDouble() < lostResponseRate;
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (fail) {
+                injectedErrors.increment();
+                if (retryAfterSeconds >= 0) {
+                    exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                }
+                send(exchange, errorStatus, "text/plain", "Injected failure".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+
+            if ("GET".equals(method)) {
+                get(exchange, path);
+            } else if ("POST".equals(method) && path.length == 2 && path[0].equals("cars") && path[1].equals("search")) {
+                send(exchange, 200, "application/json; charset=utf-8", json(gson.toJsonTree(store.searchCars(body(exchange)))));
+            } else {
+                JsonObject body = body(exchange);
+                String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+                Object result = "POST".equals(method) && idempotencyKeys && idempotencyKey != null
+                        ? createdByIdempotencyKey.computeIfAbsent(method + " " + path[0] + " " + idempotencyKey,
+                                key -> (JsonElement) write(method, path, body))
+                        : write(method, path, body);
+                if (loseResponse) {
+                    lostResponses.increment();
+                    send(exchange, errorStatus, "text/plain", "Injected failure after applying".getBytes(StandardCharsets.UTF_8));
+                } else if (result instanceof JsonElement) {
+                    send(exchange, 201, "application/json; charset=utf-8", json((JsonElement) result));
+                } else if (result instanceof Boolean) {
+                    send(exchange, (Boolean) result ? 204 : 404, null, null);
+                } else {
+                    send(exchange, 404, null, null);
+                }
+            }
+        } catch (IllegalArgumentException | JsonParseException | DateTimeException e) {
+            send(exchange, 400, "text/plain; charset=utf-8", String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } catch (RuntimeException e) {
+            send(exchange, 500, "text/plain; charset=utf-8", String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Answers a GET. Unless responses are cached, lists are streamed element by
+     * element, so even a million bookings go out without the whole document ever
+     * being held.
+     */
+    private void get(HttpExchange exchange, String[] path) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String etag = "\"" + store.version() + "-" + Integer.toHexString(exchange.getRequestURI().toString().hashCode()) + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            send(exchange, 304, null, null);
+            return;
+        }
+        Object result = read(path, query);
+        if (result == null) {
+            send(exchange, 404, null, null);
+            return;
+        }
+
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean encode = gzip && acceptEncoding != null && acceptEncoding.contains("gzip");
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (encode) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        if (cacheResponses) {
+            byte[] body = cachedResponse((encode ? "gzip:" : "") + exchange.getRequestURI(), () -> {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                writeBody(bytes, result, query, encode);
+                return bytes.toByteArray();
+            });
+            send(exchange, 200, null, body);
+            bodyBytesSent.add(body.length);
+            bodiesSent.increment();
+            return;
+        }
+        exchange.sendResponseHeaders(200, 0);
+        CountingOutputStream counted = new CountingOutputStream(exchange.getResponseBody());
+        writeBody(counted, result, query, encode);
+        bodyBytesSent.add(counted.count);
+        bodiesSent.increment();
+    }
+
+    /**
+     * Writes a read's result as JSON, streaming lists element by element and
+     * projecting them to the {@code fields} the query asks for. Closes {@code out}.
+     */
+    private void writeBody(OutputStream out, Object result, String query, boolean encode) throws IOException {
+        OutputStream body = new BufferedOutputStream(out, 64 * 1024);
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(encode ? new GZIPOutputStream(body, 8192) : body,
+                StandardCharsets.UTF_8))) {
+            if (!(result instanceof List)) {
+                gson.toJson((JsonElement) result, json);
+                return;
+            }
+            String fields = parameter(query, "fields");
+            String[] names = fields != null ? fields.split(",") : null;
+            json.beginArray();
+            for (Object item : (List<?>) result) {
+                JsonObject element = item instanceof Booking
+                        ? store.bookingJson((Booking) item) : gson.toJsonTree(item).getAsJsonObject();
+                gson.toJson(names != null ? project(element, names) : element, json);
+            }
+            json.endArray();
+        }
+    }
+
+    private byte[] cachedResponse(String key, ResponseRenderer renderer) throws IOException {
+        synchronized (cachedResponses) {
+            long version = store.version();
+            if (version != cachedVersion) {
+                cachedResponses.clear();
+                cachedVersion = version;
+            }
+        }
+        byte[] body = cachedResponses.get(key);
+        if (body == null) {
+            // Two first requests may both render; either result is the same
+            body = renderer.render();
+            cachedResponses.put(key, body);
+        }
+        return body;
+    }
+
+    /**
+     * A list of entities for a list endpoint, a JsonElement for anything else,
+     * or null when there is nothing at the path.
+     */
+    private Object read(String[] path, String query) {
+        String collection = path[0];
+        if (collection.equals("cars")) {
+            if (path.length == 1) {
+                return store.cars(car -> true);
+            }
+            if (path.length == 3 && path[2].equals("availability")) {
+                LocalDate from = IsoDates.parseDate(parameter(query, "from"));
+                LocalDate to = IsoDates.parseDate(parameter(query, "to"));
+                return new JsonPrimitive(store.isCarAvailable(path[1], from, to));
+            }
+            return path.length == 2 ? store.car(path[1]) : null;
+        }
+        if (collection.equals("customers")) {
+            if (path.length == 1) {
+                return store.customers();
+            }
+            if (path.length == 3 && path[1].equals("email")) {
+                return store.customerByEmail(path[2]);
+            }
+            return path.length == 2 ? store.customer(path[1]) : null;
+        }
+        if (collection.equals("bookings")) {
+            if (path.length == 1) {
+                String since = ignoreUpdatedSince ? null : parameter(query, "updatedSince");
+                if (since == null) {
+                    return store.bookings(booking -> true);
+                }
+                LocalDateTime sinceTime = IsoDates.parseDateTime(since);
+                return store.bookings(booking -> !changedAt(booking).isBefore(sinceTime));
+            }
+            if (path.length == 3 && path[1].equals("customer")) {
+                return store.bookings(booking -> path[2].equals(booking.getCustomerId()));
+            }
+            if (path.length == 3 && path[1].equals("car")) {
+                return store.bookings(booking -> path[2].equals(booking.getCarId()));
+            }
+            return path.length == 2 ? store.booking(path[1]) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Applies a POST, PUT or DELETE: a JsonElement for a created document, true
+     * or false for an update or delete that found its
+     * target or not, and null for anything else.
+     */
+    private Object write(String method, String[] path, JsonObject body) {
+        String collection = path[0];
+        String id = path.length > 1 ? path[1] : null;
+        switch (method + " " + collection + (path.length > 2 ? "/" + path[2] : path.length > 1 ? "/{id}" : "")) {
+            case "POST cars":
+                return store.createCar(body);
+            case "PUT cars/{id}":
+                return store.updateCar(id, body);
+            case "DELETE cars/{id}":
+                return store.deleteCar(id);
+            case "POST customers":
+                return store.createCustomer(body);
+            case "PUT customers/{id}":
+                return store.updateCustomer(id, body);
+            case "DELETE customers/{id}":
+                return store.deleteCustomer(id);
+            case "POST bookings":
+                return store.createBooking(body);
+            case "PUT bookings/{id}":
+                return store.updateBooking(id, body);
+            case "PUT bookings/cancel":
+                return store.cancelBooking(id);
+            case "DELETE bookings/{id}":
+                return store.deleteBooking(id);
+            default:
+                return null;
+        }
+    }
+
+    private static LocalDateTime changedAt(Booking booking) {
+        return booking.getUpdatedAt() != null ? booking.getUpdatedAt() : booking.getCreatedAt();
+    }
+
+    private static String route(String[] path) {
+        StringBuilder route = new StringBuilder("/api/").append(path[0]);
+        if (path.length > 1) {
+            boolean named = path[1].equals("search") || path[1].equals("email")
+                    || path[1].equals("customer") || path[1].equals("car");
+            route.append(named ? "/" + path[1] : "/{id}");
+        }
+        if (path.length > 2) {
+            route.append(path[1].equals("email") ? "/{email}" : path[1].equals("customer") || path[1].equals("car")
+                    ? "/{id}" : "/" + path[2]);
+        }
+        return route.toString();
+    }
+
+    private JsonObject body(HttpExchange exchange) throws IOException {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement body = JsonParser.parseReader(reader);
+            return body.isJsonObject() ? body.getAsJsonObject() : new JsonObject();
+        }
+    }
+
+    private byte[] json(JsonElement element) {
+        return gson.toJson(element).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static JsonObject project(JsonObject source, String[] names) {
+        JsonObject target = new JsonObject();
+        for (String name : names) {
+            copy(source, target, name);
+        }
+        return target;
+    }
+
+    private static void copy(JsonObject source, JsonObject target, String name) {
+        int dot = name.indexOf('.');
+        if (dot < 0) {
+            if (source.has(name)) {
+                target.add(name, source.get(name));
+            }
+            return;
+        }
+        String parent = name.substring(0, dot);
+        if (!source.has(parent) || !source.get(parent).isJsonObject()) {
+            return;
+        }
+        if (!target.has(parent)) {
+            target.add(parent, new JsonObject());
+        }
+        copy(source.getAsJsonObject(parent), target.getAsJsonObject(parent), name.substring(dot + 1));
+    }
+
+    private static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return URLDecoder.decode(pair.substring(name.length() + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface ResponseRenderer {
+        byte[] render() throws IOException;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    public static final class Builder {
+        private long seed = 42;
+        private int cars = 500;
+        private int customers = 2_000;
+        private int bookings = 10_000;
+        private LocalDate today;
+        private int port;
+        private boolean gzip;
+        private boolean cacheResponses;
+        private boolean idempotencyKeys;
+        private boolean ignoreUpdatedSince;
+        private long latencyMillis;
+        private long jitterMillis;
+        private double errorRate;
+        private double lostResponseRate;
+        private int errorStatus = 503;
+
+        private Builder() {
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder cars(int cars) {
+            this.cars = cars;
+            return this;
+        }
+
+        public Builder customers(int customers) {
+            this.customers = customers;
+            return this;
+        }
+
+        /** Bookings to seed; fewer are made if the fleet is booked out before then. */
+        public Builder bookings(int bookings) {
+            this.bookings = bookings;
+            return this;
+        }
+
+        /** The day seeded history is laid out around; defaults to the current UTC date. */
+        public Builder today(LocalDate today) {
+            this.today = today;
+            return this;
+        }
+
+        /** Port to listen on; 0, the default, picks a free one. */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /** Gzip-encode responses for clients that accept it. */
+        public Builder gzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * Keep each encoded GET response until the data changes, so repeated reads
+         * cost the stub a copy rather than serializing the entities again.
+         */
+        public Builder cacheResponses(boolean cacheResponses) {
+            this.cacheResponses = cacheResponses;
+            return this;
+        }
+
+        /**
+         * Apply a create once per {@code Idempotency-Key}, answering repeats with
+         * the first result. Off by default, like the real backend.
+         */
+        public Builder idempotencyKeys(boolean idempotencyKeys) {
+            this.idempotencyKeys = idempotencyKeys;
+            return this;
+        }
+
+        /**
+         * Answer {@code updatedSince} with the whole list, as the real backend does.
+         */
+        public Builder ignoreUpdatedSince(boolean ignoreUpdatedSince) {
+            this.ignoreUpdatedSince = ignoreUpdatedSince;
+            return this;
+        }
+
+        public Builder latencyMillis(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+            return this;
+        }
+
+        public Builder jitterMillis(long jitterMillis) {
+            this.jitterMillis = jitterMillis;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder lostResponseRate(double lostResponseRate) {
+            this.lostResponseRate = lostResponseRate;
+            return this;
+        }
+
+        public Builder errorStatus(int errorStatus) {
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        /** Seeds the data and starts serving. */
+        public StubBackend start() throws IOException {
+            return new StubBackend(this);
+        }
+    }
+
+    /**
+     * Serves a stub backend until interrupted. Options: --port (default 5000),
+     * --seed, --cars, --customers, --bookings, --latency and --jitter in
+     * milliseconds, --error-rate, --lost-response-rate, --error-status, --gzip,
+     * --idempotency-keys and --ignore-updated-since.
+     */
+    public static void main(String[] args) throws Exception {
+        Builder builder = builder().port(5000);
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--gzip")) {
+                builder.gzip(true);
+                continue;
+            }
+            if (arg.equals("--idempotency-keys")) {
+                builder.idempotencyKeys(true);
+                continue;
+            }
+            if (arg.equals("--ignore-updated-since")) {
+                builder.ignoreUpdatedSince(true);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--port": builder.port(Integer.parseInt(value)); break;
+                case "--seed": builder.seed(Long.parseLong(value)); break;
+                case "--cars": builder.cars(Integer.parseInt(value)); break;
+                case "--customers": builder.customers(Integer.parseInt(value)); break;
+                case "--bookings": builder.bookings(Integer.parseInt(value)); break;
+                case "--latency": builder.latencyMillis(Long.parseLong(value)); break;
+                case "--jitter": builder.jitterMillis(Long.parseLong(value)); break;
+                case "--error-rate": builder.errorRate(Double.parseDouble(value)); break;
+                case "--lost-response-rate": builder.lostResponseRate(Double.parseDouble(value)); break;
+                case "--error-status": builder.errorStatus(Integer.parseInt(value)); break;
+                default: throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        StubBackend backend = builder.start();
+        int[] sizes = backend.store.sizes();
+        System.out.println("Stub backend at " + backend.baseUrl() + " with " + sizes[0] + " cars, "
+                + sizes[1] + " customers and " + sizes[2] + " bookings");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            backend.close();
+            System.out.println("Requests served: " + backend.getRequestCounts());
+        }));
+        Thread.sleep(TimeUnit.DAYS.toMillis(365));
+    }
+}
@@ -0,0 +1,91 @@
+package com.carrental.frontend.stub;
+
+import com.carrental.frontend.utils.ApiClient;
+import com.carrental.frontend.utils.HttpStatusException;
+import com.carrental.frontend.utils.ResiliencePolicy;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubBackendTest {
+    private static final String CAR = "{\"make\":\"Toyota\",\"model\":\"Camry\",\"year\":2022,\"licensePlate\":\"IDEM-1\","
+            + "\"dailyRate\":45.0,\"seats\":5}";
+
+    private StubBackend backend;
+    private ApiClient client;
+
+    @BeforeEach
+    void startBackend() throws IOException {
+        backend = StubBackend.builder().seed(3).cars(20).customers(10).bookings(30).cacheResponses(true).start();
+        client = new ApiClient(ResiliencePolicy.none());
+    }
+
+    @AfterEach
+    void stopBackend() {
+        backend.close();
+    }
+
+    @Test
+    void idempotencyKeysAreIgnoredUnlessAskedFor() throws Exception {
+        String url = backend.baseUrl() + "/api/cars";
+        client.postAsync(url, CAR, "key-1").get();
+        client.postAsync(url, CAR, "key-1").get();
+
+        assertEquals(22, cars().size());
+    }
+
+    @Test
+    void createWithARepeatedIdempotencyKeyIsAppliedOnce() throws Exception {
+        backend.close();
+        backend = StubBackend.builder().seed(3).cars(20).customers(10).bookings(30).idempotencyKeys(true).start();
+        String url = backend.baseUrl() + "/api/cars";
+        JsonObject first = JsonParser.parseString(client.postAsync(url, CAR, "key-1").get()).getAsJsonObject();
+        JsonObject repeated = JsonParser.parseString(client.postAsync(url, CAR, "key-1").get()).getAsJsonObject();
+        JsonObject other = JsonParser.parseString(client.postAsync(url, CAR, "key-2").get()).getAsJsonObject();
+
+        assertEquals(first.get("id"), repeated.get("id"));
+        assertNotEquals(first.get("id"), other.get("id"));
+        assertEquals(22, cars().size());
+    }
+
+    @Test
+    void lostResponseIsSentAfterTheWriteIsApplied() throws Exception {
+        backend.setLostResponseRate(1);
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> client.postAsync(backend.baseUrl() + "/api/cars", CAR).get());
+        backend.setLostResponseRate(0);
+
+        assertEquals(503, ((HttpStatusException) failed.getCause()).getCode());
+        assertEquals(1, backend.getLostResponseCount());
+        assertEquals(0, backend.getInjectedErrorCount());
+        assertEquals(21, cars().size());
+    }
+
+    @Test
+    void cachedResponsesAreDroppedWhenTheDataChanges() throws Exception {
+        assertEquals(20, cars().size());
+        assertEquals(20, cars().size());
+        long cachedBytes = backend.getAverageBodyBytes();
+        assertTrue(cachedBytes > 0);
+
+        client.postAsync(backend.baseUrl() + "/api/cars", CAR).get();
+
+        assertEquals(21, cars().size());
+        assertEquals(3L, backend.getRequestCounts().get("GET /api/cars"));
+    }
+
+    private JsonArray cars() throws IOException {
+        return JsonParser.parseString(client.get(backend.baseUrl() + "/api/cars")).getAsJsonArray();
+    }
+}
@@ -0,0 +1,380 @@
+package com.carrental.frontend.stub;
+
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+import com.carrental.frontend.utils.IsoDates;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The stub backend's data, with the rules of the real services: booking
+ * validation and date-overlap checks, totals recalculated when dates change,
+ * partial updates that only set the fields sent, and bookings carrying the
+ * customer's name and car description.
+ *
+ * Stored entities are never modified: a write replaces them. Lists are
+ * returned as snapshots of the entities, which the server serializes one at a
+ * time outside the lock while it streams the response.
+ *
+ * Every write bumps {@link #version()}, which the server uses for ETags and to
+ * drop the responses it has cached.
+ */
+final class StubStore {
+    private static final Set<String> CAR_UPDATE_FIELDS = new HashSet<>(Arrays.asList(
+            "make", "model", "year", "color", "licensePlate", "dailyRate", "isAvailable", "fuelType",
+            "transmission", "seats", "imageUrl", "description"));
+    private static final Set<String> CUSTOMER_UPDATE_FIELDS = new HashSet<>(Arrays.asList(
+            "firstName", "lastName", "email", "phone", "address", "dateOfBirth", "driversLicense"));
+    private static final Set<String> BOOKING_UPDATE_FIELDS = new HashSet<>(Arrays.asList(
+            "pickupDate", "returnDate", "status", "pickupLocation", "returnLocation", "notes"));
+
+    private final Gson gson;
+    private final Map<String, Car> cars = new LinkedHashMap<>();
+    private final Map<String, Customer> customers = new LinkedHashMap<>();
+    private final Map<String, Booking> bookings = new LinkedHashMap<>();
+    private long nextId;
+    private volatile long version;
+
+    StubStore(Gson gson, SyntheticData data) {
+        this.gson = gson;
+        data.cars.forEach(car -> cars.put(car.getId(), car));
+        data.customers.forEach(customer -> customers.put(customer.getId(), customer));
+        data.bookings.forEach(booking -> bookings.put(booking.getId(), booking));
+        nextId = cars.size() + customers.size() + bookings.size();
+    }
+
+    long version() {
+        return version;
+    }
+
+    synchronized int[] sizes() {
+        return new int[]{cars.size(), customers.size(), bookings.size()};
+    }
+
+    // Cars
+
+    synchronized List<Car> cars(Predicate<Car> filter) {
+        return select(cars, filter);
+    }
+
+    synchronized JsonElement car(String id) {
+        Car car = cars.get(id);
+        return car != null ? gson.toJsonTree(car) : null;
+    }
+
+    /**
+     * The search endpoint: exact matches on the text and availability fields,
+     * ranges on year, rate and seats, and when both availableFrom and
+     * availableTo are given only cars free for those dates.
+     */
+    synchronized List<Car> searchCars(JsonObject request) {
+        String make = text(request, "make");
+        String model = text(request, "model");
+        String fuelType = text(request, "fuelType");
+        String transmission = text(request, "transmission");
+        Integer minYear = number(request, "minYear") != null ? number(request, "minYear").intValue() : null;
+        Integer maxYear = number(request, "maxYear") != null ? number(request, "maxYear").intValue() : null;
+        Integer minSeats = number(request, "minSeats") != null ? number(request, "minSeats").intValue() : null;
+        BigDecimal maxDailyRate = number(request, "maxDailyRate");
+        Boolean isAvailable = present(request, "isAvailable") ? request.get("isAvailable").getAsBoolean() : null;
+        LocalDate from = present(request, "availableFrom") ? IsoDates.parseDate(text(request, "availableFrom")) : null;
+        LocalDate to = present(request, "availableTo") ? IsoDates.parseDate(text(request, "availableTo")) : null;
+        return cars(car -> (make == null || make.equals(car.getMake()))
+                && (model == null || model.equals(car.getModel()))
+                && (fuelType == null || fuelType.equals(car.getFuelType()))
+                && (transmission == null || transmission.equals(car.getTransmission()))
+                && (minYear == null || car.getYear() >= minYear)
+                && (maxYear == null || car.getYear() <= maxYear)
+                && (minSeats == null || car.getSeats() >= minSeats)
+                && (maxDailyRate == null || car.getDailyRate().compareTo(maxDailyRate) <= 0)
+                && (isAvailable == null || car.isAvailable() == isAvailable)
+                && (from == null || to == null || !hasConflict(car.getId(), from, to)));
+    }
+
+    /**
+     * The availability endpoint, which like the backend's only looks for
+     * conflicting bookings and not at the car itself.
+     */
+    synchronized boolean isCarAvailable(String id, LocalDate from, LocalDate to) {
+        return !hasConflict(id, from, to);
+    }
+
+    synchronized JsonElement createCar(JsonObject request) {
+        Car car = gson.fromJson(request, Car.class);
+        car.setId(newId(1));
+        car.setAvailable(true);
+        cars.put(car.getId(), car);
+        changed();
+        return gson.toJsonTree(car);
+    }
+
+    synchronized boolean updateCar(String id, JsonObject request) {
+        Car car = cars.get(id);
+        if (car == null) {
+            return false;
+        }
+        cars.put(id, gson.fromJson(overlay(gson.toJsonTree(car).getAsJsonObject(), request, CAR_UPDATE_FIELDS), Car.class));
+        changed();
+        return true;
+    }
+
+    synchronized boolean deleteCar(String id) {
+        return removed(cars.remove(id));
+    }
+
+    // Customers
+
+    synchronized List<Customer> customers() {
+        return new ArrayList<>(customers.values());
+    }
+
+    synchronized JsonElement customer(String id) {
+        Customer customer = customers.get(id);
+        return customer != null ? gson.toJsonTree(customer) : null;
+    }
+
+    synchronized JsonElement customerByEmail(String email) {
+        Customer customer = findByEmail(email);
+        return customer != null ? gson.toJsonTree(customer) : null;
+    }
+
+    /**
+     * Creates a customer, or throws IllegalArgumentException with the backend's
+     * message when the email is already registered.
+     */
+    synchronized JsonElement createCustomer(JsonObject request) {
+        Customer customer = gson.fromJson(request, Customer.class);
+        if (customer.getEmail() != null && findByEmail(customer.getEmail()) != null) {
+            throw new IllegalArgumentException("Customer with this email already exists");
+        }
+        customer.setId(newId(2));
+        customer.setCreatedAt(today());
+        customers.put(customer.getId(), customer);
+        changed();
+        return gson.toJsonTree(customer);
+    }
+
+    synchronized boolean updateCustomer(String id, JsonObject request) {
+        Customer customer = customers.get(id);
+        if (customer == null) {
+            return false;
+        }
+        customers.put(id, gson.fromJson(
+                overlay(gson.toJsonTree(customer).getAsJsonObject(), request, CUSTOMER_UPDATE_FIELDS), Customer.class));
+        changed();
+        return true;
+    }
+
+    synchronized boolean deleteCustomer(String id) {
+        return removed(customers.remove(id));
+    }
+
+    // Bookings
+
+    synchronized List<Booking> bookings(Predicate<Booking> filter) {
+        return select(bookings, filter);
+    }
+
+    synchronized JsonElement booking(String id) {
+        Booking booking = bookings.get(id);
+        return booking != null ? bookingJson(booking) : null;
+    }
+
+    /**
+     * Creates a pending booking priced from the car's daily rate, or throws
+     * IllegalArgumentException with the backend's message when the dates are
+     * invalid or the car cannot be booked for them.
+     */
+    synchronized JsonElement createBooking(JsonObject request) {
+        Booking booking = gson.fromJson(request, Booking.class);
+        LocalDate pickup = booking.getPickupDate();
+        LocalDate returned = booking.getReturnDate();
+        if (pickup == null || returned == null || !pickup.isBefore(returned)) {
+            throw new IllegalArgumentException("Pickup date must be before return date");
+        }
+        if (pickup.isBefore(today())) {
+            throw new IllegalArgumentException("Pickup date cannot be in the past");
+        }
+        Car car = cars.get(booking.getCarId());
+        if (car == null) {
+            throw new IllegalArgumentException("Car not found");
+        }
+        if (!car.isAvailable()) {
+            throw new IllegalArgumentException("Car is not available");
+        }
+        if (hasConflict(car.getId(), pickup, returned)) {
+            throw new IllegalArgumentException("Car is not available for the requested dates");
+        }
+        LocalDateTime now = now();
+        booking.setId(newId(3));
+        booking.setDailyRate(car.getDailyRate());
+        price(booking);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setCreatedAt(now);
+        booking.setUpdatedAt(now);
+        booking.setCustomerName(null);
+        booking.setCarInfo(null);
+        bookings.put(booking.getId(), booking);
+        changed();
+        // Like CreatedAtAction on the backend, the created document without the display fields
+        return gson.toJsonTree(booking);
+    }
+
+    synchronized boolean updateBooking(String id, JsonObject request) {
+        Booking booking = bookings.get(id);
+        if (booking == null) {
+            return false;
+        }
+        Booking updated = gson.fromJson(
+                overlay(gson.toJsonTree(booking).getAsJsonObject(), request, BOOKING_UPDATE_FIELDS), Booking.class);
+        if (!updated.getPickupDate().equals(booking.getPickupDate())
+                || !updated.getReturnDate().equals(booking.getReturnDate())) {
+            price(updated);
+        }
+        updated.setUpdatedAt(now());
+        bookings.put(id, updated);
+        changed();
+        return true;
+    }
+
+    synchronized boolean cancelBooking(String id) {
+        Booking booking = bookings.get(id);
+        if (booking == null) {
+            return false;
+        }
+        Booking cancelled = gson.fromJson(gson.toJsonTree(booking), Booking.class);
+        cancelled.setStatus(BookingStatus.CANCELLED);
+        cancelled.setUpdatedAt(now());
+        bookings.put(id, cancelled);
+        changed();
+        return true;
+    }
+
+    synchronized boolean deleteBooking(String id) {
+        return removed(bookings.remove(id));
+    }
+
+    /**
+     * A booking as the backend returns it, with the customer's name and the car
+     * as they are now.
+     */
+    synchronized JsonObject bookingJson(Booking booking) {
+        Customer customer = customers.get(booking.getCustomerId());
+        Car car = cars.get(booking.getCarId());
+        JsonObject json = gson.toJsonTree(booking).getAsJsonObject();
+        json.addProperty("customerName", customer != null ? customer.getFirstName() + " " + customer.getLastName() : "Unknown");
+        json.addProperty("carInfo", car != null ? car.getYear() + " " + car.getMake() + " " + car.getModel() : "Unknown");
+        return json;
+    }
+
+    private static <T> List<T> select(Map<String, T> entities, Predicate<T> filter) {
+        List<T> selected = new ArrayList<>();
+        for (T entity : entities.values()) {
+            if (filter.test(entity)) {
+                selected.add(entity);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Whether a booking that is not cancelled holds the car for any of the days
+     * from {@code from} up to {@code to}, by the backend's overlap rule.
+     */
+    private boolean hasConflict(String carId, LocalDate from, LocalDate to) {
+        for (Booking b : bookings.values()) {
+            if (!carId.equals(b.getCarId()) || b.getStatus() == BookingStatus.CANCELLED) {
+                continue;
+            }
+            LocalDate pickup = b.getPickupDate();
+            LocalDate returned = b.getReturnDate();
+            if ((!pickup.isAfter(from) && returned.isAfter(from))
+                    || (pickup.isBefore(to) && !returned.isBefore(to))
+                    || (!pickup.isBefore(from) && !returned.isAfter(to))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Customer findByEmail(String email) {
+        for (Customer customer : customers.values()) {
+            if (email.equals(customer.getEmail())) {
+                return customer;
+            }
+        }
+        return null;
+    }
+
+    private static void price(Booking booking) {
+        int days = (int) ChronoUnit.DAYS.between(booking.getPickupDate(), booking.getReturnDate());
+        booking.setTotalDays(days);
+        booking.setTotalAmount(booking.getDailyRate().multiply(BigDecimal.valueOf(days)));
+    }
+
+    /**
+     * Copies onto {@code target} the fields of {@code request} that may be
+     * updated and were actually sent with a value.
+     */
+    private static JsonObject overlay(JsonObject target, JsonObject request, Set<String> updatable) {
+        for (Map.Entry<String, JsonElement> entry : request.entrySet()) {
+            if (updatable.contains(entry.getKey()) && !entry.getValue().isJsonNull()) {
+                target.add(entry.getKey(), entry.getValue());
+            }
+        }
+        return target;
+    }
+
+    private boolean removed(Object entity) {
+        if (entity == null) {
+            return false;
+        }
+        changed();
+        return true;
+    }
+
+    private void changed() {
+        version++;
+    }
+
+    private String newId(int kind) {
+        return SyntheticData.objectId(kind, nextId++);
+    }
+
+    private static String text(JsonObject object, String name) {
+        return present(object, name) ? object.get(name).getAsString() : null;
+    }
+
+    private static BigDecimal number(JsonObject object, String name) {
+        return present(object, name) ? object.get(name).getAsBigDecimal() : null;
+    }
+
+    private static boolean present(JsonObject object, String name) {
+        return object.has(name) && !object.get(name).isJsonNull();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
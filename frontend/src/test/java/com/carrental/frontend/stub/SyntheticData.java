@@ -0,0 +1,160 @@
+package com.carrental.frontend.stub;
+
+import com.carrental.frontend.models.Address;
+import com.carrental.frontend.models.Booking;
+import com.carrental.frontend.models.BookingStatus;
+import com.carrental.frontend.models.Car;
+import com.carrental.frontend.models.Customer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic fleet, customers and booking history for
+ * {@link StubBackend}, shaped like database/sample-cars.js and
+ * sample-customers.js. The same seed and counts always give the same data.
+ *
+ * Bookings never overlap on a car unless cancelled, so the stub's availability
+ * answers agree with its history. They span the year before {@code today} and
+ * the quarter after it, with statuses that fit their dates.
+ */
+final class SyntheticData {
+    private static final String[][] MAKE_MODELS = {
+            {"Toyota", "Camry"}, {"Toyota", "Corolla"}, {"Toyota", "RAV4"}, {"Honda", "Civic"}, {"Honda", "Accord"},
+            {"Honda", "CR-V"}, {"Ford", "Focus"}, {"Ford", "Mustang"}, {"Ford", "Explorer"}, {"Chevrolet", "Malibu"},
+            {"Chevrolet", "Tahoe"}, {"Nissan", "Altima"}, {"Nissan", "Leaf"}, {"BMW", "3 Series"}, {"BMW", "X5"},
+            {"Audi", "A4"}, {"Tesla", "Model 3"}, {"Tesla", "Model Y"}, {"Hyundai", "Elantra"}, {"Kia", "Sportage"}};
+    private static final String[] COLORS = {"Silver", "Black", "White", "Blue", "Red", "Gray"};
+    private static final String[] FUEL_TYPES = {"Gasoline", "Hybrid", "Electric", "Diesel"};
+    private static final String[] TRANSMISSIONS = {"Automatic", "Manual"};
+    private static final String[] CITIES = {"New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Seattle"};
+    private static final String[] STATES = {"NY", "CA", "IL", "TX", "AZ", "WA"};
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Mike", "Sarah", "David", "Emily", "Chris", "Anna",
+            "James", "Maria", "Robert", "Linda"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Martinez", "Wilson"};
+    private static final int HISTORY_DAYS = 365;
+    private static final int HORIZON_DAYS = 90;
+
+    final List<Car> cars;
+    final List<Customer> customers;
+    final List<Booking> bookings;
+
+    SyntheticData(long seed, int carCount, int customerCount, int bookingCount, LocalDate today) {
+        SplittableRandom random = new SplittableRandom(seed);
+        cars = cars(random.split(), carCount);
+        customers = customers(random.split(), customerCount, today);
+        bookings = carCount == 0 || customerCount == 0
+                ? new ArrayList<>() : bookings(random.split(), bookingCount, today);
+    }
+
+    static String objectId(int kind, long index) {
+        return String.format("%08x%016x", kind, index);
+    }
+
+    private static List<Car> cars(SplittableRandom random, int count) {
+        List<Car> cars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] makeModel = MAKE_MODELS[random.nextInt(MAKE_MODELS.length)];
+            Car car = new Car(makeModel[0], makeModel[1], 2015 + random.nextInt(10), pick(random, COLORS),
+                    String.format("CAR-%06d", i), BigDecimal.valueOf(30 + random.nextInt(150)).add(new BigDecimal("0.99")),
+                    pick(random, FUEL_TYPES), pick(random, TRANSMISSIONS), 2 + random.nextInt(6));
+            car.setId(objectId(1, i));
+            car.setAvailable(random.nextInt(10) != 0);
+            car.setDescription("Well maintained " + car.getMake() + " " + car.getModel() + " with low mileage.");
+            car.setImageUrl("https://images.example.com/cars/" + car.getId() + ".jpg");
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    private static List<Customer> customers(SplittableRandom random, int count, LocalDate today) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int city = random.nextInt(CITIES.length);
+            String first = pick(random, FIRST_NAMES);
+            String last = pick(random, LAST_NAMES);
+            Address address = new Address((100 + random.nextInt(9000)) + " Main St", CITIES[city], STATES[city],
+                    String.format("%05d", random.nextInt(99999)), "USA");
+            Customer customer = new Customer(first, last, (first + "." + last + i + "@example.com").toLowerCase(),
+                    String.format("+1-555-%07d", i), address,
+                    LocalDate.of(1950 + random.nextInt(50), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                    String.format("DL%08d", i));
+            customer.setId(objectId(2, i));
+            customer.setCreatedAt(today.minusDays(HISTORY_DAYS + random.nextInt(1000)));
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    /**
+     * Lays bookings end to end on randomly chosen cars, each starting a few days
+     * after the car's previous one, until {@code count} are placed or every car
+     * is booked out to the horizon.
+     */
+    private List<Booking> bookings(SplittableRandom random, int count, LocalDate today) {
+        LocalDate start = today.minusDays(HISTORY_DAYS);
+        LocalDate horizon = today.plusDays(HORIZON_DAYS);
+        LocalDate[] nextFree = new LocalDate[cars.size()];
+        for (int i = 0; i < nextFree.length; i++) {
+            nextFree[i] = start.plusDays(random.nextInt(14));
+        }
+        int open = cars.size();
+        List<Booking> bookings = new ArrayList<>(count);
+        while (bookings.size() < count && open > 0) {
+            int carIndex = random.nextInt(cars.size());
+            if (nextFree[carIndex] == null) {
+                continue;
+            }
+            int days = 1 + random.nextInt(14);
+            LocalDate pickup = nextFree[carIndex].plusDays(random.nextInt(4));
+            LocalDate returned = pickup.plusDays(days);
+            if (returned.isAfter(horizon)) {
+                nextFree[carIndex] = null;
+                open--;
+                continue;
+            }
+            nextFree[carIndex] = returned;
+
+            Car car = cars.get(carIndex);
+            Booking booking = new Booking();
+            booking.setId(objectId(3, bookings.size()));
+            booking.setCarId(car.getId());
+            booking.setCustomerId(customers.get(random.nextInt(customers.size())).getId());
+            booking.setPickupDate(pickup);
+            booking.setReturnDate(returned);
+            booking.setTotalDays(days);
+            booking.setDailyRate(car.getDailyRate());
+            booking.setTotalAmount(car.getDailyRate().multiply(BigDecimal.valueOf(days)));
+            booking.setStatus(status(random, pickup, returned, today));
+            booking.setPickupLocation(pick(random, CITIES) + " Airport");
+            booking.setReturnLocation(pick(random, CITIES) + " Downtown");
+            LocalDate bookedOn = pickup.minusDays(1 + random.nextInt(60));
+            booking.setCreatedAt((bookedOn.isBefore(today) ? bookedOn : today.minusDays(1)).atTime(8, 0)
+                    .plusSeconds(random.nextInt(36_000)));
+            booking.setUpdatedAt(booking.getCreatedAt().plusMinutes(random.nextInt(600)));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+
+    private static BookingStatus status(SplittableRandom random, LocalDate pickup, LocalDate returned, LocalDate today) {
+        if (random.nextInt(20) == 0) {
+            return BookingStatus.CANCELLED;
+        }
+        if (!returned.isAfter(today)) {
+            return BookingStatus.COMPLETED;
+        }
+        if (!pickup.isAfter(today)) {
+            return BookingStatus.ACTIVE;
+        }
+        return random.nextInt(4) == 0 ? BookingStatus.PENDING : BookingStatus.CONFIRMED;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,130 @@
+package com.carrental.frontend.ui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowDiffTest {
+    private static final Function<String[], String> ID = item -> item[0];
+    private static final Function<String[], Object[]> ROW = item -> new Object[]{item[0], item[1]};
+
+    @Test
+    void classifiesDeletedInsertedAndUpdatedRows() {
+        List<String[]> before = items("a:1", "b:1", "c:1", "d:1");
+        List<String[]> after = items("a:1", "c:2", "x:1", "d:1", "y:1");
+
+        RowDiff<String[]> diff = RowDiff.compute(before, after, ID, ROW);
+
+        assertArrayEquals(new int[]{1}, diff.getDeletedOldRows());
+        assertArrayEquals(new int[]{2, 4}, diff.getInsertedNewRows());
+        assertArrayEquals(new int[]{1}, diff.getUpdatedNewRows());
+        assertFalse(diff.isReordered());
+        assertEquals(4, diff.getChangeCount());
+    }
+
+    @Test
+    void unchangedResultIsEmpty() {
+        RowDiff<String[]> diff = RowDiff.compute(items("a:1", "b:1"), items("a:1", "b:1"), ID, ROW);
+
+        assertTrue(diff.isEmpty());
+        assertEquals(0, diff.getChangeCount());
+    }
+
+    @Test
+    void swappedRowsAreReordered() {
+        RowDiff<String[]> diff = RowDiff.compute(items("a:1", "b:1", "c:1"), items("a:1", "c:1", "b:1"), ID, ROW);
+
+        assertTrue(diff.isReordered());
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    void applyDiffEventsTurnTheOldRowsIntoTheNewOnes() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<String[]> before = new ArrayList<>();
+            List<String[]> after = new ArrayList<>();
+            int ids = 1 + random.nextInt(60);
+            for (int i = 0; i < ids; i++) {
+                String id = "r" + i;
+                if (random.nextInt(4) != 0) {
+                    before.add(new String[]{id, "1"});
+                }
+                if (random.nextInt(4) != 0) {
+                    after.add(new String[]{id, random.nextInt(5) == 0 ? "2" : "1"});
+                }
+            }
+            replay(before, after);
+        }
+    }
+
+    /**
+     * Applies the diff's events, in the order the model fires them, to a copy of
+     * the old ids, checking the model's row count at each event as a JTable would.
+     */
+    private static void replay(List<String[]> before, List<String[]> after) {
+        RowDiff<String[]> diff = RowDiff.compute(before, after, ID, ROW);
+        PagedTableModel<String[]> model = new PagedTableModel<>(new String[]{"Id", "Value"}, ROW, 8, 4, Runnable::run);
+        model.setSource(new ListPageSource<>(before));
+
+        List<String> rows = new ArrayList<>(ids(before));
+        Set<String> updated = new HashSet<>();
+        model.addTableModelListener(event -> {
+            switch (event.getType()) {
+                case TableModelEvent.DELETE:
+                    rows.subList(event.getFirstRow(), event.getLastRow() + 1).clear();
+                    break;
+                case TableModelEvent.INSERT:
+                    for (int row = event.getFirstRow(); row <= event.getLastRow(); row++) {
+                        rows.add(row, ID.apply(after.get(row)));
+                    }
+                    break;
+                default:
+                    for (int row = event.getFirstRow(); row <= event.getLastRow(); row++) {
+                        updated.add(rows.get(row));
+                    }
+                    break;
+            }
+            assertEquals(rows.size(), model.getRowCount());
+        });
+        model.applyDiff(new ListPageSource<>(after), diff);
+
+        assertEquals(ids(after), rows);
+        Set<String> expectedUpdated = new HashSet<>();
+        for (int row : diff.getUpdatedNewRows()) {
+            expectedUpdated.add(ID.apply(after.get(row)));
+        }
+        assertEquals(expectedUpdated, updated);
+        for (int row = 0; row < after.size(); row++) {
+            assertEquals(ID.apply(after.get(row)), ID.apply(model.getEntityAt(row)));
+        }
+    }
+
+    private static List<String[]> items(String... values) {
+        List<String[]> items = new ArrayList<>();
+        for (String value : values) {
+            items.add(value.split(":"));
+        }
+        return items;
+    }
+
+    private static List<String> ids(List<String[]> items) {
+        List<String> ids = new ArrayList<>();
+        for (String[] item : items) {
+            ids.add(ID.apply(item));
+        }
+        return Collections.unmodifiableList(ids);
+    }
+}
@@ -0,0 +1,131 @@
+package com.carrental.frontend.utils;
+
+import com.carrental.frontend.stub.StubBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ApiClient's retries, hedging and circuit breaking against faults injected by
+ * the {@link StubBackend}.
+ */
+class ApiClientTest {
+    private StubBackend backend;
+    private String cars;
+
+    @BeforeEach
+    void startBackend() throws IOException {
+        backend = StubBackend.builder().seed(3).cars(5).customers(5).bookings(0).start();
+        cars = backend.baseUrl() + "/api/cars";
+    }
+
+    @AfterEach
+    void stopBackend() {
+        backend.close();
+    }
+
+    @Test
+    void getIsRetriedUpToMaxAttemptsButPostIsNot() {
+        ApiClient client = new ApiClient(ResiliencePolicy.builder()
+                .maxAttempts(3).backoffMillis(1, 5).hedging(false).breakerFailureThreshold(0).build());
+        backend.setErrorRate(1);
+
+        HttpStatusException get = assertThrows(HttpStatusException.class, () -> client.get(cars));
+        assertEquals(503, get.getCode());
+        assertThrows(HttpStatusException.class, () -> client.post(cars + "/search", "{}"));
+
+        assertEquals(3L, backend.getRequestCounts().get("GET /api/cars"));
+        assertEquals(1L, backend.getRequestCounts().get("POST /api/cars/search"));
+    }
+
+    @Test
+    void retryAfterIsHonouredOnlyWithinTheDeadline() {
+        ApiClient client = new ApiClient(ResiliencePolicy.builder().deadlineMillis(3_000)
+                .maxAttempts(3).backoffMillis(1, 5).hedging(false).breakerFailureThreshold(0).build());
+        backend.setErrorRate(1);
+        backend.setRetryAfterSeconds(5);
+
+        long start = System.nanoTime();
+        assertThrows(HttpStatusException.class, () -> client.get(cars));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertEquals(1L, backend.getRequestCounts().get("GET /api/cars"));
+
+        // A wait that fits is honoured instead of the client's own backoff. Not
+        // "0", which OkHttp answers by repeating the request once by itself
+        backend.resetCounters();
+        backend.setRetryAfterSeconds(1);
+        start = System.nanoTime();
+        assertThrows(HttpStatusException.class, () -> client.get(cars));
+        assertTrue(System.nanoTime() - start >= TimeUnit.SECONDS.toNanos(2));
+        assertEquals(3L, backend.getRequestCounts().get("GET /api/cars"));
+    }
+
+    @Test
+    void hedgeAnswersASlowGetAndTheCancelledLoserIsNoFailure() throws Exception {
+        // A single failure would open the circuit, so a loser counted as one would show
+        ApiClient client = new ApiClient(ResiliencePolicy.builder()
+                .maxAttempts(1).hedgeAfter(50, 100, 5).breakerFailureThreshold(1).build());
+        for (int i = 0; i < 5; i++) {
+            client.get(cars);
+        }
+        backend.resetCounters();
+        backend.setLatencyMillis(2_000);
+
+        long start = System.nanoTime();
+        CompletableFuture<String> slow = client.getAsync(cars);
+        waitForRequests(1);
+        // Only the first attempt is held; the hedge sent after 100 ms is answered at once
+        Thread.sleep(30);
+        backend.setLatencyMillis(0);
+        assertNotNull(slow.get(5, TimeUnit.SECONDS));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertEquals(2L, backend.getRequestCounts().get("GET /api/cars"));
+        // Let the loser's cancellation be reported before checking the circuit
+        Thread.sleep(200);
+        assertNotNull(client.get(cars));
+        assertEquals(3L, backend.getRequestCounts().get("GET /api/cars"));
+    }
+
+    @Test
+    void openCircuitFailsFastUntilAProbeSucceeds() throws Exception {
+        ApiClient client = new ApiClient(ResiliencePolicy.builder()
+                .maxAttempts(1).hedging(false).breakerFailureThreshold(2).breakerOpenMillis(200).build());
+        backend.setErrorRate(1);
+
+        assertThrows(HttpStatusException.class, () -> client.get(cars));
+        assertThrows(HttpStatusException.class, () -> client.get(cars));
+        assertThrows(CircuitOpenException.class, () -> client.get(cars));
+        assertEquals(2L, backend.getRequestCounts().get("GET /api/cars"));
+
+        // Half-open: the probe fails and the circuit opens again
+        Thread.sleep(250);
+        assertThrows(HttpStatusException.class, () -> client.get(cars));
+        assertThrows(CircuitOpenException.class, () -> client.get(cars));
+        assertEquals(3L, backend.getRequestCounts().get("GET /api/cars"));
+
+        // Half-open again: the probe succeeds and closes it
+        Thread.sleep(250);
+        backend.setErrorRate(0);
+        assertNotNull(client.get(cars));
+        assertNotNull(client.get(cars));
+        assertEquals(5L, backend.getRequestCounts().get("GET /api/cars"));
+    }
+
+    private void waitForRequests(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (backend.getRequestCounts().getOrDefault("GET /api/cars", 0L) < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.carrental.frontend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 10_000);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.getRemainingOpenMillis() > 0);
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndReplacesOneThatNeverReports() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 100);
+        breaker.recordFailure();
+        Thread.sleep(120);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        // The probe was cancelled and its outcome never recorded
+        Thread.sleep(120);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 100);
+        breaker.recordFailure();
+        Thread.sleep(120);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,93 @@
+package com.carrental.frontend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRoundTripTest {
+    @Test
+    void fieldsNeedingQuotesSurviveARoundTrip() throws IOException {
+        List<List<String>> records = Arrays.asList(
+                Arrays.asList("plain", "with,comma", "say \"hi\"", "\"", "two\nlines"),
+                Arrays.asList(" leading", "trailing ", "  ", "tab\tinside", "ünïcødé"),
+                Arrays.asList("", "", ""),
+                Collections.singletonList("last"));
+
+        assertEquals(records, read(write(records)));
+    }
+
+    @Test
+    void writesCrlfRecordsAndQuotesOnlyWhenNeeded() throws IOException {
+        String csv = write(Arrays.asList(
+                Arrays.asList("a", "b,c", "d\"e", null, "f"),
+                Arrays.asList("x", " y")));
+
+        assertEquals("a,\"b,c\",\"d\"\"e\",,f\r\nx,\" y\"\r\n", csv);
+    }
+
+    @Test
+    void nullIsReadBackAsAnEmptyField() throws IOException {
+        assertEquals(Collections.singletonList(Arrays.asList("a", "", "b")),
+                read(write(Collections.singletonList(Arrays.asList("a", null, "b")))));
+    }
+
+    @Test
+    void lineBreaksInsideQuotedFieldsAreReadAsNewlines() throws IOException {
+        // The reader splits lines on \r\n as well as \n, so both come back as \n
+        List<List<String>> read = read(write(Collections.singletonList(Arrays.asList("one\r\ntwo", "x"))));
+
+        assertEquals(Collections.singletonList(Arrays.asList("one\ntwo", "x")), read);
+    }
+
+    @Test
+    void blankLinesAreSkippedAndRecordStartLinesReported() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("a,b\n\n\"multi\nline\",c\n\nlast\n"))) {
+            assertEquals(Arrays.asList("a", "b"), reader.readRecord());
+            assertEquals(1, reader.getRecordStartLine());
+            assertEquals(Arrays.asList("multi\nline", "c"), reader.readRecord());
+            assertEquals(3, reader.getRecordStartLine());
+            assertEquals(Collections.singletonList("last"), reader.readRecord());
+            assertEquals(6, reader.getRecordStartLine());
+            assertNull(reader.readRecord());
+        }
+    }
+
+    @Test
+    void unterminatedQuotedFieldIsAnError() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("a,\"open\nstill open\n"))) {
+            IOException error = assertThrows(IOException.class, reader::readRecord);
+            assertEquals("Unterminated quoted field starting on line 1", error.getMessage());
+        }
+    }
+
+    private static String write(List<List<String>> records) throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            for (List<String> record : records) {
+                writer.writeRecord(record);
+            }
+        }
+        return out.toString();
+    }
+
+    private static List<List<String>> read(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
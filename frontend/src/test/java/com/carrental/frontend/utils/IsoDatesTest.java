@@ -0,0 +1,67 @@
+package com.carrental.frontend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IsoDatesTest {
+    @Test
+    void parsesDatesAndKeepsTheDatePartOfDateTimes() {
+        assertEquals(LocalDate.of(2024, 5, 1), IsoDates.parseDate("2024-05-01"));
+        assertEquals(LocalDate.of(2024, 2, 29), IsoDates.parseDate("2024-02-29T00:00:00"));
+        assertEquals(LocalDate.of(1999, 12, 31), IsoDates.parseDate("1999-12-31T23:59:59.9999999Z"));
+    }
+
+    @Test
+    void parsesTheDateTimeShapesTheApiSends() {
+        assertEquals(LocalDateTime.of(2024, 5, 1, 0, 0), IsoDates.parseDateTime("2024-05-01"));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 30), IsoDates.parseDateTime("2024-05-01T10:30"));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 30, 15), IsoDates.parseDateTime("2024-05-01 10:30:15"));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 30, 0, 123_456_700),
+                IsoDates.parseDateTime("2024-05-01T10:30:00.1234567"));
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 30, 0, 500_000_000),
+                IsoDates.parseDateTime("2024-05-01T10:30:00.5Z"));
+    }
+
+    @Test
+    void offsetsAreDroppedKeepingTheWallClockTime() {
+        LocalDateTime expected = LocalDateTime.of(2024, 5, 1, 10, 30);
+        assertEquals(expected, IsoDates.parseDateTime("2024-05-01T10:30:00Z"));
+        assertEquals(expected, IsoDates.parseDateTime("2024-05-01T10:30:00+02:00"));
+        assertEquals(expected, IsoDates.parseDateTime("2024-05-01T10:30:00-05:30"));
+        assertEquals(expected, IsoDates.parseDateTime("2024-05-01T10:30:00.000+0100"));
+    }
+
+    @Test
+    void agreesWithJavaTimeOnItsFastPath() {
+        String[] dateTimes = {
+                "2024-01-01T00:00:00", "2024-12-31T23:59:59.999999999", "2000-02-29T12:00:00.1",
+                "2024-06-15T08:05:09.000001"};
+        for (String text : dateTimes) {
+            assertEquals(LocalDateTime.parse(text), IsoDates.parseDateTime(text), text);
+            assertEquals(OffsetDateTime.parse(text + "+01:00").toLocalDateTime(),
+                    IsoDates.parseDateTime(text + "+01:00"), text);
+        }
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        assertThrows(DateTimeParseException.class, () -> IsoDates.parseDate("not a date"));
+        assertThrows(DateTimeParseException.class, () -> IsoDates.parseDate("2024-5-1"));
+        assertThrows(DateTimeParseException.class, () -> IsoDates.parseDate("20240-05-01"));
+        assertThrows(DateTimeParseException.class, () -> IsoDates.parseDateTime("2024-05-01T10"));
+        assertThrows(DateTimeParseException.class, () -> IsoDates.parseDateTime("2024-05-01T10:3x"));
+        assertThrows(DateTimeParseException.class, () -> IsoDates.parseDateTime("2024-05-01T10:30:00 junk"));
+        // Well-formed but out of range
+        assertThrows(DateTimeException.class, () -> IsoDates.parseDate("2024-13-01"));
+        assertThrows(DateTimeException.class, () -> IsoDates.parseDate("2023-02-29"));
+        assertThrows(DateTimeException.class, () -> IsoDates.parseDateTime("2024-05-01T25:00:00"));
+    }
+}
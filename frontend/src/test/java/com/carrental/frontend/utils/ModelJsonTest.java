@@ -0,0 +1,26 @@
+package com.carrental.frontend.utils;
+
+import com.carrental.frontend.models.Booking;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelJsonTest {
+    private final Gson gson = ModelJson.gson();
+
+    @Test
+    void dateBeyondAnIntEpochDayIsReportedAsBadJson() {
+        Booking booking = gson.fromJson("{\"id\":\"b1\",\"pickupDate\":\"2024-05-01\"}", Booking.class);
+        assertEquals(LocalDate.of(2024, 5, 1), booking.getPickupDate());
+
+        JsonSyntaxException e = assertThrows(JsonSyntaxException.class,
+                () -> gson.fromJson("{\"id\":\"b1\",\"pickupDate\":\"+99999999-01-01\"}", Booking.class));
+        assertTrue(e.getMessage().contains("pickupDate"), e.getMessage());
+    }
+}
@@ -0,0 +1,115 @@
+package com.carrental.frontend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private final SingleFlight<String> flights = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+
+    @Test
+    void followerOfAnInterruptedLeaderStartsAFreshLoad() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = threads.submit(() -> flights.execute("cars", this::blockUntilInterrupted));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> follower = threads.submit(() -> flights.execute("cars", this::blockUntilInterrupted));
+            waitForFollowerToJoin();
+
+            // As TaskRunner does when a newer load supersedes this one
+            leader.cancel(true);
+
+            assertEquals("load 2", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(2, loads.get());
+            assertEquals(0, flights.inFlightCount());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void asyncFollowerOfAnInterruptedLeaderStartsAFreshLoad() throws Exception {
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = threads.submit(() -> flights.execute("cars", this::blockUntilInterrupted));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> follower = flights.executeAsync("cars",
+                    () -> CompletableFuture.completedFuture("load " + loads.incrementAndGet()));
+
+            leader.cancel(true);
+
+            assertEquals("load 2", follower.get(5, TimeUnit.SECONDS));
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureFromTheServerIsShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = threads.submit(() -> flights.execute("cars", () -> {
+                loads.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                throw new HttpStatusException(503, "Service Unavailable");
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> follower = threads.submit(() -> flights.execute("cars", () -> "load " + loads.incrementAndGet()));
+            waitForFollowerToJoin();
+            release.countDown();
+
+            assertInstanceOf(HttpStatusException.class,
+                    assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+            assertInstanceOf(HttpStatusException.class,
+                    assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+            assertEquals(1, loads.get());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private String blockUntilInterrupted() throws IOException {
+        int load = loads.incrementAndGet();
+        if (load > 1) {
+            return "load " + load;
+        }
+        leaderStarted.countDown();
+        await(new CountDownLatch(1));
+        throw new AssertionError("not interrupted");
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedIOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted");
+        }
+    }
+
+    /**
+     * The follower blocks inside execute with no signal of its own; give it time
+     * to get there.
+     */
+    private static void waitForFollowerToJoin() throws InterruptedException {
+        Thread.sleep(200);
+    }
+}